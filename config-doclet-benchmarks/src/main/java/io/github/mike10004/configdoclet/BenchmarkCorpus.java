@@ -0,0 +1,155 @@
+package io.github.mike10004.configdoclet;
+
+import com.sun.source.util.JavacTask;
+import io.github.mike10004.configdoclet.tests.SampleProject;
+import io.github.mike10004.configdoclet.tests.SyntheticProject;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Fields of a project analyzed by the compiler, with their names, comments, and constant
+ * values, as inputs for benchmarks. Corpora are built once per name and kept for the
+ * life of the benchmark JVM.
+ */
+final class BenchmarkCorpus {
+
+    /**
+     * Name of the corpus drawn from the sample project that the tests use.
+     */
+    public static final String SAMPLE = "sample";
+
+    /**
+     * Name of the corpus drawn from a synthetic project of a thousand settings.
+     */
+    public static final String SYNTHETIC = "synthetic";
+
+    private static final int SYNTHETIC_SETTING_COUNT = 1000;
+
+    private static final Map<String, BenchmarkCorpus> cache = new HashMap<>();
+
+    public final List<VariableElement> fields;
+    public final List<String> fieldNames;
+    public final List<String> comments;
+    public final List<String> constantValues;
+
+    private BenchmarkCorpus(List<VariableElement> fields, List<String> fieldNames, List<String> comments, List<String> constantValues) {
+        this.fields = Collections.unmodifiableList(fields);
+        this.fieldNames = Collections.unmodifiableList(fieldNames);
+        this.comments = Collections.unmodifiableList(comments);
+        this.constantValues = Collections.unmodifiableList(constantValues);
+    }
+
+    /**
+     * Gets a corpus by name.
+     * @param name {@link #SAMPLE} or {@link #SYNTHETIC}
+     * @return the corpus
+     */
+    public static synchronized BenchmarkCorpus get(String name) {
+        return cache.computeIfAbsent(name, n -> {
+            try {
+                return load(n);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static BenchmarkCorpus load(String name) throws IOException {
+        Path directory = Files.createTempDirectory("config-doclet-benchmark-corpus");
+        List<Path> sourceFiles;
+        switch (name) {
+            case SAMPLE:
+                try {
+                    SampleProject.getDefault().copyTestProject(directory);
+                } catch (URISyntaxException e) {
+                    throw new IOException(e);
+                }
+                try (Stream<Path> files = Files.walk(directory.resolve("src/main/java"))) {
+                    sourceFiles = files.filter(f -> f.getFileName().toString().endsWith(".java"))
+                            .sorted()
+                            .collect(Collectors.toList());
+                }
+                break;
+            case SYNTHETIC:
+                sourceFiles = SyntheticProject.withSettingCount(SYNTHETIC_SETTING_COUNT).writeSources(directory);
+                break;
+            default:
+                throw new IllegalArgumentException("not a corpus name: " + name);
+        }
+        return analyze(sourceFiles);
+    }
+
+    /**
+     * Analyzes source files with the compiler and collects the fields of the top-level types.
+     */
+    static BenchmarkCorpus analyze(List<Path> sourceFiles) throws IOException {
+        JavaCompiler compiler = requireNonNull(ToolProvider.getSystemJavaCompiler(), "system compiler not available");
+        List<VariableElement> fields = new ArrayList<>();
+        List<String> fieldNames = new ArrayList<>();
+        List<String> comments = new ArrayList<>();
+        List<String> constantValues = new ArrayList<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(sourceFiles.stream().map(Path::toFile).collect(Collectors.toList()));
+            JavacTask task = (JavacTask) compiler.getTask(null, fileManager, diagnostic -> {}, Arrays.asList("-proc:none"), null, units);
+            Elements elements = task.getElements();
+            for (Element type : task.analyze()) {
+                if (!(type instanceof TypeElement)) {
+                    continue;
+                }
+                type.getEnclosedElements().stream()
+                        .filter(VariableElement.class::isInstance)
+                        .map(VariableElement.class::cast)
+                        .sorted(Comparator.comparing(f -> f.getSimpleName().toString()))
+                        .forEach(field -> {
+                            fields.add(field);
+                            fieldNames.add(field.getSimpleName().toString());
+                            String comment = elements.getDocComment(field);
+                            if (comment != null) {
+                                comments.add(comment);
+                            }
+                            Object constantValue = field.getConstantValue();
+                            if (constantValue != null) {
+                                constantValues.add(constantValue.toString());
+                            }
+                        });
+            }
+        }
+        if (fields.isEmpty() || comments.isEmpty() || constantValues.isEmpty()) {
+            throw new IllegalStateException("corpus is incomplete: " + fields.size() + " fields, " + comments.size() + " comments, " + constantValues.size() + " constant values");
+        }
+        return new BenchmarkCorpus(fields, fieldNames, comments, constantValues);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringHelper(this)
+                .add("fields", fields.size())
+                .add("comments", comments.size())
+                .add("constantValues", constantValues.size())
+                .toString();
+    }
+}
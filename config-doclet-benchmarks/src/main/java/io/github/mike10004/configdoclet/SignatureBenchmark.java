@@ -0,0 +1,47 @@
+package io.github.mike10004.configdoclet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.lang.model.element.VariableElement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of constructing the link signature of a field element. Each operation
+ * constructs the signature of one field of the corpus, cycling through the corpus.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SignatureBenchmark {
+
+    @Param({BenchmarkCorpus.SAMPLE, BenchmarkCorpus.SYNTHETIC})
+    public String corpus;
+
+    private List<VariableElement> fields;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        fields = BenchmarkCorpus.get(corpus).fields;
+    }
+
+    @Benchmark
+    public String constructSignature() {
+        index = (index + 1) % fields.size();
+        return CollectionLinkResolver.constructSignature(fields.get(index));
+    }
+}
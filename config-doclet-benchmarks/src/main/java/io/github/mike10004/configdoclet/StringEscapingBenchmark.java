@@ -0,0 +1,79 @@
+package io.github.mike10004.configdoclet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the escaping of keys, values, and comments in properties output.
+ * Each operation escapes one string of the corpus, cycling through the corpus.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringEscapingBenchmark {
+
+    @Param({BenchmarkCorpus.SAMPLE, BenchmarkCorpus.SYNTHETIC})
+    public String corpus;
+
+    private List<String> keys;
+    private List<String> comments;
+    private int keyIndex;
+    private int commentIndex;
+    private StringWriter buffer;
+    private BufferedWriter writer;
+
+    @Setup
+    public void setUp() {
+        BenchmarkCorpus c = BenchmarkCorpus.get(corpus);
+        keys = c.constantValues;
+        comments = c.comments;
+        buffer = new StringWriter(4096);
+        writer = new BufferedWriter(buffer);
+    }
+
+    private String nextKey() {
+        keyIndex = (keyIndex + 1) % keys.size();
+        return keys.get(keyIndex);
+    }
+
+    private String nextComment() {
+        commentIndex = (commentIndex + 1) % comments.size();
+        return comments.get(commentIndex);
+    }
+
+    @Benchmark
+    public String saveConvertKey() {
+        return StringEscaping.JavaUtilProperties.saveConvert(nextKey(), true, true);
+    }
+
+    @Benchmark
+    public String saveConvertValue() {
+        return StringEscaping.JavaUtilProperties.saveConvert(nextComment(), false, true);
+    }
+
+    @Benchmark
+    public int writeComments() throws IOException {
+        buffer.getBuffer().setLength(0);
+        StringEscaping.JavaUtilProperties.writeComments(writer, nextComment());
+        writer.flush();
+        return buffer.getBuffer().length();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.mike10004.configdoclet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of trimming leading characters from comments, as done to descriptions
+ * before they are written as properties comments. Each operation trims one comment of
+ * the corpus, cycling through the corpus. Comments as returned by the compiler keep the
+ * space that follows the asterisk of each comment line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringageBenchmark {
+
+    @Param({BenchmarkCorpus.SAMPLE, BenchmarkCorpus.SYNTHETIC})
+    public String corpus;
+
+    private List<String> comments;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        comments = BenchmarkCorpus.get(corpus).comments;
+    }
+
+    private String nextComment() {
+        index = (index + 1) % comments.size();
+        return comments.get(index);
+    }
+
+    @Benchmark
+    public String trimLeadingFromChar() {
+        return Stringage.trimLeadingFrom(nextComment(), ' ');
+    }
+
+    @Benchmark
+    public String trimLeadingFromString() {
+        return Stringage.trimLeadingFrom(nextComment(), " ");
+    }
+}
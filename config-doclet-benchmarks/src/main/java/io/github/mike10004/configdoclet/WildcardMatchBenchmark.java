@@ -0,0 +1,74 @@
+package io.github.mike10004.configdoclet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Benchmarks of matching field names against the wildcard patterns of the field names
+ * option. Each operation tests one field name of the corpus against a pattern set,
+ * cycling through the corpus.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WildcardMatchBenchmark {
+
+    /**
+     * Patterns equivalent to the default field name prefixes.
+     */
+    static final String PATTERNS_PREFIXES = "CFG_*,PROP_*,PROPERTY_*,CONFIG_*";
+
+    /**
+     * Patterns with wildcards in leading, inner, and trailing positions.
+     */
+    static final String PATTERNS_MIXED = "*_KEY,CFG_*_?,SETTING_*,*VALUE*";
+
+    @Param({BenchmarkCorpus.SAMPLE, BenchmarkCorpus.SYNTHETIC})
+    public String corpus;
+
+    @Param({PATTERNS_PREFIXES, PATTERNS_MIXED})
+    public String patterns;
+
+    private List<String> names;
+    private int index;
+    private String pattern;
+    private Predicate<? super CharSequence> predicate;
+
+    @Setup
+    public void setUp() {
+        names = BenchmarkCorpus.get(corpus).fieldNames;
+        pattern = ConfigDoclet.tokenizePatterns(patterns).get(0);
+        predicate = ConfigDoclet.constructPatternNamePredicate(patterns, IOCase.SENSITIVE);
+    }
+
+    private String nextName() {
+        index = (index + 1) % names.size();
+        return names.get(index);
+    }
+
+    @Benchmark
+    public boolean wildcardMatch() {
+        return FilenameUtils.wildcardMatch(nextName(), pattern, IOCase.SENSITIVE);
+    }
+
+    @Benchmark
+    public boolean patternNamePredicate() {
+        return predicate.test(nextName());
+    }
+}
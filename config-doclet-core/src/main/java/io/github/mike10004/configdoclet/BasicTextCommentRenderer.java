@@ -5,9 +5,9 @@ import com.sun.source.doctree.InlineTagTree;
 import com.sun.source.doctree.LiteralTree;
 import com.sun.source.doctree.TextTree;
 
+import javax.lang.model.element.VariableElement;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
 
 class BasicTextCommentRenderer implements CommentRenderer {
 
@@ -15,11 +15,18 @@ class BasicTextCommentRenderer implements CommentRenderer {
     }
 
     @SuppressWarnings("SameParameterValue")
-    String joinText(Collection<? extends DocTree> fullBody, String delimiter) {
-        return fullBody.stream()
-                .filter(this::isRenderable)
-                .map(this::renderOne)
-                .collect(Collectors.joining(delimiter)).trim();
+    void joinText(VariableElement element, Collection<? extends DocTree> fullBody, String delimiter, Appendable out) throws IOException {
+        Appendable trimming = new TrimmingAppendable(out);
+        boolean first = true;
+        for (DocTree tree : fullBody) {
+            if (isRenderable(tree)) {
+                if (!first) {
+                    trimming.append(delimiter);
+                }
+                renderOne(element, tree, trimming);
+                first = false;
+            }
+        }
     }
 
     protected boolean isRenderable(DocTree tree) {
@@ -27,15 +34,17 @@ class BasicTextCommentRenderer implements CommentRenderer {
                 || isInlineCode(tree);
     }
 
-    protected String renderOne(DocTree tree) {
+    protected void renderOne(VariableElement element, DocTree tree, Appendable out) throws IOException {
         if (tree instanceof TextTree) {
-            return ((TextTree)tree).getBody();
+            out.append(((TextTree)tree).getBody());
+            return;
         }
         if (isInlineCode(tree)) {
              TextTree body = ((LiteralTree) tree).getBody();
-             return body.getBody();
+             out.append(body.getBody());
+             return;
         }
-        return renderUnsupported(tree);
+        renderUnsupported(tree, out);
     }
 
     private boolean isInlineCode(DocTree tree) {
@@ -48,12 +57,13 @@ class BasicTextCommentRenderer implements CommentRenderer {
         return false;
     }
 
-    protected String renderUnsupported(DocTree tree) {
-        return "";
+    @SuppressWarnings("unused")
+    protected void renderUnsupported(DocTree tree, Appendable out) throws IOException {
     }
 
     @Override
-    public String render(Collection<? extends DocTree> docTrees) {
-        return joinText(docTrees, " ");
+    public boolean render(VariableElement element, Collection<? extends DocTree> docTrees, Appendable out) throws IOException {
+        joinText(element, docTrees, " ", out);
+        return true;
     }
 }
@@ -0,0 +1,43 @@
+package io.github.mike10004.configdoclet;
+
+import io.github.mike10004.configdoclet.runtime.Setting;
+import io.github.mike10004.configdoclet.runtime.SettingsBinary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Formatter that produces the binary form read by the runtime library.
+ * @see SettingsBinary
+ */
+class BinaryOutputFormatter implements OutputFormatter {
+
+    static final String OUTPUT_FORMAT_BINARY = "binary";
+
+    @Override
+    public void format(List<ConfigSetting> items, OutputStream out, Charset charset) throws IOException {
+        List<Setting> settings = items.stream()
+                .map(BinaryOutputFormatter::toSetting)
+                .collect(Collectors.toList());
+        SettingsBinary.write(settings, out);
+    }
+
+    static Setting toSetting(ConfigSetting item) {
+        List<Setting.ExampleValue> exampleValues = item.exampleValues.stream()
+                .map(example -> new Setting.ExampleValue(example.value, example.description))
+                .collect(Collectors.toList());
+        return new Setting(item.key, item.description, item.defaultValue, exampleValues);
+    }
+
+    public static Factory factory() {
+        return Factory.forCode(OUTPUT_FORMAT_BINARY, optionage -> new BinaryOutputFormatter());
+    }
+
+    @Override
+    public String suggestFilenameExtension() {
+        return "bin";
+    }
+}
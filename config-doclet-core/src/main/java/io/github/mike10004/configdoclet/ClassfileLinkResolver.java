@@ -0,0 +1,212 @@
+package io.github.mike10004.configdoclet;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.VariableElement;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Link resolver that reads constant values from class files in directories and JARs.
+ * This allows links to constants defined in binary-only dependencies to be resolved
+ * without adding the sources of those dependencies to the javadoc run. Class files in
+ * directories are memory-mapped; JAR entries are compressed, so they are inflated
+ * into heap buffers. Each class is read at most once and its constants are cached.
+ *
+ * <p>Because there are no elements to return, {@link #resolve(Element, String)} always
+ * returns null; only {@link #resolveConstantValue(Element, String)} is supported.
+ *
+ * <p>A class file that cannot be read due to an I/O error is passed to the read failure
+ * handler and treated as absent, so the links to it are left unresolved.
+ */
+class ClassfileLinkResolver implements LinkResolver, Closeable {
+
+    private static final Logger log = Logger.getLogger(ClassfileLinkResolver.class.getName());
+
+    private static final String CLASSFILE_SUFFIX = ".class";
+
+    private final List<Path> classpath;
+    private final Map<Path, Optional<ZipFile>> openArchives;
+    private final Map<String, Optional<ClassfileReader.ClassConstants>> classCache;
+    private final BiConsumer<String, IOException> readFailureHandler;
+
+    public ClassfileLinkResolver(List<Path> classpath) {
+        this(classpath, (internalName, e) -> log.log(Level.FINE, e, () -> String.format("failed to read %s", internalName)));
+    }
+
+    /**
+     * Constructs an instance.
+     * @param classpath the directories and JARs to read class files from
+     * @param readFailureHandler handler of the internal name of each class that could not be read
+     *                           and the exception that was thrown
+     */
+    public ClassfileLinkResolver(List<Path> classpath, BiConsumer<String, IOException> readFailureHandler) {
+        this.classpath = Collections.unmodifiableList(new ArrayList<>(classpath));
+        this.readFailureHandler = requireNonNull(readFailureHandler);
+        openArchives = new HashMap<>();
+        classCache = new HashMap<>();
+    }
+
+    @Nullable
+    @Override
+    public VariableElement resolve(Element context, String signature) {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public Object resolveConstantValue(Element context, String signature) {
+        requireNonNull(signature, "signature");
+        int hashIndex = signature.indexOf('#');
+        if (hashIndex <= 0 || hashIndex == signature.length() - 1) {
+            return null;
+        }
+        String typeName = signature.substring(0, hashIndex);
+        String fieldName = signature.substring(hashIndex + 1);
+        if (typeName.indexOf('.') < 0) {
+            String packageName = CollectionLinkResolver.getPackageName(context);
+            if (!packageName.isEmpty()) {
+                typeName = packageName + "." + typeName;
+            }
+        }
+        for (String internalName : toInternalNames(typeName)) {
+            @Nullable ClassfileReader.ClassConstants classConstants = getClassConstants(internalName);
+            if (classConstants != null) {
+                return classConstants.constants.get(fieldName);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lists the internal names a dotted type name could correspond to. Nested types are
+     * named with dollar signs in class files, and the dotted name does not tell where the
+     * package name ends, so each split is tried, starting with the longest package name.
+     */
+    static List<String> toInternalNames(String typeName) {
+        String[] parts = typeName.split("\\.");
+        List<String> names = new ArrayList<>(parts.length);
+        for (int numPackageParts = parts.length - 1; numPackageParts >= 0; numPackageParts--) {
+            String packagePath = String.join("/", Arrays.asList(parts).subList(0, numPackageParts));
+            String className = String.join("$", Arrays.asList(parts).subList(numPackageParts, parts.length));
+            names.add(packagePath.isEmpty() ? className : packagePath + "/" + className);
+        }
+        return names;
+    }
+
+    @Nullable
+    ClassfileReader.ClassConstants getClassConstants(String internalName) {
+        return classCache.computeIfAbsent(internalName, name -> {
+            try {
+                return Optional.ofNullable(findAndRead(name));
+            } catch (IOException e) {
+                readFailureHandler.accept(name, e);
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    @Nullable
+    private ClassfileReader.ClassConstants findAndRead(String internalName) throws IOException {
+        String relativePath = internalName + CLASSFILE_SUFFIX;
+        for (Path entry : classpath) {
+            @Nullable ByteBuffer classfile;
+            if (Files.isDirectory(entry)) {
+                classfile = mapClassfile(entry.resolve(relativePath));
+            } else {
+                classfile = readArchiveEntry(entry, relativePath);
+            }
+            if (classfile != null) {
+                try {
+                    return ClassfileReader.read(classfile);
+                } catch (ClassfileReader.ClassfileFormatException e) {
+                    log.log(Level.FINE, e, () -> String.format("failed to read %s from %s", relativePath, entry));
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static ByteBuffer mapClassfile(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    @Nullable
+    private ByteBuffer readArchiveEntry(Path archive, String entryName) throws IOException {
+        @Nullable ZipFile zipFile = openArchives.computeIfAbsent(archive, ClassfileLinkResolver::openArchive).orElse(null);
+        if (zipFile == null) {
+            return null;
+        }
+        @Nullable ZipEntry entry = zipFile.getEntry(entryName);
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            return ByteBuffer.wrap(in.readAllBytes());
+        }
+    }
+
+    private static Optional<ZipFile> openArchive(Path archive) {
+        if (!Files.isRegularFile(archive)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new ZipFile(archive.toFile()));
+        } catch (IOException e) {
+            log.log(Level.FINE, e, () -> String.format("not a readable archive: %s", archive));
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Optional<ZipFile> zipFile : openArchives.values()) {
+            if (zipFile.isPresent()) {
+                try {
+                    zipFile.get().close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+        openArchives.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringHelper(this)
+                .add("classpath.size", classpath.size())
+                .add("classCache.size", classCache.size())
+                .toString();
+    }
+}
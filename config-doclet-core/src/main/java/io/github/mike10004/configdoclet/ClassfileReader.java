@@ -0,0 +1,248 @@
+package io.github.mike10004.configdoclet;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reader of the constant values of static final fields in a class file. Only the constant
+ * pool and the field table are parsed; the reader stops before the methods.
+ * See chapter 4 of the Java Virtual Machine Specification.
+ */
+class ClassfileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+
+    private static final String ATTRIBUTE_CONSTANT_VALUE = "ConstantValue";
+
+    private final ByteBuffer buffer;
+    private int[] offsets;
+    private byte[] tags;
+
+    private ClassfileReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads a class file.
+     * @param classfile buffer containing the class file bytes, from position zero
+     * @return the class name and constant values
+     * @throws ClassfileFormatException if the buffer does not contain a valid class file
+     */
+    public static ClassConstants read(ByteBuffer classfile) {
+        try {
+            return new ClassfileReader(classfile).read();
+        } catch (IndexOutOfBoundsException e) {
+            throw new ClassfileFormatException("truncated class file", e);
+        }
+    }
+
+    private ClassConstants read() {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new ClassfileFormatException("not a class file");
+        }
+        int pos = 8; // magic, minor version, major version
+        int poolCount = u2(pos);
+        pos += 2;
+        offsets = new int[poolCount];
+        tags = new byte[poolCount];
+        for (int i = 1; i < poolCount; i++) {
+            int tag = buffer.get(pos) & 0xFF;
+            tags[i] = (byte) tag;
+            offsets[i] = pos + 1;
+            pos += 1 + entryLength(tag, pos + 1);
+            if (tag == CONSTANT_LONG || tag == CONSTANT_DOUBLE) {
+                i++; // eight-byte constants take two slots
+            }
+        }
+        pos += 2; // access flags
+        int thisClass = u2(pos);
+        pos += 4; // this class, super class
+        int interfacesCount = u2(pos);
+        pos += 2 + interfacesCount * 2;
+        int fieldsCount = u2(pos);
+        pos += 2;
+        Map<String, Object> constants = new LinkedHashMap<>();
+        for (int f = 0; f < fieldsCount; f++) {
+            int accessFlags = u2(pos);
+            int nameIndex = u2(pos + 2);
+            int descriptorIndex = u2(pos + 4);
+            int attributesCount = u2(pos + 6);
+            pos += 8;
+            for (int a = 0; a < attributesCount; a++) {
+                int attributeNameIndex = u2(pos);
+                int attributeLength = buffer.getInt(pos + 2);
+                boolean isConstantField = (accessFlags & (ACC_STATIC | ACC_FINAL)) == (ACC_STATIC | ACC_FINAL);
+                if (isConstantField && attributeLength == 2 && ATTRIBUTE_CONSTANT_VALUE.equals(utf8(attributeNameIndex))) {
+                    Object value = constantValue(u2(pos + 6), utf8(descriptorIndex));
+                    constants.put(utf8(nameIndex), value);
+                }
+                pos += 6 + attributeLength;
+            }
+        }
+        String className = utf8(u2(entry(thisClass, CONSTANT_CLASS)));
+        return new ClassConstants(className, constants);
+    }
+
+    private int entryLength(int tag, int pos) {
+        switch (tag) {
+            case CONSTANT_UTF8:
+                return 2 + u2(pos);
+            case CONSTANT_INTEGER:
+            case CONSTANT_FLOAT:
+            case CONSTANT_FIELDREF:
+            case CONSTANT_METHODREF:
+            case CONSTANT_INTERFACE_METHODREF:
+            case CONSTANT_NAME_AND_TYPE:
+            case CONSTANT_DYNAMIC:
+            case CONSTANT_INVOKE_DYNAMIC:
+                return 4;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                return 8;
+            case CONSTANT_CLASS:
+            case CONSTANT_STRING:
+            case CONSTANT_METHOD_TYPE:
+            case CONSTANT_MODULE:
+            case CONSTANT_PACKAGE:
+                return 2;
+            case CONSTANT_METHOD_HANDLE:
+                return 3;
+            default:
+                throw new ClassfileFormatException("unknown constant pool tag " + tag + " at offset " + (pos - 1));
+        }
+    }
+
+    private int u2(int pos) {
+        return buffer.getShort(pos) & 0xFFFF;
+    }
+
+    private int entry(int index, int expectedTag) {
+        if (index <= 0 || index >= tags.length || tags[index] != expectedTag) {
+            throw new ClassfileFormatException("expected constant pool entry " + index + " to have tag " + expectedTag);
+        }
+        return offsets[index];
+    }
+
+    private Object constantValue(int index, String descriptor) {
+        int tag = index > 0 && index < tags.length ? tags[index] : 0;
+        int pos = entry(index, tag);
+        switch (tag) {
+            case CONSTANT_INTEGER:
+                int intValue = buffer.getInt(pos);
+                switch (descriptor) {
+                    case "Z":
+                        return intValue != 0;
+                    case "C":
+                        return (char) intValue;
+                    case "B":
+                        return (byte) intValue;
+                    case "S":
+                        return (short) intValue;
+                    default:
+                        return intValue;
+                }
+            case CONSTANT_FLOAT:
+                return buffer.getFloat(pos);
+            case CONSTANT_LONG:
+                return buffer.getLong(pos);
+            case CONSTANT_DOUBLE:
+                return buffer.getDouble(pos);
+            case CONSTANT_STRING:
+                return utf8(u2(pos));
+            default:
+                throw new ClassfileFormatException("constant pool entry " + index + " has unexpected tag " + tag + " for a constant value");
+        }
+    }
+
+    /**
+     * Decodes a modified UTF-8 constant pool entry.
+     */
+    private String utf8(int index) {
+        int pos = entry(index, CONSTANT_UTF8);
+        int length = u2(pos);
+        pos += 2;
+        int end = pos + length;
+        StringBuilder sb = new StringBuilder(length);
+        while (pos < end) {
+            int b = buffer.get(pos++) & 0xFF;
+            if (b < 0x80) {
+                sb.append((char) b);
+            } else if ((b & 0xE0) == 0xC0) {
+                int b2 = buffer.get(pos++) & 0x3F;
+                sb.append((char) (((b & 0x1F) << 6) | b2));
+            } else if ((b & 0xF0) == 0xE0) {
+                int b2 = buffer.get(pos++) & 0x3F;
+                int b3 = buffer.get(pos++) & 0x3F;
+                sb.append((char) (((b & 0x0F) << 12) | (b2 << 6) | b3));
+            } else {
+                throw new ClassfileFormatException("malformed modified UTF-8 in constant pool entry " + index);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Value class that represents the constants defined by a class.
+     */
+    static class ClassConstants {
+
+        /**
+         * Class name in internal form, e.g. {@code com/example/App$Inner}.
+         */
+        public final String internalName;
+
+        /**
+         * Map of field name to constant value.
+         */
+        public final Map<String, Object> constants;
+
+        public ClassConstants(String internalName, Map<String, Object> constants) {
+            this.internalName = internalName;
+            this.constants = Collections.unmodifiableMap(constants);
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringHelper(this)
+                    .add("internalName", internalName)
+                    .add("constants.size", constants.size())
+                    .toString();
+        }
+    }
+
+    static class ClassfileFormatException extends IllegalArgumentException {
+
+        private static final long serialVersionUID = 2259927645488121790L;
+
+        public ClassfileFormatException(String message) {
+            super(message);
+        }
+
+        public ClassfileFormatException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
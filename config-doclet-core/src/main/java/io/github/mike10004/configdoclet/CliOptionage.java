@@ -18,27 +18,35 @@ class CliOptionage implements Optionage {
     // immutable
     private final Set<? extends Doclet.Option> options;
 
+    // immutable; maps each name and alias to its option
+    private final Map<String, Doclet.Option> optionsByName;
+
     // mutable
     private final Processage processage;
 
     private CliOptionage(Set<? extends Doclet.Option> options, Processage processage) {
         this.options = Collections.unmodifiableSet(requireNonNull(options));
         this.processage = requireNonNull(processage);
+        Map<String, Doclet.Option> optionsByName = new HashMap<>();
+        for (Doclet.Option option : options) {
+            for (String name : option.getNames()) {
+                optionsByName.putIfAbsent(name, option);
+            }
+        }
+        this.optionsByName = Collections.unmodifiableMap(optionsByName);
     }
 
     @Nullable
     @Override
     public List<String> getOptionStrings(String name) {
-        Doclet.Option target = this.options.stream().filter(option -> {
-            return option.getNames().contains(name);
-        }).findFirst().orElseThrow(() -> new IllegalArgumentException("not a supported option: " + name));
-        List<String> allNames = target.getNames();
-        for (String key : this.processage.keySet()) {
-            if (allNames.contains(key)) {
-                List<String> args = this.processage.get(key);
-                if (args != null) {
-                    return args;
-                }
+        @Nullable Doclet.Option target = optionsByName.get(name);
+        if (target == null) {
+            throw new IllegalArgumentException("not a supported option: " + name);
+        }
+        for (String alias : target.getNames()) {
+            List<String> args = this.processage.get(alias);
+            if (args != null) {
+                return args;
             }
         }
         return null;
@@ -117,7 +125,7 @@ class CliOptionage implements Optionage {
                 BasicOption.builder(ConfigDoclet.OPT_OUTPUT_FORMAT, processor)
                         .autoAlias()
                         .arg("<type>")
-                        .description("set config help output format (either 'properties' or 'json')")
+                        .description("set config help output format (one of 'properties', 'json', 'binary', 'java', or 'yaml')")
                         .build(),
                 BasicOption.builder(ConfigDoclet.OPT_FIELD_NAME_REGEX, processor)
                         .autoAlias()
@@ -144,6 +152,84 @@ class CliOptionage implements Optionage {
                         .arg("<auto|always|never>")
                         .description("in properties output, specifies whether the value assignation in the output properties file is commented")
                         .build(),
+                BasicOption.builder(ConfigDoclet.OPT_LINK_CLASSPATH, processor)
+                        .autoAlias()
+                        .arg("<path>")
+                        .description("set class path searched for constants that linked default values refer to, if not among the documented sources; defaults to the class path and doclet path")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_APPEND_CLASSPATH_SETTINGS, processor)
+                        .autoAlias()
+                        .description("append the settings embedded in directories and jars on the class path and doclet path by prior executions of this doclet; see " + ConfigDoclet.OPT_EMBED_SETTINGS)
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_EMBED_SETTINGS, processor)
+                        .autoAlias()
+                        .arg("<dirname>")
+                        .description("write the settings documented by this execution as json to " + EmbeddedSettings.RESOURCE_PATH_JSON + " beneath a directory, such as the class output directory")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_JAVA_CLASS_NAME, processor)
+                        .autoAlias()
+                        .arg("<classname>")
+                        .description("in java output, set the fully qualified name of the generated class (default " + JavaSourceOutputFormatter.DEFAULT_CLASS_NAME + ")")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_EMIT_KEY_SET, processor)
+                        .autoAlias()
+                        .arg("<file>")
+                        .description("write the set of all documented keys in the binary form read by the runtime library's key set checker")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_SORT_ORDER, processor)
+                        .autoAlias()
+                        .arg("<lexical|natural|natural-ci>")
+                        .description("set the order of settings in output; natural order compares runs of digits as numbers, and natural-ci also ignores case (default lexical)")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_DIAGNOSTICS_REPORT, processor)
+                        .autoAlias()
+                        .arg("<file>")
+                        .description("write a json report listing every element diagnostic, such as elements without comments, to a file; a summary with a few examples is printed in any case")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_CUSTOM_TAGS, processor)
+                        .autoAlias()
+                        .arg("<tags>")
+                        .description("comma-separated list of custom block tags, such as cfg.type, whose values are kept as setting attributes named without the cfg. prefix")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_TRACE, processor)
+                        .autoAlias()
+                        .arg("<spec>")
+                        .description("trace the doclet's work; the spec is a comma-separated list of categories (discovery, filtering, links, rendering, output, or all), each optionally followed by =info, =debug, or =trace")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_TRACE_FILE, processor)
+                        .autoAlias()
+                        .arg("<file>")
+                        .description("write trace events to a file, one json object per line, instead of printing them (default spec is all)")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_JFR_EVENTS, processor)
+                        .autoAlias()
+                        .arg("<events>")
+                        .description("emit flight recorder events for each phase of the run (phases), or also for the extraction of each setting (settings)")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_PROFILE, processor)
+                        .autoAlias()
+                        .description("print the wall time, thread cpu time, and bytes allocated in each phase of the run")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_METRICS_FILE, processor)
+                        .autoAlias()
+                        .arg("<file>")
+                        .description("write the measurements of each phase of the run, and the peak heap usage, to a file in json format")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_SLOWEST_ELEMENTS, processor)
+                        .autoAlias()
+                        .arg("<n>")
+                        .description("print the n elements whose comments took the longest to extract a setting from, and the n that allocated the most, with their signatures")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_MAX_SETTINGS_IN_MEMORY, processor)
+                        .autoAlias()
+                        .arg("<n>")
+                        .description("keep at most n settings in memory, spilling sorted runs of settings to temporary files and merging them to produce output")
+                        .build(),
+                BasicOption.builder(ConfigDoclet.OPT_SECTION_DEPTH, processor)
+                        .autoAlias()
+                        .arg("<n>")
+                        .description("in properties output, group settings by key prefix and write a section header for each prefix of at most n segments that is shared by multiple settings")
+                        .build(),
                 BasicOption.builder(ConfigDoclet.OPT_FOOTER, processor)
                         .autoAlias()
                         .arg("<text|fileurl>")
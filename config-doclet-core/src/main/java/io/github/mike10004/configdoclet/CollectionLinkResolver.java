@@ -4,6 +4,7 @@ import javax.annotation.Nullable;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.Name;
+import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.VariableElement;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -17,25 +18,33 @@ import static java.util.Objects.requireNonNull;
 class CollectionLinkResolver implements LinkResolver {
 
     private final Collection<VariableElement> elements;
-    private final Map<VariableElement, String> signatureCache;
+    @Nullable
+    private Map<String, VariableElement> elementsBySignature;
 
     public CollectionLinkResolver(Collection<VariableElement> elements) {
         this.elements = elements;
-        signatureCache = new HashMap<>();
     }
 
     @Nullable
     @Override
     public VariableElement resolve(Element context, String signature) {
         requireNonNull(signature, "signature");
-        return elements.stream().filter(element -> {
-            String elSignature = getElementSignature(element);
-            return signature.equals(elSignature);
-        }).findFirst().orElse(null);
+        return getElementsBySignature().get(signature);
     }
 
-    private String getElementSignature(VariableElement el) {
-        return signatureCache.computeIfAbsent(el, CollectionLinkResolver::constructSignature);
+    /**
+     * Gets the map of elements by signature, which is built on first use. If elements
+     * have equal signatures, the first one is kept.
+     */
+    private Map<String, VariableElement> getElementsBySignature() {
+        if (elementsBySignature == null) {
+            Map<String, VariableElement> map = new HashMap<>(elements.size() * 2);
+            for (VariableElement element : elements) {
+                map.putIfAbsent(constructSignature(element), element);
+            }
+            elementsBySignature = map;
+        }
+        return elementsBySignature;
     }
 
     static String constructSignature(Element element) {
@@ -50,8 +59,13 @@ class CollectionLinkResolver implements LinkResolver {
             if (!isSignaturePart(el)) {
                 continue;
             }
-            sb.append(getPrefix(el));
-            Name name = el.getSimpleName();
+            if (sb.length() > 0 || el.getKind() == ElementKind.FIELD || el.getKind() == ElementKind.METHOD) {
+                sb.append(getPrefix(el));
+            }
+            // a package's simple name is only the last component of its qualified name
+            Name name = el.getKind() == ElementKind.PACKAGE
+                    ? ((PackageElement) el).getQualifiedName()
+                    : el.getSimpleName();
             sb.append(name.toString());
         }
         return sb.toString();
@@ -61,6 +75,9 @@ class CollectionLinkResolver implements LinkResolver {
         switch (el.getKind()) {
             case PACKAGE:
             case CLASS:
+            case INTERFACE:
+            case ENUM:
+            case ANNOTATION_TYPE:
             case METHOD:
             case FIELD:
                 return true;
@@ -69,6 +86,17 @@ class CollectionLinkResolver implements LinkResolver {
         }
     }
 
+    /**
+     * Gets the qualified name of the package that encloses an element.
+     * @return the package name, or an empty string if the element is in the unnamed package
+     */
+    static String getPackageName(Element element) {
+        while (element != null && element.getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+        return element == null ? "" : ((PackageElement) element).getQualifiedName().toString();
+    }
+
     private static String getPrefix(Element el) {
         return getPrefix(el.getKind());
     }
@@ -78,6 +106,9 @@ class CollectionLinkResolver implements LinkResolver {
             case PACKAGE:
                 return "";
             case CLASS:
+            case INTERFACE:
+            case ENUM:
+            case ANNOTATION_TYPE:
                 return ".";
             case METHOD:
             case FIELD:
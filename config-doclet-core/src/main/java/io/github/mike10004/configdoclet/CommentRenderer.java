@@ -5,28 +5,81 @@ import com.sun.source.doctree.LiteralTree;
 import com.sun.source.doctree.TextTree;
 import com.sun.source.util.DocTreeScanner;
 
+import javax.annotation.Nullable;
+import javax.lang.model.element.VariableElement;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 
+/**
+ * Interface of a service that renders comment content as text. Implementations do not hold
+ * state specific to an element, so one instance can be used for every element in a run.
+ */
 interface CommentRenderer {
 
-    String render(Collection<? extends DocTree> docTrees);
+    /**
+     * Renders comment content to a buffer. Fragments of the content are appended to the
+     * buffer as they are rendered, without building intermediate strings.
+     * @param element the element whose comment contains the content
+     * @param docTrees the content
+     * @param out the buffer
+     * @return true if the content was rendered, or false if this renderer does not render
+     * the content, in which case nothing was appended
+     * @throws IOException if appending to the buffer fails
+     */
+    boolean render(VariableElement element, Collection<? extends DocTree> docTrees, Appendable out) throws IOException;
 
-    static String concatenateText(Iterable<? extends DocTree> trees) {
-        StringBuilder b = new StringBuilder();
-        new DocTreeScanner<Void, Void>() {
-            @Override
-            public Void visitLiteral(LiteralTree node, Void aVoid) {
-                visitText(node.getBody(), aVoid);
-                return super.visitLiteral(node, aVoid);
+    /**
+     * Renders comment content as a string.
+     * @param element the element whose comment contains the content
+     * @param docTrees the content
+     * @return the rendered text, or null if this renderer does not render the content
+     */
+    @Nullable
+    default String render(VariableElement element, Collection<? extends DocTree> docTrees) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            if (!render(element, docTrees, sb)) {
+                return null;
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
 
-            @Override
-            public Void visitText(TextTree node, Void aVoid) {
-                b.append(node.getBody());
-                return super.visitText(node, aVoid);
-            }
-        }.scan(trees, null);
+    static String concatenateText(Iterable<? extends DocTree> trees) {
+        StringBuilder b = new StringBuilder();
+        try {
+            concatenateText(trees, b);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         return b.toString();
     }
 
+    static void concatenateText(Iterable<? extends DocTree> trees, Appendable out) throws IOException {
+        try {
+            new DocTreeScanner<Void, Void>() {
+                @Override
+                public Void visitLiteral(LiteralTree node, Void aVoid) {
+                    // the superclass implementation scans the body on some JDK versions but not others
+                    return visitText(node.getBody(), aVoid);
+                }
+
+                @Override
+                public Void visitText(TextTree node, Void aVoid) {
+                    try {
+                        out.append(node.getBody());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return super.visitText(node, aVoid);
+                }
+            }.scan(trees, null);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
 }
@@ -5,6 +5,7 @@ import com.sun.source.doctree.BlockTagTree;
 import com.sun.source.doctree.DocCommentTree;
 import com.sun.source.doctree.DocTree;
 import com.sun.source.doctree.UnknownBlockTagTree;
+import io.github.mike10004.configdoclet.runtime.KeySet;
 import jdk.javadoc.doclet.Doclet;
 import jdk.javadoc.doclet.DocletEnvironment;
 import jdk.javadoc.doclet.Reporter;
@@ -17,29 +18,37 @@ import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.tools.Diagnostic;
+import javax.tools.DocumentationTool;
+import javax.tools.JavaFileManager;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -56,7 +65,7 @@ public class ConfigDoclet implements Doclet {
 
     private static final Logger log = Logger.getLogger(ConfigDoclet.class.getName());
 
-    private static final String PREFIX_DEFAULT_OUTPUT_FILENAME = "config-doclet-output.";
+    private static final String DEFAULT_OUTPUT_FILENAME_BASE = "config-doclet-output";
 
     static final String SYSPROP_PRINT_EXTRA_DIAGNOSTICS = "configdoclet.diagnostics.extras.print";
     static final String OPT_OUTPUT_DIRECTORY = "-d";
@@ -71,6 +80,25 @@ public class ConfigDoclet implements Doclet {
     static final String OPT_HEADER = "-header";
     static final String OPT_FOOTER = "-footer";
     static final String OPT_ASSIGNATION_HINT = "--assign-value";
+    static final String OPT_LINK_CLASSPATH = "--link-classpath";
+    static final String OPT_APPEND_CLASSPATH_SETTINGS = "--append-classpath-settings";
+    static final String OPT_EMBED_SETTINGS = "--embed-settings";
+    static final String OPT_JAVA_CLASS_NAME = "--java-class-name";
+    static final String OPT_EMIT_KEY_SET = "--emit-key-set";
+    static final String OPT_SECTION_DEPTH = "--section-depth";
+    static final String OPT_SORT_ORDER = "--sort-order";
+    static final String OPT_MAX_SETTINGS_IN_MEMORY = "--max-settings-in-memory";
+    static final String OPT_DIAGNOSTICS_REPORT = "--diagnostics-report";
+    static final String OPT_TRACE = "--trace";
+    static final String OPT_TRACE_FILE = "--trace-file";
+    static final String OPT_CUSTOM_TAGS = "--custom-tags";
+    static final String DEFAULT_TRACE_SPEC = "all";
+    static final String OPT_JFR_EVENTS = "--jfr-events";
+    static final String JFR_EVENTS_PHASES = "phases";
+    static final String JFR_EVENTS_SETTINGS = "settings";
+    static final String OPT_PROFILE = "--profile";
+    static final String OPT_METRICS_FILE = "--metrics-file";
+    static final String OPT_SLOWEST_ELEMENTS = "--slowest-elements";
     static final String OUTPUT_FORMAT_PROPERTIES = "properties";
     private static final String DEFAULT_OUTPUT_FORMAT = OUTPUT_FORMAT_PROPERTIES;
     static final String OUTPUT_FORMAT_JSON = "json";
@@ -81,9 +109,20 @@ public class ConfigDoclet implements Doclet {
     static final String TAG_CFG_KEY = "cfg.key";
     static final String TAG_CFG_INCLUDE = "cfg.include";
     static final String TAG_CFG_SORT_KEY = "cfg.sortKey";
+    private static final String DIAGNOSTIC_NO_COMMENT = "element has no comment";
+    private static final String DIAGNOSTIC_NO_KEY = "element does not have constant value or @" + TAG_CFG_KEY + " defined in comment";
+    private static final String DIAGNOSTIC_UNSUPPORTED_TAG = "unsupported tag @%s (use " + OPT_CUSTOM_TAGS + " to keep its value)";
+    private static final String CFG_TAG_PREFIX = "cfg.";
+    static final List<String> DEFAULT_FIELD_NAME_PREFIXES = List.of("PROP_", "PROPERTY_", "CFG_", "CONFIG_");
 
     private Reporter reporter;
-    private final Optionage optionage;
+    private final Optionage optionSource;
+    private Optionage optionage;
+    @Nullable
+    private StringPool stringPool = new StringPool();
+    private DiagnosticsAggregator diagnostics = new DiagnosticsAggregator(0, false);
+    private Tracer tracer = Tracer.disabled();
+    private RunObserver observer = RunObserver.NOOP;
 
     /**
      * Constructs an instance of the class.
@@ -93,12 +132,8 @@ public class ConfigDoclet implements Doclet {
     }
 
     ConfigDoclet(Optionage optionage) {
-        this.optionage = requireNonNull(optionage);
-    }
-
-    static Comparator<ConfigSetting> settingOrdering() {
-        return Comparator.comparing(ConfigSetting::getSortKey)
-                .thenComparing(s -> s.key);
+        this.optionSource = requireNonNull(optionage);
+        this.optionage = optionage;
     }
 
     @Override
@@ -106,22 +141,95 @@ public class ConfigDoclet implements Doclet {
         this.reporter = reporter;
     }
 
-    Set<String> buildActionableTagSet() {
-        return Set.of(TAG_CFG_DEFAULT_VALUE, TAG_CFG_DESCRIPTION, TAG_CFG_EXAMPLE, TAG_CFG_KEY, TAG_CFG_SORT_KEY, TAG_CFG_INCLUDE);
-    }
-
     private static boolean isPrintExtraDiagnostics() {
         return Boolean.parseBoolean(System.getProperty(SYSPROP_PRINT_EXTRA_DIAGNOSTICS));
     }
 
-    private void extraDiagnostic(Supplier<String> supplier) {
-        extraDiagnostic(Diagnostic.Kind.NOTE, supplier);
+    /**
+     * Creates the tracer for a run. Tracing is enabled by the trace option or the trace file
+     * option, or, for compatibility, by the extra diagnostics system property, in which case
+     * every category is traced at the most verbose level through the reporter.
+     */
+    private Tracer createTracer() {
+        @Nullable String spec = optionage.getOptionString(OPT_TRACE, null);
+        @Nullable String pathname = optionage.getOptionString(OPT_TRACE_FILE, null);
+        if (spec == null) {
+            if (pathname != null) {
+                spec = DEFAULT_TRACE_SPEC;
+            } else if (isPrintExtraDiagnostics()) {
+                spec = "all=" + Tracer.Level.trace;
+            } else {
+                return Tracer.disabled();
+            }
+        }
+        @Nullable Tracer.Sink sink = null;
+        try {
+            sink = pathname == null ? Tracer.reporterSink(reporter) : Tracer.jsonLinesSink(Paths.get(pathname));
+            return Tracer.create(spec, sink);
+        } catch (IOException | IllegalArgumentException e) {
+            reporter.print(Diagnostic.Kind.WARNING, "tracing disabled: " + e.getMessage());
+            if (sink != null) {
+                closeTracing(sink);
+            }
+            return Tracer.disabled();
+        }
     }
 
-    @SuppressWarnings("SameParameterValue")
-    private void extraDiagnostic(Diagnostic.Kind kind, Supplier<String> supplier) {
-        if (isPrintExtraDiagnostics()) {
-            reporter.print(kind, supplier.get());
+    /**
+     * Creates the observer for a run.
+     * @param profiler the profiler, or null if not profiling
+     * @param slowestElements the element ranking, or null if not ranking elements
+     */
+    private RunObserver createObserver(@Nullable PhaseProfiler profiler, @Nullable SlowestElements slowestElements) {
+        List<RunObserver> observers = new ArrayList<>(3);
+        if (profiler != null) {
+            observers.add(profiler);
+        }
+        if (slowestElements != null) {
+            observers.add(slowestElements);
+        }
+        @Nullable String events = optionage.getOptionString(OPT_JFR_EVENTS, null);
+        if (events != null) {
+            observers.add(createFlightRecorderObserver(events));
+        }
+        return RunObserver.compose(observers);
+    }
+
+    /**
+     * Creates an observer that emits flight recorder events, if the runtime has the
+     * flight recorder module.
+     */
+    private RunObserver createFlightRecorderObserver(String events) {
+        boolean settingEvents;
+        switch (events.trim().toLowerCase(Locale.ROOT)) {
+            case JFR_EVENTS_PHASES:
+                settingEvents = false;
+                break;
+            case JFR_EVENTS_SETTINGS:
+                settingEvents = true;
+                break;
+            default:
+                reporter.print(Diagnostic.Kind.WARNING, "flight recorder events disabled: not one of " + JFR_EVENTS_PHASES + " or " + JFR_EVENTS_SETTINGS + ": " + events);
+                return RunObserver.NOOP;
+        }
+        if (!ModuleLayer.boot().findModule("jdk.jfr").isPresent()) {
+            reporter.print(Diagnostic.Kind.WARNING, "flight recorder events disabled: jdk.jfr module not present");
+            return RunObserver.NOOP;
+        }
+        try {
+            return FlightRecorderObserver.create(settingEvents);
+        } catch (LinkageError e) {
+            log.log(Level.WARNING, "failed to load flight recorder observer", e);
+            reporter.print(Diagnostic.Kind.WARNING, "flight recorder events disabled: " + e);
+            return RunObserver.NOOP;
+        }
+    }
+
+    private static void closeTracing(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException | UncheckedIOException e) {
+            log.log(Level.WARNING, "failed to close trace sink", e);
         }
     }
 
@@ -191,12 +299,11 @@ public class ConfigDoclet implements Doclet {
         if (fieldNameRegex != null) {
             return constructRegexNamePredicate(fieldNameRegex);
         }
-        return startsWithAny("PROP_", "PROPERTY_", "CFG_", "CONFIG_");
+        return startsWithAny(DEFAULT_FIELD_NAME_PREFIXES);
     }
 
-    @SuppressWarnings("SameParameterValue")
-    static Predicate<? super CharSequence> startsWithAny(String prefix1, String...others) {
-        Set<String> set = Stream.concat(Stream.of(prefix1), Stream.of(others)).collect(Collectors.toSet());
+    static Predicate<? super CharSequence> startsWithAny(Collection<String> prefixes) {
+        Set<String> set = new HashSet<>(prefixes);
         return new Predicate<>() {
             @Override
             public boolean test(CharSequence name) {
@@ -221,34 +328,31 @@ public class ConfigDoclet implements Doclet {
         return SourceVersion.RELEASE_6;
     }
 
-    private boolean isActionableEnclosedElement(Element element, Predicate<? super CharSequence> elementNamePredicate, Function<? super Element, DocCommentTree> lazyDocCommentTree) {
-        Predicate<? super Element> deprecationPredicate = createDeprecationPredicate(lazyDocCommentTree);
+    private boolean isActionableEnclosedElement(Element element, Predicate<? super CharSequence> elementNamePredicate, TagRegistry tagRegistry, Function<? super Element, DocCommentTree> lazyDocCommentTree) {
         return element.getKind() == ElementKind.FIELD
                 && element.getModifiers().contains(Modifier.STATIC)
                 && element.getModifiers().contains(Modifier.FINAL)
                 && element instanceof VariableElement
-                && deprecationPredicate.test(element)
-                && elementNamePredicate.test(element.getSimpleName());
+                && elementNamePredicate.test(element.getSimpleName())
+                && !isExcludedAsDeprecated(element, tagRegistry, lazyDocCommentTree);
     }
 
     /**
-     * Returns a predicate that evaluates to true on an element if it is to be considered actionable.
-     * This predicate examines the element's deprecation annotation and if it is deprecated, the element
-     * is only included if there is an {@link #TAG_CFG_INCLUDE} tag.
+     * Checks whether an element is excluded because it is deprecated. A deprecated element
+     * is only included if there is an {@link #TAG_CFG_INCLUDE} tag in its comment. The comment
+     * is only parsed if the element is deprecated.
      */
-    private Predicate<? super Element> createDeprecationPredicate(Function<? super Element, DocCommentTree> lazyDocCommentTree) {
+    private boolean isExcludedAsDeprecated(Element element, TagRegistry tagRegistry, Function<? super Element, DocCommentTree> lazyDocCommentTree) {
         // TODO support option that specifies that deprecated elements should be included
-        return element -> {
-            Deprecated deprecated = element.getAnnotation(Deprecated.class);
-            if (deprecated != null) {
-                DocCommentTree tree = lazyDocCommentTree.apply(element);
-                if (tree != null) {
-                    boolean explicitInclude = tree.getBlockTags().stream().anyMatch(t -> isCfgTag(t, TAG_CFG_INCLUDE));
-                    return explicitInclude;
-                }
-            }
-            return true; // not deprecated => include
-        };
+        if (element.getAnnotation(Deprecated.class) == null) {
+            return false;
+        }
+        @Nullable DocCommentTree tree = lazyDocCommentTree.apply(element);
+        boolean excluded = tree != null && !tagRegistry.hasBlockTag(tree, TAG_CFG_INCLUDE);
+        if (excluded) {
+            tracer.trace(Tracer.Category.filtering, Tracer.Level.debug, () -> String.format("excluded deprecated element %s", describeElement(element)));
+        }
+        return excluded;
     }
 
     private boolean isActionableEnclosingElement(Element element) {
@@ -278,12 +382,47 @@ public class ConfigDoclet implements Doclet {
         if (TestMode.SKIP_RUN == getTestMode()) {
             return true;
         }
-        extraDiagnostic(() -> String.format("options active: %s", streamPresentOptions()
+        // options are processed by now; resolve them once instead of on every query
+        optionage = optionSource.snapshot();
+        tracer = createTracer();
+        @Nullable PhaseProfiler profiler = isProfiling() ? new PhaseProfiler() : null;
+        @Nullable SlowestElements slowestElements = createSlowestElements();
+        observer = createObserver(profiler, slowestElements);
+        try {
+            boolean result = runTraced(environment);
+            if (profiler != null) {
+                reportProfile(profiler);
+            }
+            if (slowestElements != null) {
+                reporter.print(Diagnostic.Kind.NOTE, slowestElements.formatReport());
+            }
+            return result;
+        } finally {
+            closeTracing(tracer);
+            tracer = Tracer.disabled();
+            observer = RunObserver.NOOP;
+            optionage = optionSource;
+        }
+    }
+
+    private void reportUnreadableClassfile(String internalName, IOException e) {
+        log.log(Level.FINE, "failed to read " + internalName, e);
+        reporter.print(Diagnostic.Kind.WARNING, "failed to read class " + internalName.replace('/', '.') + " from link class path due to IOException " + e.getMessage() + "; links to it are unresolved");
+    }
+
+    private boolean runTraced(DocletEnvironment environment) {
+        tracer.trace(Tracer.Category.discovery, Tracer.Level.info, () -> String.format("options active: %s", streamPresentOptions()
                 .map(opt -> opt.getNames().get(0))
                 .collect(Collectors.toList())));
+        diagnostics = new DiagnosticsAggregator(DiagnosticsAggregator.DEFAULT_MAX_EXAMPLES, optionage.isPresent(OPT_DIAGNOSTICS_REPORT));
         List<ConfigSetting> items = Collections.synchronizedList(new ArrayList<>());
+        @Nullable Integer maxInMemory = getMaxSettingsInMemory();
+        @Nullable SettingSpool spool = maxInMemory == null ? null : new SettingSpool(maxInMemory, getSortOrder(), null);
+        // a pool would hold every distinct string of spilled settings, defeating the spool
+        stringPool = spool == null ? new StringPool() : null;
+        RunObserver.PhaseSpan phase = observer.beginPhase(RunObserver.Phase.discovery);
         Set<? extends Element> includedElements = environment.getIncludedElements();
-        maybeDumpAll("included elements", includedElements);
+        traceElements(Tracer.Category.discovery, "included elements", includedElements);
         List<VariableElement> variableElements = includedElements.stream()
                 .filter(this::isActionableEnclosingElement)
                 .filter(TypeElement.class::isInstance)
@@ -292,65 +431,354 @@ public class ConfigDoclet implements Doclet {
                 .filter(VariableElement.class::isInstance)
                 .map(VariableElement.class::cast)
                 .collect(Collectors.toList());
-        LinkResolver linkResolver = new CollectionLinkResolver(variableElements);
-        Set<String> actionableTags = buildActionableTagSet();
-        Predicate<? super CharSequence> namePredicate = constructElementNamePredicate();
-        maybeDumpAll("variable elements", variableElements);
-        Function<? super Element, DocCommentTree> commentTreeProvider = element -> {
-            return environment.getDocTrees().getDocCommentTree(element);
-        };
-        List<VariableElement> relevantFields = variableElements.stream()
-                .filter(element -> isActionableEnclosedElement(element, namePredicate, commentTreeProvider))
-                .collect(Collectors.toList());
-        reporter.print(Diagnostic.Kind.NOTE, String.format("%d of %d variable elements are relevant (used name predicate %s)", relevantFields.size(), variableElements.size(), namePredicate));
-        maybeDumpAll("relevant and actionable elements", relevantFields);
-        relevantFields.forEach(enclosed -> {
-                    log.log(defaultLevel, () -> String.format("enclosed: kind=%s; name=%s", enclosed.getKind(), enclosed.getSimpleName()));
-                    DocCommentTree tree = commentTreeProvider.apply(enclosed);
-                    String configKey = extractConfigKey(enclosed, tree);
-                    if (configKey != null) {
-                        ConfigSetting.Builder b = prepareBuilder(enclosed, configKey);
-                        if (tree != null) {
-                            LinkValueRenderer linkValueRenderer = new LinkValueRenderer(enclosed, linkResolver, LinkValueRenderer.RenderMode.VALUE_ONLY);
-                            CommentRenderer textRenderer = new TextCommentRenderer(new LinkValueRenderer(enclosed, linkResolver, LinkValueRenderer.RenderMode.PARENTHESIZED_VALUE));
-                            String description = textRenderer.render(tree.getFullBody());
-                            b.description(description);
-                            CollectingScanner visitor = new CollectingScanner(actionableTags, enclosed, b, textRenderer, linkValueRenderer);
-                            //noinspection RedundantCast
-                            visitor.scan(tree, (Void) null);
-                        } else {
-                            reporter.print(Diagnostic.Kind.NOTE, String.format("element has no comment: %s", enclosed.getSimpleName()));
-                        }
-                        ConfigSetting item = b.build();
+        phase.end(variableElements.size());
+        List<Path> linkClasspath = getLinkClasspath(environment);
+        tracer.trace(Tracer.Category.links, Tracer.Level.info, () -> String.format("link class path: %s", linkClasspath));
+        ClassfileLinkResolver classfileLinkResolver = new ClassfileLinkResolver(linkClasspath, this::reportUnreadableClassfile);
+        ConstantValueCache constantValues;
+        boolean extracted = true;
+        try {
+            LinkResolver linkResolver = LinkResolver.compose(new CollectionLinkResolver(variableElements), classfileLinkResolver);
+            constantValues = new ConstantValueCache(linkResolver, ConstantValueCache.ReferenceResolver.forDocTrees(environment.getDocTrees()));
+            LinkValueRenderer linkValueRenderer = new LinkValueRenderer(constantValues, LinkValueRenderer.RenderMode.VALUE_ONLY);
+            CommentRenderer textRenderer = new TextCommentRenderer(new LinkValueRenderer(constantValues, LinkValueRenderer.RenderMode.PARENTHESIZED_VALUE));
+            TagRegistry tagRegistry = buildTagRegistry(textRenderer, linkValueRenderer);
+            tracer.trace(Tracer.Category.rendering, Tracer.Level.info, () -> String.format("tags handled: %s", tagRegistry.getTagNames()));
+            StringBuilder renderBuffer = new StringBuilder(256);
+            Predicate<? super CharSequence> namePredicate = constructElementNamePredicate();
+            traceElements(Tracer.Category.discovery, "variable elements", variableElements);
+            Function<? super Element, DocCommentTree> commentTreeProvider = element -> {
+                return environment.getDocTrees().getDocCommentTree(element);
+            };
+            phase = observer.beginPhase(RunObserver.Phase.filtering);
+            List<VariableElement> relevantFields = variableElements.stream()
+                    .filter(element -> isActionableEnclosedElement(element, namePredicate, tagRegistry, commentTreeProvider))
+                    .collect(Collectors.toList());
+            phase.end(relevantFields.size());
+            reporter.print(Diagnostic.Kind.NOTE, String.format("%d of %d variable elements are relevant (used name predicate %s)", relevantFields.size(), variableElements.size(), namePredicate));
+            traceElements(Tracer.Category.filtering, "relevant and actionable elements", relevantFields);
+            phase = observer.beginPhase(RunObserver.Phase.extraction);
+            try {
+                for (VariableElement enclosed : relevantFields) {
+                    RunObserver.SettingSpan span = observer.beginSetting(enclosed);
+                    int resolutionsBefore = constantValues.getHitCount() + constantValues.getMissCount();
+                    @Nullable ConfigSetting item = extractSetting(enclosed, commentTreeProvider.apply(enclosed), tagRegistry, textRenderer, renderBuffer);
+                    span.end(item, constantValues.getHitCount() + constantValues.getMissCount() - resolutionsBefore);
+                    if (item == null) {
+                        continue;
+                    }
+                    if (spool == null) {
                         items.add(item);
                     } else {
-                        reporter.print(Diagnostic.Kind.NOTE, String.format("element does not have constant value or %s defined in comment: %s", TAG_CFG_KEY, enclosed.getSimpleName()));
+                        spool.add(item);
                     }
-                });
+                }
+            } catch (IOException e) {
+                log.log(Level.SEVERE, "failed to spill settings", e);
+                reporter.print(Diagnostic.Kind.ERROR, "failed to spill settings to disk due to IOException " + e.getMessage());
+                extracted = false;
+            }
+            phase.end(spool == null ? items.size() : spool.size());
+        } finally {
+            try {
+                classfileLinkResolver.close();
+            } catch (IOException e) {
+                log.log(Level.FINE, "failed to close classfile link resolver", e);
+            }
+        }
+        tracer.trace(Tracer.Category.discovery, Tracer.Level.debug, () -> String.format("string pool after extraction: %s", stringPool));
+        tracer.trace(Tracer.Category.links, Tracer.Level.debug, () -> String.format("constant values after extraction: %s", constantValues));
+        reportDiagnostics();
+        phase = observer.beginPhase(RunObserver.Phase.output);
+        try {
+            return produceAll(environment, items, spool, extracted);
+        } finally {
+            phase.end(spool == null ? items.size() : spool.size());
+        }
+    }
+
+    /**
+     * Extracts a setting from a relevant element.
+     * @return the setting, or null if the element has no key
+     */
+    @Nullable
+    private ConfigSetting extractSetting(VariableElement enclosed, @Nullable DocCommentTree tree, TagRegistry tagRegistry, CommentRenderer textRenderer, StringBuilder renderBuffer) {
+        log.log(defaultLevel, () -> String.format("enclosed: kind=%s; name=%s", enclosed.getKind(), enclosed.getSimpleName()));
+        TagContext context = new TagContext(enclosed, prepareBuilder(enclosed), renderBuffer);
+        if (tree != null) {
+            tagRegistry.dispatch(tree, context, tag -> reportUnsupportedTag(enclosed, tag));
+        }
+        @Nullable Object constValue = enclosed.getConstantValue();
+        @Nullable String configKey = constValue == null ? context.getKey() : constValue.toString();
+        if (configKey == null) {
+            diagnostics.record(Diagnostic.Kind.NOTE, DIAGNOSTIC_NO_KEY, describeElement(enclosed));
+            return null;
+        }
+        ConfigSetting.Builder b = context.settingBuilder.key(configKey);
+        if (tree != null) {
+            @Nullable String description = context.getDescription();
+            b.description(description != null ? description : context.render(textRenderer, tree.getFullBody()));
+        } else {
+            diagnostics.record(Diagnostic.Kind.NOTE, DIAGNOSTIC_NO_COMMENT, describeElement(enclosed));
+        }
+        ConfigSetting item = b.build();
+        tracer.trace(Tracer.Category.rendering, Tracer.Level.debug, () -> String.format("rendered %s as %s", describeElement(enclosed), configKey));
+        return item;
+    }
+
+    /**
+     * Appends other settings to the extracted settings and writes the output files.
+     * @param spool the spool holding the extracted settings, or null if they are in the list
+     */
+    private boolean produceAll(DocletEnvironment environment, List<ConfigSetting> items, @Nullable SettingSpool spool, boolean extracted) {
+        if (spool != null) {
+            try {
+                return extracted && finishBounded(spool, environment);
+            } finally {
+                try {
+                    spool.close();
+                } catch (IOException e) {
+                    log.log(Level.FINE, "failed to close setting spool", e);
+                }
+            }
+        }
+        if (!maybeEmbedSettings(items)) {
+            return false;
+        }
         List<ConfigSetting> others = appendOthers(optionage.getOptionString(OPT_APPEND_SETTINGS, null));
         items.addAll(others);
+        if (optionage.isPresent(OPT_APPEND_CLASSPATH_SETTINGS)) {
+            items.addAll(appendClasspathSettings(getDefaultClasspath(environment)));
+        }
+        if (!maybeEmitKeySet(items)) {
+            return false;
+        }
         boolean retval = produceOutput(items);
         return retval;
     }
 
-    private static boolean isCfgTag(DocTree tree, String tagName) {
-        return tree instanceof BlockTagTree
-                && tagName.equalsIgnoreCase(((BlockTagTree)tree).getTagName());
+    /**
+     * Creates the ranking of the slowest elements, if the option is present.
+     */
+    @Nullable
+    private SlowestElements createSlowestElements() {
+        @Nullable String token = optionage.getOptionString(OPT_SLOWEST_ELEMENTS, null);
+        if (token == null) {
+            return null;
+        }
+        try {
+            int limit = Integer.parseInt(token.trim());
+            if (limit > 0) {
+                return new SlowestElements(limit);
+            }
+        } catch (NumberFormatException ignore) {
+        }
+        reporter.print(Diagnostic.Kind.WARNING, "invalid number of slowest elements: " + token);
+        return null;
+    }
+
+    private boolean isProfiling() {
+        return optionage.isPresent(OPT_PROFILE) || optionage.isPresent(OPT_METRICS_FILE);
+    }
+
+    /**
+     * Prints a summary of the profile, if the profile option is present, and writes the
+     * metrics file, if specified.
+     */
+    private void reportProfile(PhaseProfiler profiler) {
+        tracer.trace(Tracer.Category.output, Tracer.Level.debug, () -> String.format("profile: %s", profiler.getMeasurements()));
+        if (optionage.isPresent(OPT_PROFILE)) {
+            reporter.print(Diagnostic.Kind.NOTE, profiler.formatSummary());
+        }
+        @Nullable String metricsPathname = optionage.getOptionString(OPT_METRICS_FILE, null);
+        if (metricsPathname != null) {
+            try {
+                profiler.writeMetrics(Paths.get(metricsPathname));
+            } catch (IOException e) {
+                log.log(Level.WARNING, "failed to write metrics file", e);
+                reporter.print(Diagnostic.Kind.WARNING, "failed to write metrics to " + metricsPathname + " due to IOException " + e.getMessage());
+            }
+        }
+    }
+
+    private static String describeElement(Element element) {
+        return element.getEnclosingElement() + "." + element.getSimpleName();
+    }
+
+    /**
+     * Prints a summary of the element diagnostics collected during extraction, and writes
+     * the full list to the diagnostics report file, if specified.
+     */
+    private void reportDiagnostics() {
+        @Nullable String summary = diagnostics.formatSummary();
+        @Nullable Diagnostic.Kind kind = diagnostics.getMostSevereKind();
+        if (summary != null && kind != null) {
+            reporter.print(kind, summary);
+        }
+        @Nullable String reportPathname = optionage.getOptionString(OPT_DIAGNOSTICS_REPORT, null);
+        if (reportPathname != null) {
+            try {
+                diagnostics.writeReport(Paths.get(reportPathname));
+            } catch (IOException e) {
+                log.log(Level.WARNING, "failed to write diagnostics report", e);
+                reporter.print(Diagnostic.Kind.WARNING, "failed to write diagnostics report to " + reportPathname + " due to IOException " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Finishes a run in bounded-memory mode, after the documented settings have been
+     * extracted into a spool. Settings to be appended are added to the spool too.
+     * The key set, if one is to be emitted, is the exception to the memory bound: a
+     * {@link KeySet} holds every key, so the keys are collected while the output is
+     * written, which saves another pass over the spill files.
+     */
+    private boolean finishBounded(SettingSpool spool, DocletEnvironment environment) {
+        @Nullable String keySetPathname = optionage.getOptionString(OPT_EMIT_KEY_SET, null);
+        @Nullable List<String> keys = keySetPathname == null ? null : new ArrayList<>(spool.size());
+        try {
+            @Nullable String rootDirectory = optionage.getOptionString(OPT_EMBED_SETTINGS, null);
+            if (rootDirectory != null && !embedSettings(rootDirectory, spool.iterator())) {
+                return false;
+            }
+            for (ConfigSetting other : appendOthers(optionage.getOptionString(OPT_APPEND_SETTINGS, null))) {
+                spool.add(other);
+            }
+            if (optionage.isPresent(OPT_APPEND_CLASSPATH_SETTINGS)) {
+                for (ConfigSetting other : appendClasspathSettings(getDefaultClasspath(environment))) {
+                    spool.add(other);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.log(Level.SEVERE, "failed to spill settings", e);
+            reporter.print(Diagnostic.Kind.ERROR, "failed to spill settings to disk due to IOException " + e.getMessage());
+            return false;
+        }
+        if (!produceOutput(spool, keys == null ? setting -> {} : setting -> keys.add(setting.key))) {
+            return false;
+        }
+        return keys == null || emitKeySet(keySetPathname, keys);
     }
 
+    /**
+     * Gets the maximum number of settings to keep in memory, or null if unbounded.
+     */
     @Nullable
-    private String extractConfigKey(VariableElement element, DocCommentTree docCommentTree) {
-        Object constValue = element.getConstantValue();
-        if (constValue == null && docCommentTree != null) {
-            constValue = docCommentTree.getBlockTags().stream()
-                    .filter(tree -> ConfigDoclet.isCfgTag(tree, TAG_CFG_KEY))
-                    .filter(UnknownBlockTagTree.class::isInstance)
-                    .map(tree -> CommentRenderer.concatenateText(((UnknownBlockTagTree)tree).getContent()))
-                    .map(String::trim)
-                    .filter(text -> !text.isEmpty())
-                    .findFirst().orElse(null);
+    private Integer getMaxSettingsInMemory() {
+        @Nullable String token = optionage.getOptionString(OPT_MAX_SETTINGS_IN_MEMORY, null);
+        if (token == null) {
+            return null;
+        }
+        try {
+            int max = Integer.parseInt(token.trim());
+            if (max > 0) {
+                return max;
+            }
+        } catch (NumberFormatException ignore) {
+        }
+        reporter.print(Diagnostic.Kind.WARNING, "invalid maximum number of settings in memory: " + token);
+        return null;
+    }
+
+    /**
+     * Gets the class path that is searched for the constant values of link targets
+     * that are not among the elements being documented. If the link class path option
+     * is absent, the default class path is used.
+     */
+    List<Path> getLinkClasspath(DocletEnvironment environment) {
+        @Nullable String linkClasspath = optionage.getOptionString(OPT_LINK_CLASSPATH, null);
+        if (linkClasspath != null) {
+            return Stream.of(linkClasspath.split(File.pathSeparator))
+                    .filter(pathname -> !pathname.isEmpty())
+                    .map(Paths::get)
+                    .collect(Collectors.toList());
+        }
+        return getDefaultClasspath(environment);
+    }
+
+    /**
+     * Gets the class path and doclet path of the javadoc run.
+     */
+    static List<Path> getDefaultClasspath(DocletEnvironment environment) {
+        JavaFileManager fileManager = environment.getJavaFileManager();
+        Set<Path> classpath = new LinkedHashSet<>();
+        if (fileManager instanceof StandardJavaFileManager) {
+            for (JavaFileManager.Location location : Arrays.asList(StandardLocation.CLASS_PATH, DocumentationTool.Location.DOCLET_PATH)) {
+                @Nullable Iterable<? extends Path> paths = ((StandardJavaFileManager) fileManager).getLocationAsPaths(location);
+                if (paths != null) {
+                    paths.forEach(classpath::add);
+                }
+            }
+        }
+        return new ArrayList<>(classpath);
+    }
+
+    /**
+     * Writes the settings to the embedded settings path beneath the directory
+     * specified by the embed settings option, if present.
+     * @return false if writing failed
+     */
+    private boolean maybeEmbedSettings(List<ConfigSetting> settings) {
+        @Nullable String rootDirectory = optionage.getOptionString(OPT_EMBED_SETTINGS, null);
+        if (rootDirectory == null) {
+            return true;
+        }
+        return embedSettings(rootDirectory, getSortOrder().sort(settings).iterator());
+    }
+
+    private boolean embedSettings(String rootDirectory, Iterator<ConfigSetting> sorted) {
+        try {
+            EmbeddedSettings.WriteResult result = new EmbeddedSettings().write(Paths.get(rootDirectory), sorted);
+            reporter.print(Diagnostic.Kind.NOTE, String.format("embedded %d settings in %s", result.count, result.file));
+        } catch (IOException | UncheckedIOException e) {
+            log.log(Level.SEVERE, "failed to write embedded settings", e);
+            reporter.print(Diagnostic.Kind.ERROR, "failed to embed settings beneath " + rootDirectory + " due to IOException " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the set of all setting keys to the file specified by the key set option, if present.
+     * @return false if writing failed
+     */
+    private boolean maybeEmitKeySet(List<ConfigSetting> settings) {
+        @Nullable String pathname = optionage.getOptionString(OPT_EMIT_KEY_SET, null);
+        if (pathname == null) {
+            return true;
         }
-        return constValue == null ? null : constValue.toString();
+        return emitKeySet(pathname, settings.stream().map(s -> s.key).collect(Collectors.toList()));
+    }
+
+    private boolean emitKeySet(String pathname, Collection<String> keys) {
+        KeySet keySet = KeySet.of(keys);
+        File file = new File(pathname);
+        try {
+            if (file.getParentFile() != null) {
+                Files.createDirectories(file.getParentFile().toPath());
+            }
+            try (OutputStream out = new FileOutputStream(file)) {
+                keySet.write(out);
+            }
+            reporter.print(Diagnostic.Kind.NOTE, String.format("wrote key set of %d keys to %s", keySet.size(), file));
+        } catch (IOException e) {
+            log.log(Level.SEVERE, "failed to write key set", e);
+            reporter.print(Diagnostic.Kind.ERROR, "failed to write key set to " + file + " due to IOException " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    protected List<ConfigSetting> appendClasspathSettings(List<Path> classpath) {
+        EmbeddedSettings.Result result;
+        try {
+            result = new EmbeddedSettings(createGson()).read(classpath);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        reporter.print(Diagnostic.Kind.NOTE, String.format("appending %d settings embedded in %d of %d class path entries", result.settings.size(), result.sources.size(), classpath.size()));
+        tracer.trace(Tracer.Category.discovery, Tracer.Level.debug, () -> String.format("class path entries with embedded settings: %s", result.sources));
+        return result.settings;
     }
 
     private Charset getAppendOthersCharset() {
@@ -369,7 +797,7 @@ public class ConfigDoclet implements Doclet {
                 File jsonFile = new File(pathname);
                 ConfigSetting[] some;
                 try (Reader reader = new InputStreamReader(new FileInputStream(jsonFile), getAppendOthersCharset())) {
-                    some = new Gson().fromJson(reader, ConfigSetting[].class);
+                    some = createGson().fromJson(reader, ConfigSetting[].class);
                 } catch (IOException e) {
                     // TODO support setting to suppress this exception
                     throw new RuntimeException(e);
@@ -382,21 +810,29 @@ public class ConfigDoclet implements Doclet {
         return others;
     }
 
-    private void maybeDumpAll(String tag, Collection<? extends Element> variableElements) {
-        extraDiagnostic(Diagnostic.Kind.NOTE, () -> {
-            String elementsDebug = variableElements.stream()
-                    .map(el -> new ToStringHelper(el)
-                            .add("kind", el.getKind())
-                            .add("modifiers", el.getModifiers())
-                            .add("name", el.getSimpleName().toString())
-                            .toString())
-                    .collect(Collectors.joining(System.lineSeparator()));
-            return String.format("%s:%n%s%n", tag, elementsDebug);
-        });
+    private Gson createGson() {
+        return stringPool == null ? new Gson() : stringPool.createGson();
     }
 
-    private ConfigSetting.Builder prepareBuilder(@SuppressWarnings("unused") VariableElement element, Object constValue) {
-        ConfigSetting.Builder b = ConfigSetting.builder(constValue.toString());
+    /**
+     * Traces the number of elements in a collection and, at the most verbose level, each element.
+     */
+    private void traceElements(Tracer.Category category, String tag, Collection<? extends Element> elements) {
+        tracer.trace(category, Tracer.Level.debug, () -> String.format("%s: %d", tag, elements.size()));
+        if (tracer.isEnabled(category, Tracer.Level.trace)) {
+            for (Element el : elements) {
+                tracer.trace(category, Tracer.Level.trace, () -> String.format("%s: %s", tag, new ToStringHelper(el)
+                        .add("kind", el.getKind())
+                        .add("modifiers", el.getModifiers())
+                        .add("name", el.getSimpleName().toString())
+                        .toString()));
+            }
+        }
+    }
+
+    private ConfigSetting.Builder prepareBuilder(@SuppressWarnings("unused") VariableElement element) {
+        ConfigSetting.Builder b = ConfigSetting.builder()
+                .stringPool(stringPool);
         return b;
     }
 
@@ -412,7 +848,20 @@ public class ConfigDoclet implements Doclet {
 
     private Iterable<OutputFormatter.Factory> getOutputFormatterFactories() {
         return Arrays.asList(PropertiesOutputFormatter.factory(reporter),
-                GsonOutputFormatter.factory());
+                GsonOutputFormatter.factory(),
+                BinaryOutputFormatter.factory(),
+                JavaSourceOutputFormatter.factory(),
+                YamlOutputFormatter.factory());
+    }
+
+    protected SortOrder getSortOrder() {
+        String token = optionage.getOptionString(OPT_SORT_ORDER, null);
+        try {
+            return SortOrder.parse(token);
+        } catch (IllegalArgumentException e) {
+            reporter.print(Diagnostic.Kind.WARNING, String.format("%s; using %s", e.getMessage(), SortOrder.DEFAULT.getToken()));
+            return SortOrder.DEFAULT;
+        }
     }
 
     protected OutputFormatter produceOutputFormatter() {
@@ -433,23 +882,58 @@ public class ConfigDoclet implements Doclet {
         if (numDupes > 0) {
             reporter.print(Diagnostic.Kind.WARNING, String.format("%s duplicate key(s) to be documented", numDupes));
             Set<String> dupes = allKeys.stream().filter(key -> allKeys.stream().filter(key::equals).count() > 1).collect(Collectors.toSet());
-            extraDiagnostic(Diagnostic.Kind.WARNING, () -> String.format("duplicate keys: %s", dupes.stream().collect(Collectors.joining(System.lineSeparator()))));
+            tracer.trace(Tracer.Category.output, Tracer.Level.info, () -> String.format("duplicate keys: %s", dupes.stream().collect(Collectors.joining(System.lineSeparator()))));
         }
     }
 
     protected boolean produceOutput(List<ConfigSetting> items) {
         reporter.print(Diagnostic.Kind.NOTE, String.format("writing help output on %d settings", items.size()));
         maybeWarnAboutDuplicates(items);
-        items = items.stream().sorted(settingOrdering()).collect(Collectors.toList());
+        List<ConfigSetting> sorted = getSortOrder().sort(items);
+        return writeOutput((formatter, out) -> formatter.formatSorted(sorted, out, getOutputCharset()));
+    }
+
+    /**
+     * Produces output from settings that may not all fit in memory. The settings are
+     * streamed to the formatter in sorted order; duplicate keys are not reported.
+     * @param spool the spool
+     * @param observer action performed on each setting as it is streamed to the formatter
+     */
+    protected boolean produceOutput(SettingSpool spool, Consumer<? super ConfigSetting> observer) {
+        reporter.print(Diagnostic.Kind.NOTE, String.format("writing help output on %d settings from %d spill files", spool.size(), spool.getSpillCount()));
+        return writeOutput((formatter, out) -> {
+            Iterator<ConfigSetting> sorted = spool.iterator();
+            formatter.format(new Iterator<ConfigSetting>() {
+                @Override
+                public boolean hasNext() {
+                    return sorted.hasNext();
+                }
+
+                @Override
+                public ConfigSetting next() {
+                    ConfigSetting setting = sorted.next();
+                    observer.accept(setting);
+                    return setting;
+                }
+            }, out, getOutputCharset());
+        });
+    }
+
+    private interface OutputAction {
+        void write(OutputFormatter formatter, OutputStream out) throws IOException;
+    }
+
+    private boolean writeOutput(OutputAction action) {
         OutputFormatter formatter = produceOutputFormatter();
-        File outputFile = resolveOutputPath(formatter.suggestFilenameExtension()).toFile();
+        File outputFile = resolveOutputPath(formatter).toFile();
         if (!outputFile.getParentFile().isDirectory()) {
             //noinspection ResultOfMethodCallIgnored // will fail on open if dir could not be created
             outputFile.getParentFile().mkdirs();
         }
-        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(outputFile), getOutputCharset()))) {
-            formatter.format(items, out);
-        } catch (IOException e) {
+        tracer.trace(Tracer.Category.output, Tracer.Level.info, () -> String.format("writing %s to %s", formatter.getClass().getSimpleName(), outputFile));
+        try (OutputStream out = new FileOutputStream(outputFile)) {
+            action.write(formatter, out);
+        } catch (IOException | UncheckedIOException e) {
             log.log(Level.SEVERE, "failed to write output file", e);
             reporter.print(Diagnostic.Kind.ERROR, "failed to write to output file " + outputFile + " due to IOException " + e.getMessage());
             return false;
@@ -457,97 +941,106 @@ public class ConfigDoclet implements Doclet {
         return true;
     }
 
-    private class CollectingScanner extends ActionableTagScanner<Void, Void> {
-
-        @SuppressWarnings("unused")
-        private final VariableElement element;
-        private final ConfigSetting.Builder itemBuilder;
-        private final CommentRenderer linkValueRenderer;
-        private final CommentRenderer textRenderer;
-        private final CommentRenderer simpleRenderer;
-
-        public CollectingScanner(Set<String> actionableTags, VariableElement element, ConfigSetting.Builder itemBuilder, CommentRenderer textRenderer, CommentRenderer linkValueRenderer) {
-            super(actionableTags);
-            this.element = element;
-            this.linkValueRenderer = linkValueRenderer;
-            this.textRenderer = textRenderer;
-            simpleRenderer = new SimpleRenderer();
-            this.itemBuilder = itemBuilder;
-        }
-
-        @Override
-        protected Void processActionableTag(BlockTagTree node, Void nothing) {
-            String tagName = node.getTagName();
-            if (TAG_CFG_DESCRIPTION.equals(tagName)) {
-                addDescription(node);
-            } else if (TAG_CFG_EXAMPLE.equals(tagName)) {
-                addExample(node);
-            } else if (TAG_CFG_DEFAULT_VALUE.equals(tagName)) {
-                addDefault(node);
-            }  else if (TAG_CFG_SORT_KEY.equals(tagName)) {
-                addSortKey(node);
-            } else //noinspection StatementWithEmptyBody
-                if (TAG_CFG_INCLUDE.equals(tagName)) {
-                // nothing to do
-            } else //noinspection StatementWithEmptyBody
-                if (TAG_CFG_KEY.equals(tagName)) {
-                // nothing to do
-            } else {
-                log.warning(() -> String.format("unsupported tag %s", node.getTagName()));
-            }
-            //noinspection RedundantCast
-            return (Void) null;
-        }
-
-        private void addSortKey(BlockTagTree node) {
-            String sortKey = simpleRenderer.render(Collections.singleton(node));
-            if (sortKey != null) {
-                sortKey = sortKey.trim();
-                if (!sortKey.isEmpty()) {
-                    itemBuilder.sortKey(sortKey);
-                }
+    /**
+     * Builds the registry of tag handlers for a run. The registry has handlers for the
+     * standard tags and for the custom tags specified by option, whose values are kept
+     * as setting attributes.
+     */
+    TagRegistry buildTagRegistry(CommentRenderer textRenderer, CommentRenderer linkValueRenderer) {
+        CommentRenderer simpleRenderer = new SimpleRenderer();
+        TagRegistry registry = new TagRegistry()
+                .register(TAG_CFG_DESCRIPTION, (tag, context) -> {
+                    Collection<? extends DocTree> targets;
+                    if (tag instanceof UnknownBlockTagTree) {
+                        targets = ((UnknownBlockTagTree) tag).getContent();
+                    } else {
+                        targets = Collections.singleton(tag);
+                    }
+                    context.description(context.render(textRenderer, targets));
+                })
+                .register(TAG_CFG_EXAMPLE, (tag, context) -> {
+                    context.settingBuilder.exampleValue(context.render(simpleRenderer, Collections.singleton(tag)));
+                })
+                .register(TAG_CFG_DEFAULT_VALUE, (tag, context) -> {
+                    String defaultValue = null;
+                    if (tag instanceof UnknownBlockTagTree) {
+                        defaultValue = context.render(linkValueRenderer, ((UnknownBlockTagTree) tag).getContent());
+                    }
+                    if (defaultValue == null) {
+                        defaultValue = context.render(simpleRenderer, Collections.singleton(tag));
+                    }
+                    context.settingBuilder.defaultValue(defaultValue);
+                })
+                .register(TAG_CFG_SORT_KEY, (tag, context) -> {
+                    String sortKey = context.render(simpleRenderer, Collections.singleton(tag));
+                    if (sortKey != null && !sortKey.isEmpty()) {
+                        context.settingBuilder.sortKey(sortKey);
+                    }
+                })
+                .register(TAG_CFG_KEY, (tag, context) -> {
+                    if (tag instanceof UnknownBlockTagTree) {
+                        String key = CommentRenderer.concatenateText(((UnknownBlockTagTree) tag).getContent()).trim();
+                        if (!key.isEmpty()) {
+                            context.keyIfAbsent(key);
+                        }
+                    }
+                })
+                .register(TAG_CFG_INCLUDE, (tag, context) -> {
+                    // applied when elements are filtered
+                });
+        for (String tagName : getCustomTags()) {
+            String attributeName = tagName.startsWith(CFG_TAG_PREFIX) ? tagName.substring(CFG_TAG_PREFIX.length()) : tagName;
+            try {
+                registry.register(tagName, (tag, context) -> {
+                    @Nullable String value = context.render(simpleRenderer, Collections.singleton(tag));
+                    if (value != null) {
+                        context.settingBuilder.attribute(attributeName, value);
+                    }
+                });
+            } catch (IllegalArgumentException e) {
+                reporter.print(Diagnostic.Kind.WARNING, "custom tag ignored: " + e.getMessage());
             }
         }
+        return registry;
+    }
 
-        private void addExample(BlockTagTree node) {
-            itemBuilder.exampleValue(simpleRenderer.render(Collections.singleton(node)));
-        }
-
-        private void addDescription(BlockTagTree node) {
-            Collection<? extends DocTree> targets;
-            if (node instanceof UnknownBlockTagTree) {
-                targets = ((UnknownBlockTagTree)node).getContent();
-            } else {
-                targets = Collections.singleton(node);
-            }
-            String text = textRenderer.render(targets);
-            itemBuilder.description(text);
+    /**
+     * Gets the names of custom tags specified by option.
+     */
+    List<String> getCustomTags() {
+        @Nullable String value = optionage.getOptionString(OPT_CUSTOM_TAGS, null);
+        if (value == null) {
+            return Collections.emptyList();
         }
+        return Stream.of(value.split(","))
+                .map(String::trim)
+                .map(name -> Stringage.trimLeadingFrom(name, '@'))
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
 
-        private void addDefault(BlockTagTree node) {
-            String defaultValue = null;
-            if (node instanceof UnknownBlockTagTree) {
-                List<? extends DocTree> content = ((UnknownBlockTagTree) node).getContent();
-                defaultValue = linkValueRenderer.render(content);
-            }
-            if (defaultValue == null) {
-                defaultValue = simpleRenderer.render(Collections.singleton(node));
-            }
-            itemBuilder.defaultValue(defaultValue);
+    /**
+     * Records a diagnostic about a tag in the doclet's namespace that has no handler.
+     * Other tags, such as {@code @since}, are ignored.
+     */
+    private void reportUnsupportedTag(VariableElement element, BlockTagTree tag) {
+        String tagName = tag.getTagName();
+        if (tagName.regionMatches(true, 0, CFG_TAG_PREFIX, 0, CFG_TAG_PREFIX.length())) {
+            diagnostics.record(Diagnostic.Kind.WARNING, String.format(DIAGNOSTIC_UNSUPPORTED_TAG, tagName), describeElement(element));
         }
-
     }
 
-    protected Path resolveOutputPath(String extensionSuggestion) {
+    protected Path resolveOutputPath(OutputFormatter formatter) {
         String defaultValue = System.getProperty("user.dir");
         String outputDirectory = optionage.getOptionString(OPT_OUTPUT_DIRECTORY, defaultValue);
-        return new File(outputDirectory).toPath().resolve(getOutputFilename(extensionSuggestion));
+        return new File(outputDirectory).toPath().resolve(getOutputFilename(formatter));
     }
 
-    protected String getOutputFilename(String extensionSuggestion) {
+    protected String getOutputFilename(OutputFormatter formatter) {
         String value = optionage.getOptionString(OPT_OUTPUT_FILENAME, null);
         if (value == null) {
-            value = PREFIX_DEFAULT_OUTPUT_FILENAME + extensionSuggestion;
+            value = formatter.suggestFilename(DEFAULT_OUTPUT_FILENAME_BASE);
         }
         return value;
     }
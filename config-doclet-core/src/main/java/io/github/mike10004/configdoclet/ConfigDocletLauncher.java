@@ -0,0 +1,140 @@
+package io.github.mike10004.configdoclet;
+
+import javax.annotation.Nullable;
+import javax.tools.DocumentationTool;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Program that runs javadoc with this doclet on the source files beneath one or more source roots.
+ * Before starting javadoc, the source files are scanned for the config tag prefix and the field
+ * name prefixes, and javadoc is given only the files that could contribute settings, plus the
+ * files they link to. Arguments other than those listed below are passed through to javadoc.
+ *
+ * <ul>
+ *     <li>{@code --source-root <dir>} adds a source root; may be repeated</li>
+ *     <li>{@code --no-prescan} passes all source files to javadoc</li>
+ * </ul>
+ */
+public class ConfigDocletLauncher {
+
+    static final String OPT_SOURCE_ROOT = "--source-root";
+    static final String OPT_NO_PRESCAN = "--no-prescan";
+
+    private static final Set<String> ACCESS_OPTIONS = Set.of("-public", "-protected", "-package", "-private", "--show-members");
+
+    private final PrintStream stdout;
+    private final PrintStream stderr;
+
+    public ConfigDocletLauncher(PrintStream stdout, PrintStream stderr) {
+        this.stdout = requireNonNull(stdout);
+        this.stderr = requireNonNull(stderr);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int exitCode = new ConfigDocletLauncher(System.out, System.err).run(args);
+        System.exit(exitCode);
+    }
+
+    public int run(String[] args) throws IOException {
+        List<Path> sourceRoots = new ArrayList<>();
+        List<String> javadocArgs = new ArrayList<>();
+        boolean prescan = true;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (OPT_SOURCE_ROOT.equals(arg) && i + 1 < args.length) {
+                sourceRoots.add(Paths.get(args[++i]));
+            } else if (arg.startsWith(OPT_SOURCE_ROOT + "=")) {
+                sourceRoots.add(Paths.get(arg.substring(OPT_SOURCE_ROOT.length() + 1)));
+            } else if (OPT_NO_PRESCAN.equals(arg)) {
+                prescan = false;
+            } else {
+                javadocArgs.add(arg);
+            }
+        }
+        if (sourceRoots.isEmpty()) {
+            stderr.format("at least one %s argument is required%n", OPT_SOURCE_ROOT);
+            return 1;
+        }
+        Charset sourceCharset = Charset.forName(findArgValue(javadocArgs, "-encoding", Charset.defaultCharset().name()));
+        @Nullable List<String> needles = null;
+        if (prescan && findArgValue(javadocArgs, ConfigDoclet.OPT_FIELD_NAME_REGEX, null) == null) {
+            @Nullable String fieldNamePatterns = findArgValue(javadocArgs, ConfigDoclet.OPT_FIELD_NAME_PATTERN, null);
+            needles = SourcePrescanner.buildNeedles(fieldNamePatterns == null ? null : ConfigDoclet.tokenizePatterns(fieldNamePatterns));
+        }
+        List<Path> sourceFiles;
+        if (needles == null) {
+            sourceFiles = SourcePrescanner.listSourceFiles(sourceRoots);
+            stdout.format("prescan not possible or disabled; considering all %d source files%n", sourceFiles.size());
+        } else {
+            SourcePrescanner.Result result = new SourcePrescanner(sourceRoots, needles, sourceCharset).scan();
+            stdout.format("prescan: %d of %d source files are candidates; %d more are link targets%n", result.candidates.size(), result.numSourceFiles, result.linked.size());
+            sourceFiles = result.getFilesToDocument();
+        }
+        if (sourceFiles.isEmpty()) {
+            stderr.format("no source files to document%n");
+            return 1;
+        }
+        return invokeJavadoc(sourceRoots, javadocArgs, sourceFiles, sourceCharset) ? 0 : 1;
+    }
+
+    private boolean invokeJavadoc(List<Path> sourceRoots, List<String> javadocArgs, List<Path> sourceFiles, Charset sourceCharset) throws IOException {
+        DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        if (tool == null) {
+            stderr.format("javadoc tool not available in %s%n", System.getProperty("java.home"));
+            return false;
+        }
+        List<String> options = new ArrayList<>();
+        options.add("-sourcepath");
+        options.add(sourceRoots.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator)));
+        if (javadocArgs.stream().noneMatch(ACCESS_OPTIONS::contains)) {
+            options.add("-private");
+        }
+        options.addAll(javadocArgs);
+        try (StandardJavaFileManager fileManager = tool.getStandardFileManager(null, null, sourceCharset)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromPaths(sourceFiles);
+            PrintWriter out = new PrintWriter(stderr, true);
+            DocumentationTool.DocumentationTask task = tool.getTask(out, fileManager, null, ConfigDoclet.class, options, units);
+            return task.call();
+        }
+    }
+
+    /**
+     * Finds the value of an option in an argument list, accepting both the separate
+     * and the {@code name=value} forms, and accepting one or two leading hyphens.
+     */
+    @Nullable
+    static String findArgValue(List<String> args, String optionName, @Nullable String defaultValue) {
+        String bareName = Stringage.trimLeadingFrom(optionName, '-');
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            if (!arg.startsWith("-")) {
+                continue;
+            }
+            String[] parts = Stringage.trimLeadingFrom(arg, '-').split("=", 2);
+            if (bareName.equals(parts[0])) {
+                if (parts.length == 2) {
+                    return parts[1];
+                }
+                if (i + 1 < args.size()) {
+                    return args.get(i + 1);
+                }
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -4,7 +4,9 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static java.util.Objects.requireNonNull;
@@ -18,12 +20,19 @@ final class ConfigSetting {
     @Nullable
     private final String sortKey;
 
+    /**
+     * Values of custom tags, by attribute name, or null if there are none.
+     */
+    @Nullable
+    public final Map<String, String> attributes;
+
     private ConfigSetting(Builder builder) {
         key = requireNonNull(builder.key, "key");
         description = builder.description;
         defaultValue = builder.defaultValue;
         exampleValues = Collections.unmodifiableList(requireNonNull(builder.exampleValues));
         sortKey = builder.sortKey;
+        attributes = builder.attributes == null ? null : Collections.unmodifiableMap(builder.attributes);
     }
 
     @Override
@@ -34,16 +43,24 @@ final class ConfigSetting {
         return Objects.equals(key, modelItem.key) &&
                 Objects.equals(description, modelItem.description) &&
                 Objects.equals(defaultValue, modelItem.defaultValue) &&
-                Objects.equals(exampleValues, modelItem.exampleValues);
+                Objects.equals(exampleValues, modelItem.exampleValues) &&
+                Objects.equals(attributes, modelItem.attributes);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(key, description, defaultValue, exampleValues);
+        return Objects.hash(key, description, defaultValue, exampleValues, attributes);
     }
 
     public static Builder builder(String key) {
-        return new Builder(key);
+        return new Builder(requireNonNull(key));
+    }
+
+    /**
+     * Creates a builder whose key must be set before the setting is built.
+     */
+    public static Builder builder() {
+        return new Builder(null);
     }
 
     public String toStringWithExamples() {
@@ -53,18 +70,27 @@ final class ConfigSetting {
     @SuppressWarnings("UnusedReturnValue")
     public static final class Builder {
 
-        private final String key;
+        private String key;
         private String description;
         private String defaultValue;
         private String sortKey;
+        @Nullable
+        private StringPool stringPool;
 
         private final List<ExampleValue> exampleValues;
+        @Nullable
+        private Map<String, String> attributes;
 
-        private Builder(String key) {
-            this.key = requireNonNull(key);
+        private Builder(@Nullable String key) {
+            this.key = key;
             exampleValues = new ArrayList<>();
         }
 
+        public Builder key(String val) {
+            key = requireNonNull(val);
+            return this;
+        }
+
         public Builder sortKey(String val) {
             this.sortKey = val;
             return this;
@@ -89,7 +115,36 @@ final class ConfigSetting {
             return this;
         }
 
+        /**
+         * Sets the value of an attribute, replacing any value already set.
+         */
+        public Builder attribute(String name, String value) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(requireNonNull(name), requireNonNull(value));
+            return this;
+        }
+
+        /**
+         * Sets the pool through which the strings of the built setting, other than the key,
+         * are deduplicated.
+         */
+        public Builder stringPool(@Nullable StringPool val) {
+            stringPool = val;
+            return this;
+        }
+
         public ConfigSetting build() {
+            if (stringPool != null) {
+                description = stringPool.intern(description);
+                defaultValue = stringPool.intern(defaultValue);
+                sortKey = stringPool.intern(sortKey);
+                exampleValues.replaceAll(example -> new ExampleValue(stringPool.intern(example.value), stringPool.intern(example.description)));
+                if (attributes != null) {
+                    attributes.replaceAll((name, value) -> stringPool.intern(value));
+                }
+            }
             return new ConfigSetting(this);
         }
     }
@@ -148,6 +203,9 @@ final class ConfigSetting {
         if (sortKey != null) {
             h.add("sortKey", sortKey);
         }
+        if (attributes != null) {
+            h.add("attributes", attributes);
+        }
         return h.toString();
     }
 
@@ -0,0 +1,215 @@
+package io.github.mike10004.configdoclet;
+
+import com.sun.source.doctree.DocCommentTree;
+import com.sun.source.doctree.ReferenceTree;
+import com.sun.source.util.DocTreePath;
+import com.sun.source.util.DocTrees;
+import com.sun.source.util.TreePath;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.VariableElement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cache of the rendered constant values that link and value tags refer to, shared by all
+ * elements in a run. References are cached as written, once per enclosing type, because
+ * the same text may refer to different fields from different compilation units; for
+ * example, {@code Limits#MAX_WIDGETS} may name an imported type in one and a type in the
+ * same package in another. On a miss, the reference is resolved by javadoc, which follows
+ * the imports of the compilation unit, and the field it resolves to is identified by its
+ * fully qualified signature, because link resolvers index fields that way. Values are also
+ * cached by qualified signature, so that each field is passed to the link resolver once
+ * for the run. References that javadoc cannot resolve, such as those to types that are
+ * only on the link class path, are qualified textually: member references with the
+ * enclosing type's signature and simple type names with the enclosing package.
+ */
+final class ConstantValueCache {
+
+    private final LinkResolver linkResolver;
+    private final ReferenceResolver referenceResolver;
+    private final Map<String, Optional<String>> qualifiedValues;
+    private final Map<Element, Scope> scopes;
+    private int hitCount;
+    private int missCount;
+
+    public ConstantValueCache(LinkResolver linkResolver) {
+        this(linkResolver, ReferenceResolver.NONE);
+    }
+
+    public ConstantValueCache(LinkResolver linkResolver, ReferenceResolver referenceResolver) {
+        this.linkResolver = requireNonNull(linkResolver);
+        this.referenceResolver = requireNonNull(referenceResolver);
+        qualifiedValues = new HashMap<>();
+        scopes = new HashMap<>();
+    }
+
+    /**
+     * Resolver of the element that a reference in a comment refers to.
+     */
+    interface ReferenceResolver {
+
+        /**
+         * Resolver that resolves nothing, so that every reference is qualified textually.
+         */
+        ReferenceResolver NONE = (context, reference) -> null;
+
+        /**
+         * Resolves a reference.
+         * @param context the element whose comment contains the reference
+         * @param reference the reference
+         * @return the element referred to, or null if the reference cannot be resolved
+         */
+        @Nullable
+        Element resolve(VariableElement context, ReferenceTree reference);
+
+        /**
+         * Creates a resolver that uses javadoc's resolution of references, which follows
+         * the imports of the compilation unit of the element whose comment contains the
+         * reference. The reference must be a node of the element's comment tree.
+         * @param docTrees the doc trees of the run
+         * @return a new resolver
+         */
+        static ReferenceResolver forDocTrees(DocTrees docTrees) {
+            requireNonNull(docTrees, "docTrees");
+            return (context, reference) -> {
+                @Nullable TreePath treePath = docTrees.getPath(context);
+                @Nullable DocCommentTree comment = docTrees.getDocCommentTree(context);
+                if (treePath == null || comment == null) {
+                    return null;
+                }
+                @Nullable DocTreePath referencePath = DocTreePath.getPath(treePath, comment, reference);
+                return referencePath == null ? null : docTrees.getElement(referencePath);
+            };
+        }
+    }
+
+    /**
+     * Resolves the constant value that a reference refers to.
+     * @param context the element whose comment contains the reference
+     * @param reference the reference
+     * @return the constant value as a string, or null if the reference does not resolve to a constant
+     */
+    @Nullable
+    public String resolve(VariableElement context, ReferenceTree reference) {
+        return resolve(context, reference.getSignature(), () -> referenceResolver.resolve(context, reference));
+    }
+
+    /**
+     * Resolves the constant value that a signature refers to, qualifying the signature textually.
+     * @param context the element whose comment contains the reference
+     * @param signature the signature, as written in the comment
+     * @return the constant value as a string, or null if the signature does not resolve to a constant
+     */
+    @Nullable
+    public String resolve(VariableElement context, String signature) {
+        return resolve(context, signature, () -> null);
+    }
+
+    @Nullable
+    private String resolve(VariableElement context, String signature, Supplier<Element> referent) {
+        requireNonNull(signature, "signature");
+        Scope scope = scopes.computeIfAbsent(context.getEnclosingElement(), Scope::new);
+        @Nullable Optional<String> cached = scope.values.get(signature);
+        if (cached == null) {
+            cached = resolveUncached(context, signature, scope, referent.get());
+            scope.values.put(signature, cached);
+        } else {
+            hitCount++;
+        }
+        return cached.orElse(null);
+    }
+
+    private Optional<String> resolveUncached(VariableElement context, String signature, Scope scope, @Nullable Element referent) {
+        String qualified;
+        if (referent == null) {
+            qualified = isTypeQualified(signature) ? signature : scope.qualify(signature);
+        } else if (referent.getKind() == ElementKind.FIELD) {
+            qualified = CollectionLinkResolver.constructSignature(referent);
+        } else {
+            return Optional.empty();
+        }
+        @Nullable Optional<String> cached = qualifiedValues.get(qualified);
+        if (cached != null) {
+            hitCount++;
+            return cached;
+        }
+        missCount++;
+        @Nullable Object constValue = linkResolver.resolveConstantValue(context, qualified);
+        if (constValue == null && referent != null) {
+            constValue = ((VariableElement) referent).getConstantValue();
+        }
+        Optional<String> rendered = Optional.ofNullable(constValue == null ? null : constValue.toString());
+        qualifiedValues.put(qualified, rendered);
+        return rendered;
+    }
+
+    private static boolean isTypeQualified(String signature) {
+        int hashIndex = signature.indexOf('#');
+        int typeEnd = hashIndex < 0 ? signature.length() : hashIndex;
+        return signature.lastIndexOf('.', typeEnd - 1) >= 0;
+    }
+
+    /**
+     * Gets the number of resolutions answered from the cache.
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of resolutions passed to the link resolver, which is once per
+     * qualified signature.
+     */
+    public int getMissCount() {
+        return missCount;
+    }
+
+    private static final class Scope {
+
+        private final Element enclosingElement;
+        private final Map<String, Optional<String>> values;
+        @Nullable
+        private String signature;
+        @Nullable
+        private String packagePrefix;
+
+        Scope(Element enclosingElement) {
+            this.enclosingElement = enclosingElement;
+            values = new HashMap<>();
+        }
+
+        /**
+         * Qualifies a reference to a member of the enclosing type with the type's signature,
+         * and a reference to a type by simple name with the enclosing package.
+         */
+        String qualify(String memberSignature) {
+            if (memberSignature.startsWith(CollectionLinkResolver.getPrefix(ElementKind.FIELD))) {
+                if (signature == null) {
+                    signature = CollectionLinkResolver.constructSignature(enclosingElement);
+                }
+                return signature + memberSignature;
+            }
+            if (packagePrefix == null) {
+                String packageName = CollectionLinkResolver.getPackageName(enclosingElement);
+                packagePrefix = packageName.isEmpty() ? "" : packageName + ".";
+            }
+            return packagePrefix + memberSignature;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringHelper(this)
+                .add("scopes", scopes.size())
+                .add("hitCount", hitCount)
+                .add("missCount", missCount)
+                .toString();
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+
+import javax.annotation.Nullable;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collector of diagnostics about individual elements. Instead of one reporter message per
+ * element, diagnostics are counted by category, and a few example elements are kept for each
+ * category, so that a single summary can be printed. The full list of diagnostics is kept
+ * only if a report is to be written.
+ */
+final class DiagnosticsAggregator {
+
+    static final int DEFAULT_MAX_EXAMPLES = 3;
+
+    private final int maxExamples;
+    private final boolean retainAll;
+    private final Map<String, Counter> counters;
+    private final List<Record> records;
+
+    /**
+     * Constructs an instance.
+     * @param maxExamples maximum number of example elements to keep per category
+     * @param retainAll whether to keep every diagnostic, for writing a report
+     */
+    public DiagnosticsAggregator(int maxExamples, boolean retainAll) {
+        this.maxExamples = maxExamples;
+        this.retainAll = retainAll;
+        counters = new LinkedHashMap<>();
+        records = new ArrayList<>();
+    }
+
+    /**
+     * Records a diagnostic.
+     * @param kind the kind
+     * @param category description of the category, such as "element has no comment"
+     * @param element name of the element
+     */
+    public synchronized void record(Diagnostic.Kind kind, String category, String element) {
+        requireNonNull(kind, "kind");
+        requireNonNull(element, "element");
+        Counter counter = counters.computeIfAbsent(category, c -> new Counter(kind));
+        counter.count++;
+        if (counter.examples.size() < maxExamples) {
+            counter.examples.add(element);
+        }
+        if (retainAll) {
+            records.add(new Record(kind, category, element));
+        }
+    }
+
+    /**
+     * Gets the total number of diagnostics recorded.
+     */
+    public synchronized int getTotalCount() {
+        return counters.values().stream().mapToInt(c -> c.count).sum();
+    }
+
+    /**
+     * Gets the number of diagnostics recorded in a category.
+     */
+    public synchronized int getCount(String category) {
+        @Nullable Counter counter = counters.get(category);
+        return counter == null ? 0 : counter.count;
+    }
+
+    /**
+     * Gets the example elements of a category.
+     */
+    public synchronized List<String> getExamples(String category) {
+        @Nullable Counter counter = counters.get(category);
+        return counter == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(counter.examples));
+    }
+
+    /**
+     * Gets the most severe kind among the diagnostics recorded, or null if none were recorded.
+     */
+    @Nullable
+    public synchronized Diagnostic.Kind getMostSevereKind() {
+        Diagnostic.Kind most = null;
+        for (Counter counter : counters.values()) {
+            if (most == null || counter.kind.ordinal() < most.ordinal()) {
+                most = counter.kind;
+            }
+        }
+        return most;
+    }
+
+    /**
+     * Formats a summary of the diagnostics, with one line per category.
+     * @return the summary, or null if no diagnostics were recorded
+     */
+    @Nullable
+    public synchronized String formatSummary() {
+        if (counters.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d element diagnostic(s):", getTotalCount()));
+        counters.forEach((category, counter) -> {
+            sb.append(System.lineSeparator()).append(String.format("  %s: %d (e.g. %s", category, counter.count, String.join(", ", counter.examples)));
+            if (counter.count > counter.examples.size()) {
+                sb.append(", ...");
+            }
+            sb.append(')');
+        });
+        return sb.toString();
+    }
+
+    /**
+     * Writes a report in JSON format. The report has the count of each category and,
+     * if all diagnostics were retained, the list of diagnostics.
+     * @param file the report file
+     * @throws IOException on I/O error
+     */
+    public synchronized void writeReport(Path file) throws IOException {
+        Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             JsonWriter out = gson.newJsonWriter(writer)) {
+            out.beginObject();
+            out.name("counts").beginObject();
+            for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                out.name(entry.getKey()).value(entry.getValue().count);
+            }
+            out.endObject();
+            if (retainAll) {
+                out.name("diagnostics").beginArray();
+                for (Record record : records) {
+                    out.beginObject()
+                            .name("kind").value(record.kind.name())
+                            .name("category").value(record.category)
+                            .name("element").value(record.element)
+                            .endObject();
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+    }
+
+    private static final class Counter {
+
+        final Diagnostic.Kind kind;
+        final List<String> examples;
+        int count;
+
+        Counter(Diagnostic.Kind kind) {
+            this.kind = kind;
+            examples = new ArrayList<>();
+        }
+    }
+
+    private static final class Record {
+
+        final Diagnostic.Kind kind;
+        final String category;
+        final String element;
+
+        Record(Diagnostic.Kind kind, String category, String element) {
+            this.kind = kind;
+            this.category = category;
+            this.element = element;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringHelper(this)
+                .add("categories", counters.size())
+                .add("totalCount", getTotalCount())
+                .toString();
+    }
+}
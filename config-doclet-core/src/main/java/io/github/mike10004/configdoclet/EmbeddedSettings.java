@@ -0,0 +1,192 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import io.github.mike10004.configdoclet.runtime.SettingsIndex;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Service class that writes settings into, and reads settings from, the well-known resource
+ * path within directories and archives on a class path. Archives are opened with {@link ZipFile},
+ * which looks entries up in the central directory, so only the settings entry is read.
+ */
+class EmbeddedSettings {
+
+    /**
+     * Resource path of embedded settings in JSON format.
+     */
+    static final String RESOURCE_PATH_JSON = SettingsIndex.RESOURCE_PATH_JSON;
+
+    static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    private final Gson gson;
+
+    public EmbeddedSettings() {
+        this(new Gson());
+    }
+
+    public EmbeddedSettings(Gson gson) {
+        this.gson = requireNonNull(gson);
+    }
+
+    /**
+     * Writes settings to the embedded settings path beneath a root directory.
+     * @param rootDirectory the root directory, such as a class output directory
+     * @param settings the settings
+     * @return the pathname of the file written
+     * @throws IOException on I/O error
+     */
+    public Path write(Path rootDirectory, List<ConfigSetting> settings) throws IOException {
+        return write(rootDirectory, settings.iterator()).file;
+    }
+
+    /**
+     * Writes settings supplied by an iterator to the embedded settings path beneath
+     * a root directory. Each setting is written as it is supplied.
+     * @param rootDirectory the root directory, such as a class output directory
+     * @param settings the settings
+     * @return the result
+     * @throws IOException on I/O error
+     */
+    public WriteResult write(Path rootDirectory, Iterator<ConfigSetting> settings) throws IOException {
+        Path file = rootDirectory.resolve(RESOURCE_PATH_JSON);
+        Files.createDirectories(file.getParent());
+        int count = 0;
+        try (JsonWriter out = gson.newJsonWriter(Files.newBufferedWriter(file, CHARSET))) {
+            out.beginArray();
+            while (settings.hasNext()) {
+                gson.toJson(settings.next(), ConfigSetting.class, out);
+                count++;
+            }
+            out.endArray();
+        }
+        return new WriteResult(file, count);
+    }
+
+    public static class WriteResult {
+
+        public final Path file;
+        public final int count;
+
+        public WriteResult(Path file, int count) {
+            this.file = requireNonNull(file);
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringHelper(this)
+                    .add("file", file)
+                    .add("count", count)
+                    .toString();
+        }
+    }
+
+    /**
+     * Reads the settings embedded in the entries of a class path. Entries that are neither
+     * directories nor archives, or that do not contain embedded settings, are skipped.
+     * @param classpath the class path entries
+     * @return the result
+     * @throws IOException on I/O error
+     */
+    public Result read(List<Path> classpath) throws IOException {
+        List<ConfigSetting> settings = new ArrayList<>();
+        List<Path> sources = new ArrayList<>();
+        for (Path entry : classpath) {
+            @Nullable List<ConfigSetting> some;
+            if (Files.isDirectory(entry)) {
+                some = readFromDirectory(entry);
+            } else if (Files.isRegularFile(entry)) {
+                some = readFromArchive(entry);
+            } else {
+                some = null;
+            }
+            if (some != null) {
+                sources.add(entry);
+                settings.addAll(some);
+            }
+        }
+        return new Result(settings, sources);
+    }
+
+    @Nullable
+    private List<ConfigSetting> readFromDirectory(Path directory) throws IOException {
+        Path file = directory.resolve(RESOURCE_PATH_JSON);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return parse(in);
+        }
+    }
+
+    @Nullable
+    private List<ConfigSetting> readFromArchive(Path archive) throws IOException {
+        ZipFile zipFile;
+        try {
+            zipFile = new ZipFile(archive.toFile());
+        } catch (ZipException e) {
+            return null;
+        }
+        try {
+            @Nullable ZipEntry entry = zipFile.getEntry(RESOURCE_PATH_JSON);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                return parse(in);
+            }
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    private List<ConfigSetting> parse(InputStream in) throws IOException {
+        try (Reader reader = new InputStreamReader(in, CHARSET)) {
+            ConfigSetting[] some = gson.fromJson(reader, ConfigSetting[].class);
+            return some == null ? Collections.emptyList() : Arrays.asList(some);
+        }
+    }
+
+    public static class Result {
+
+        public final List<ConfigSetting> settings;
+
+        /**
+         * Class path entries where settings were found.
+         */
+        public final List<Path> sources;
+
+        public Result(List<ConfigSetting> settings, List<Path> sources) {
+            this.settings = Collections.unmodifiableList(settings);
+            this.sources = Collections.unmodifiableList(sources);
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringHelper(this)
+                    .add("settings.size", settings.size())
+                    .add("sources", sources)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.gson.Gson;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.VariableElement;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Observer that emits JDK Flight Recorder events, so that a recording of a javadoc run
+ * shows the doclet's phases next to the compiler's own activity. This is the only class
+ * that refers to the {@code jdk.jfr} module, which is not present in every runtime, so
+ * callers check that the module is present before loading this class. Events are
+ * committed only if a recording has them enabled, so the observer costs little when no
+ * recording is active.
+ */
+final class FlightRecorderObserver implements RunObserver {
+
+    static final String EVENT_NAME_PREFIX = "io.github.mike10004.configdoclet.";
+    private static final String EVENT_CATEGORY = "Config Doclet";
+
+    private final boolean settingEvents;
+    private final Gson gson;
+
+    private FlightRecorderObserver(boolean settingEvents) {
+        this.settingEvents = settingEvents;
+        gson = new Gson();
+    }
+
+    /**
+     * Creates an instance.
+     * @param settingEvents whether to emit an event for each setting in addition to the phase events
+     * @return a new instance
+     */
+    static RunObserver create(boolean settingEvents) {
+        return new FlightRecorderObserver(settingEvents);
+    }
+
+    @Override
+    public PhaseSpan beginPhase(Phase phase) {
+        PhaseEvent event = new PhaseEvent();
+        event.phase = phase.name();
+        event.begin();
+        return elementCount -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.elementCount = elementCount;
+                event.commit();
+            }
+        };
+    }
+
+    @Override
+    public SettingSpan beginSetting(VariableElement element) {
+        if (!settingEvents) {
+            return NOOP.beginSetting(element);
+        }
+        SettingEvent event = new SettingEvent();
+        event.begin();
+        return (setting, linkResolutions) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.element = CollectionLinkResolver.constructSignature(element);
+                event.linkResolutions = linkResolutions;
+                if (setting != null) {
+                    event.key = setting.key;
+                    event.outputBytes = gson.toJson(setting).getBytes(StandardCharsets.UTF_8).length;
+                }
+                event.commit();
+            }
+        };
+    }
+
+    @Name(EVENT_NAME_PREFIX + "Phase")
+    @Label("Doclet Phase")
+    @Category(EVENT_CATEGORY)
+    @Description("Phase of a config doclet run")
+    @StackTrace(false)
+    static final class PhaseEvent extends Event {
+
+        @Label("Phase")
+        String phase;
+
+        @Label("Element Count")
+        @Description("Number of elements or settings the phase produced")
+        int elementCount;
+    }
+
+    @Name(EVENT_NAME_PREFIX + "Setting")
+    @Label("Setting Extraction")
+    @Category(EVENT_CATEGORY)
+    @Description("Extraction of a setting from the comment of a field")
+    @StackTrace(false)
+    static final class SettingEvent extends Event {
+
+        @Label("Element")
+        String element;
+
+        @Label("Key")
+        @Description("Key of the setting, or null if the element did not produce a setting")
+        @Nullable
+        String key;
+
+        @Label("Link Resolutions")
+        @Description("Number of constant value references resolved")
+        int linkResolutions;
+
+        @Label("Output Bytes")
+        @Description("Size of the setting serialized as JSON")
+        @DataAmount
+        long outputBytes;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringHelper(this)
+                .add("settingEvents", settingEvents)
+                .toString();
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.mike10004.configdoclet;
+
+import jdk.javadoc.doclet.Doclet;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implementation of an optionage that holds the values of the supported options of another
+ * optionage, resolved when the instance was created.
+ * @see Optionage#snapshot()
+ */
+final class FrozenOptionage implements Optionage {
+
+    private final Set<? extends Doclet.Option> options;
+
+    // maps each name of a present option to its values
+    private final Map<String, List<String>> values;
+
+    // names of all supported options, present or not
+    private final Set<String> names;
+
+    private final Optionage source;
+
+    private FrozenOptionage(Set<? extends Doclet.Option> options, Map<String, List<String>> values, Set<String> names, Optionage source) {
+        this.options = options;
+        this.values = values;
+        this.names = names;
+        this.source = source;
+    }
+
+    /**
+     * Resolves the values of every supported option of an optionage.
+     * @param source the optionage
+     * @return a new instance
+     */
+    public static FrozenOptionage of(Optionage source) {
+        requireNonNull(source, "source");
+        Set<? extends Doclet.Option> options = Collections.unmodifiableSet(new HashSet<>(source.getSupportedOptions()));
+        Map<String, List<String>> values = new HashMap<>();
+        Set<String> names = new HashSet<>();
+        for (Doclet.Option option : options) {
+            for (String name : option.getNames()) {
+                if (names.add(name)) {
+                    @Nullable List<String> paramValues = source.getOptionStrings(name);
+                    if (paramValues != null) {
+                        values.put(name, Collections.unmodifiableList(new ArrayList<>(paramValues)));
+                    }
+                }
+            }
+        }
+        return new FrozenOptionage(options, values, names, source);
+    }
+
+    @Override
+    public Set<? extends Doclet.Option> getSupportedOptions() {
+        return options;
+    }
+
+    @Nullable
+    @Override
+    public List<String> getOptionStrings(String name) {
+        @Nullable List<String> paramValues = values.get(name);
+        if (paramValues != null || names.contains(name)) {
+            return paramValues;
+        }
+        return source.getOptionStrings(name);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringHelper(this)
+                .add("options", options.size())
+                .add("present", values.keySet())
+                .toString();
+    }
+}
@@ -2,14 +2,18 @@ package io.github.mike10004.configdoclet;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Iterator;
 import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
-class GsonOutputFormatter implements OutputFormatter {
+class GsonOutputFormatter implements TextOutputFormatter {
 
     private final Gson gson;
 
@@ -27,6 +31,19 @@ class GsonOutputFormatter implements OutputFormatter {
         gson.toJson(items, out);
     }
 
+    @Override
+    public void format(Iterator<ConfigSetting> items, OutputStream out, Charset charset) throws IOException {
+        OutputFormatter.printText(out, charset, writer -> {
+            JsonWriter jsonWriter = gson.newJsonWriter(writer);
+            jsonWriter.beginArray();
+            while (items.hasNext()) {
+                gson.toJson(items.next(), ConfigSetting.class, jsonWriter);
+            }
+            jsonWriter.endArray();
+            jsonWriter.flush();
+        });
+    }
+
     public static Factory factory() {
         return Factory.forCode("json", optionage -> new GsonOutputFormatter());
     }
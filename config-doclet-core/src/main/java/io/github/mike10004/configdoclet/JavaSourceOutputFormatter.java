@@ -0,0 +1,372 @@
+package io.github.mike10004.configdoclet;
+
+import javax.annotation.Nullable;
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Formatter that produces the source of a Java class for accessing the settings. The class
+ * defines a constant for each setting key, and it maps each key to a dense index with
+ * a minimal perfect hash function, so that defaults can be looked up in an array without
+ * allocating. Typed getters look up a value in a {@code Properties} or {@code Map} and
+ * fall back to the default value.
+ * @see PerfectHash
+ */
+class JavaSourceOutputFormatter implements TextOutputFormatter {
+
+    static final String OUTPUT_FORMAT_JAVA = "java";
+    static final String DEFAULT_CLASS_NAME = "ConfigSettings";
+
+    private final String packageName;
+    private final String simpleClassName;
+
+    public JavaSourceOutputFormatter(String className) {
+        requireNonNull(className, "className");
+        if (!SourceVersion.isName(className)) {
+            throw new IllegalArgumentException("not a valid class name: " + className);
+        }
+        int lastDot = className.lastIndexOf('.');
+        packageName = lastDot < 0 ? "" : className.substring(0, lastDot);
+        simpleClassName = className.substring(lastDot + 1);
+    }
+
+    @Override
+    public String suggestFilenameExtension() {
+        return "java";
+    }
+
+    /**
+     * Suggests a filename that matches the class name, because the compiler requires
+     * a public class to be declared in a file of the same name.
+     */
+    @Override
+    public String suggestFilename(String defaultBaseName) {
+        return simpleClassName + "." + suggestFilenameExtension();
+    }
+
+    @SuppressWarnings("RedundantThrows")
+    @Override
+    public void format(List<ConfigSetting> items, PrintWriter out) throws IOException {
+        Map<String, ConfigSetting> unique = new LinkedHashMap<>();
+        items.forEach(item -> unique.putIfAbsent(item.key, item));
+        List<String> keys = new ArrayList<>(unique.keySet());
+        PerfectHash hash = PerfectHash.build(keys);
+        String[] keysBySlot = new String[keys.size()];
+        String[] defaultsBySlot = new String[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            int slot = hash.slotAt(i);
+            keysBySlot[slot] = keys.get(i);
+            defaultsBySlot[slot] = unique.get(keys.get(i)).defaultValue;
+        }
+        if (!packageName.isEmpty()) {
+            out.format("package %s;%n%n", packageName);
+        }
+        out.println("import java.util.Map;");
+        out.println("import java.util.NoSuchElementException;");
+        out.println("import java.util.Properties;");
+        out.println();
+        out.println("/**");
+        out.println(" * Accessor of configuration settings. This class was generated by the config doclet;");
+        out.println(" * do not edit it by hand.");
+        out.println(" */");
+        out.format("public final class %s {%n%n", simpleClassName);
+        out.format("    private %s() {}%n%n", simpleClassName);
+        Set<String> usedNames = new HashSet<>();
+        for (String key : keys) {
+            ConfigSetting item = unique.get(key);
+            String constantName = toConstantName(key, usedNames);
+            if (item.description != null && !item.description.trim().isEmpty()) {
+                out.format("    /**%n     * %s%n     */%n", escapeComment(item.description.trim()));
+            }
+            out.format("    public static final String %s = %s;%n%n", constantName, toLiteral(key));
+        }
+        out.println("    /** Number of settings. */");
+        out.format("    public static final int SIZE = %d;%n%n", keys.size());
+        writeTables(keysBySlot, defaultsBySlot, hash.getSeeds(), out);
+        out.print(ACCESSOR_METHODS);
+        out.println("}");
+    }
+
+    /**
+     * Writes the holder class of the key, default value, and seed tables. Static array
+     * initializers compile into the class initializer, whose code size is limited to
+     * 64 KB, so they would limit the number of keys to a few thousand. Instead, the tables
+     * are encoded into chunks of string constants that are decoded when the holder class
+     * is initialized. Each entry is encoded as its length, a colon, and its characters,
+     * or as a hyphen if it is null.
+     */
+    private static void writeTables(String[] keysBySlot, String[] defaultsBySlot, int[] seeds, PrintWriter out) {
+        StringBuilder data = new StringBuilder();
+        for (int seed : seeds) {
+            appendEntry(Integer.toString(seed), data);
+        }
+        for (int slot = 0; slot < keysBySlot.length; slot++) {
+            appendEntry(keysBySlot[slot], data);
+            appendEntry(defaultsBySlot[slot], data);
+        }
+        out.println("    private static final class Tables {");
+        out.println();
+        out.println("        private static final String[] DATA = {");
+        for (int start = 0; start < data.length(); start += MAX_CHUNK_LENGTH) {
+            int end = Math.min(data.length(), start + MAX_CHUNK_LENGTH);
+            out.format("            %s,%n", toLiteral(data.substring(start, end)));
+        }
+        out.println("        };");
+        out.println();
+        out.format("        static final int[] SEEDS = new int[%d];%n", seeds.length);
+        out.println("        static final String[] KEYS = new String[SIZE];");
+        out.println("        static final String[] DEFAULTS = new String[SIZE];");
+        out.print(TABLES_DECODER);
+        out.println("    }");
+        out.println();
+    }
+
+    private static void appendEntry(@Nullable String value, StringBuilder data) {
+        if (value == null) {
+            data.append('-');
+        } else {
+            data.append(value.length()).append(':').append(value);
+        }
+    }
+
+    /**
+     * Maximum number of characters in a string constant of the tables. A character takes
+     * at most three bytes in the class file, and a string constant at most 65535 bytes.
+     */
+    private static final int MAX_CHUNK_LENGTH = 8192;
+
+    private static final String TABLES_DECODER = String.join(System.lineSeparator(),
+            "        private static String data;",
+            "        private static int position;",
+            "",
+            "        static {",
+            "            StringBuilder sb = new StringBuilder();",
+            "            for (String chunk : DATA) {",
+            "                sb.append(chunk);",
+            "            }",
+            "            data = sb.toString();",
+            "            for (int i = 0; i < SEEDS.length; i++) {",
+            "                SEEDS[i] = Integer.parseInt(next());",
+            "            }",
+            "            for (int i = 0; i < SIZE; i++) {",
+            "                KEYS[i] = next();",
+            "                DEFAULTS[i] = next();",
+            "            }",
+            "            data = null;",
+            "        }",
+            "",
+            "        private static String next() {",
+            "            if (data.charAt(position) == '-') {",
+            "                position++;",
+            "                return null;",
+            "            }",
+            "            int colon = data.indexOf(':', position);",
+            "            int length = Integer.parseInt(data.substring(position, colon));",
+            "            position = colon + 1 + length;",
+            "            return data.substring(colon + 1, position);",
+            "        }",
+            "");
+
+    private static final String ACCESSOR_METHODS = String.join(System.lineSeparator(),
+            "    /**",
+            "     * Gets the dense index of a setting key.",
+            "     * @param key the key",
+            "     * @return the index, from zero to {@link #SIZE}, or -1 if the key is not a setting key",
+            "     */",
+            "    public static int indexOf(String key) {",
+            "        if (SIZE == 0) {",
+            "            return -1;",
+            "        }",
+            "        int h = key.hashCode();",
+            "        int seed = Tables.SEEDS[((h ^ (h >>> 16)) & 0x7fffffff) % Tables.SEEDS.length];",
+            "        int slot = seededHash(key, seed) % SIZE;",
+            "        return Tables.KEYS[slot].equals(key) ? slot : -1;",
+            "    }",
+            "",
+            "    private static int seededHash(String key, int seed) {",
+            "        int h = 0x811c9dc5 ^ (seed * 0x9e3779b9);",
+            "        for (int i = 0; i < key.length(); i++) {",
+            "            h = (h ^ key.charAt(i)) * 0x01000193;",
+            "        }",
+            "        h ^= h >>> 16;",
+            "        h *= 0x85ebca6b;",
+            "        h ^= h >>> 13;",
+            "        h *= 0xc2b2ae35;",
+            "        h ^= h >>> 16;",
+            "        return h & 0x7fffffff;",
+            "    }",
+            "",
+            "    /** Gets the key at an index. */",
+            "    public static String keyAt(int index) {",
+            "        return Tables.KEYS[index];",
+            "    }",
+            "",
+            "    /** Gets the default value of the setting at an index, or null if it has none. */",
+            "    public static String getDefault(int index) {",
+            "        return Tables.DEFAULTS[index];",
+            "    }",
+            "",
+            "    /** Gets the default value of a setting, or null if it has none or the key is not a setting key. */",
+            "    public static String getDefault(String key) {",
+            "        int index = indexOf(key);",
+            "        return index < 0 ? null : Tables.DEFAULTS[index];",
+            "    }",
+            "",
+            "    /** Gets the value of a setting from properties, or its default value if the properties do not define it. */",
+            "    public static String getString(Properties properties, String key) {",
+            "        String value = properties.getProperty(key);",
+            "        return value != null ? value : getDefault(key);",
+            "    }",
+            "",
+            "    /** Gets the value of a setting from a map, or its default value if the map does not define it. */",
+            "    public static String getString(Map<String, String> map, String key) {",
+            "        String value = map.get(key);",
+            "        return value != null ? value : getDefault(key);",
+            "    }",
+            "",
+            "    public static int getInt(Properties properties, String key) {",
+            "        return Integer.parseInt(require(getString(properties, key), key));",
+            "    }",
+            "",
+            "    public static int getInt(Map<String, String> map, String key) {",
+            "        return Integer.parseInt(require(getString(map, key), key));",
+            "    }",
+            "",
+            "    public static long getLong(Properties properties, String key) {",
+            "        return Long.parseLong(require(getString(properties, key), key));",
+            "    }",
+            "",
+            "    public static long getLong(Map<String, String> map, String key) {",
+            "        return Long.parseLong(require(getString(map, key), key));",
+            "    }",
+            "",
+            "    public static double getDouble(Properties properties, String key) {",
+            "        return Double.parseDouble(require(getString(properties, key), key));",
+            "    }",
+            "",
+            "    public static double getDouble(Map<String, String> map, String key) {",
+            "        return Double.parseDouble(require(getString(map, key), key));",
+            "    }",
+            "",
+            "    public static boolean getBoolean(Properties properties, String key) {",
+            "        return Boolean.parseBoolean(require(getString(properties, key), key));",
+            "    }",
+            "",
+            "    public static boolean getBoolean(Map<String, String> map, String key) {",
+            "        return Boolean.parseBoolean(require(getString(map, key), key));",
+            "    }",
+            "",
+            "    private static String require(String value, String key) {",
+            "        if (value == null) {",
+            "            throw new NoSuchElementException(\"no value or default for \" + key);",
+            "        }",
+            "        return value.trim();",
+            "    }",
+            "");
+
+    /**
+     * Converts a setting key to a constant name. For example, {@code app.numWidgets}
+     * becomes {@code APP_NUM_WIDGETS}. A suffix is appended if the name is already used.
+     */
+    static String toConstantName(String key, Set<String> usedNames) {
+        StringBuilder sb = new StringBuilder(key.length() + 8);
+        char prev = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isLetterOrDigit(c) && c < 128) {
+                if (Character.isUpperCase(c) && Character.isLowerCase(prev)) {
+                    sb.append('_');
+                }
+                sb.append(Character.toUpperCase(c));
+            } else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != '_') {
+                sb.append('_');
+            }
+            prev = c;
+        }
+        while (sb.length() > 0 && sb.charAt(sb.length() - 1) == '_') {
+            sb.setLength(sb.length() - 1);
+        }
+        if (sb.length() == 0) {
+            sb.append("KEY");
+        } else if (!Character.isJavaIdentifierStart(sb.charAt(0))) {
+            sb.insert(0, "KEY_");
+        }
+        String base = sb.toString().toUpperCase(Locale.ROOT);
+        String name = base;
+        for (int suffix = 2; !usedNames.add(name) || isReservedName(name); suffix++) {
+            name = base + "_" + suffix;
+        }
+        return name;
+    }
+
+    private static boolean isReservedName(String name) {
+        return "SIZE".equals(name);
+    }
+
+    static String toLiteral(@Nullable String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+
+    /**
+     * Escapes text for a doc comment. The comment terminator must not appear, and
+     * backslashes are escaped because the compiler translates unicode escapes in comments.
+     */
+    static String escapeComment(String text) {
+        return text.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("*/", "*&#47;")
+                .replace("\\", "&#92;")
+                .replace("@", "&#64;")
+                .replaceAll("\\R", System.lineSeparator() + "     * ");
+    }
+
+    public static Factory factory() {
+        return Factory.forCode(OUTPUT_FORMAT_JAVA, optionage -> {
+            String className = optionage.getOptionString(ConfigDoclet.OPT_JAVA_CLASS_NAME, DEFAULT_CLASS_NAME);
+            return new JavaSourceOutputFormatter(className);
+        });
+    }
+}
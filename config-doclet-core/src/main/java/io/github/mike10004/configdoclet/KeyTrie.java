@@ -0,0 +1,167 @@
+package io.github.mike10004.configdoclet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Trie of setting keys, split into segments at dots. For example, the key
+ * {@code app.server.port} is stored at the node reached by the path
+ * {@code app}, {@code server}, {@code port}. Children are kept in the order
+ * in which they are first encountered, so a trie built from a sorted list
+ * preserves that order within each parent. Building takes time linear in the
+ * total number of key segments.
+ */
+final class KeyTrie {
+
+    static final char SEGMENT_SEPARATOR = '.';
+
+    private final Node root;
+
+    private KeyTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds a trie of the given settings.
+     * @param items the settings, in output order
+     * @return a new trie
+     */
+    public static KeyTrie build(List<ConfigSetting> items) {
+        Node root = new Node("", "");
+        for (ConfigSetting item : items) {
+            Node node = root;
+            node.subtreeSize++;
+            String key = item.key;
+            int start = 0;
+            while (start <= key.length()) {
+                int end = key.indexOf(SEGMENT_SEPARATOR, start);
+                if (end < 0) {
+                    end = key.length();
+                }
+                node = node.child(key, start, end);
+                node.subtreeSize++;
+                start = end + 1;
+            }
+            node.settings.add(item);
+        }
+        return new KeyTrie(root);
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Walks the trie depth-first, visiting each node before its children.
+     * @param visitor the visitor
+     */
+    public void walk(Visitor visitor) {
+        for (Node child : root.getChildren()) {
+            walk(child, 1, visitor);
+        }
+    }
+
+    private static void walk(Node node, int depth, Visitor visitor) {
+        visitor.enter(node, depth);
+        for (Node child : node.getChildren()) {
+            walk(child, depth + 1, visitor);
+        }
+        visitor.exit(node, depth);
+    }
+
+    interface Visitor {
+
+        /**
+         * Visits a node before its children.
+         * @param node the node
+         * @param depth the depth, where the root's children have depth 1
+         */
+        void enter(Node node, int depth);
+
+        /**
+         * Visits a node after its children.
+         * @param node the node
+         * @param depth the depth
+         */
+        default void exit(Node node, int depth) {
+        }
+    }
+
+    static final class Node {
+
+        private final String segment;
+        private final String prefix;
+        private final List<ConfigSetting> settings;
+        private Map<String, Node> children;
+        private int subtreeSize;
+
+        private Node(String segment, String prefix) {
+            this.segment = requireNonNull(segment);
+            this.prefix = requireNonNull(prefix);
+            settings = new ArrayList<>(1);
+            children = Collections.emptyMap();
+        }
+
+        private Node child(String key, int start, int end) {
+            String childSegment = key.substring(start, end);
+            Node child = children.get(childSegment);
+            if (child == null) {
+                if (children.isEmpty()) {
+                    children = new LinkedHashMap<>(4);
+                }
+                child = new Node(childSegment, key.substring(0, end));
+                children.put(childSegment, child);
+            }
+            return child;
+        }
+
+        /**
+         * Gets the last segment of the prefix.
+         */
+        public String getSegment() {
+            return segment;
+        }
+
+        /**
+         * Gets the key prefix that this node represents, such as {@code app.server}.
+         */
+        public String getPrefix() {
+            return prefix;
+        }
+
+        /**
+         * Gets the settings whose key is exactly the prefix. There is more than one
+         * only if keys are duplicated.
+         */
+        public List<ConfigSetting> getSettings() {
+            return Collections.unmodifiableList(settings);
+        }
+
+        public Collection<Node> getChildren() {
+            return Collections.unmodifiableCollection(children.values());
+        }
+
+        /**
+         * Gets the number of settings at this node and beneath it.
+         */
+        public int getSubtreeSize() {
+            return subtreeSize;
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringHelper(this)
+                    .add("prefix", prefix)
+                    .add("settings.size", settings.size())
+                    .add("children.size", children.size())
+                    .add("subtreeSize", subtreeSize)
+                    .toString();
+        }
+    }
+}
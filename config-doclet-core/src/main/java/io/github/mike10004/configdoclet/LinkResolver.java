@@ -3,8 +3,57 @@ package io.github.mike10004.configdoclet;
 import javax.annotation.Nullable;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.VariableElement;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
 
 interface LinkResolver {
+
     @Nullable
     VariableElement resolve(Element context, String signature);
+
+    /**
+     * Resolves the constant value of the field that a signature refers to.
+     * @param context the element whose comment contains the link
+     * @param signature the qualified signature
+     * @return the constant value, or null if the signature does not resolve to a constant
+     */
+    @Nullable
+    default Object resolveConstantValue(Element context, String signature) {
+        @Nullable VariableElement element = resolve(context, signature);
+        return element == null ? null : element.getConstantValue();
+    }
+
+    /**
+     * Creates a composite instance that queries multiple other instances.
+     * @param priority the first instance to query
+     * @param lessers the other instances to query, in order of priority
+     * @return a new instance representing a composite
+     */
+    static LinkResolver compose(LinkResolver priority, LinkResolver...lessers) {
+        requireNonNull(priority, "priority");
+        List<LinkResolver> resolvers = Stream.concat(Stream.of(priority), Stream.of(lessers)).collect(Collectors.toList());
+        return new LinkResolver() {
+            @Nullable
+            @Override
+            public VariableElement resolve(Element context, String signature) {
+                return resolvers.stream()
+                        .map(resolver -> resolver.resolve(context, signature))
+                        .filter(Objects::nonNull)
+                        .findFirst().orElse(null);
+            }
+
+            @Nullable
+            @Override
+            public Object resolveConstantValue(Element context, String signature) {
+                return resolvers.stream()
+                        .map(resolver -> resolver.resolveConstantValue(context, signature))
+                        .filter(Objects::nonNull)
+                        .findFirst().orElse(null);
+            }
+        };
+    }
 }
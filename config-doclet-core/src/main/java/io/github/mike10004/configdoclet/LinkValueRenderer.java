@@ -2,28 +2,30 @@ package io.github.mike10004.configdoclet;
 
 import com.sun.source.doctree.DocTree;
 import com.sun.source.doctree.LinkTree;
+import com.sun.source.doctree.ReferenceTree;
+import com.sun.source.doctree.ValueTree;
 
 import javax.annotation.Nullable;
-import javax.lang.model.element.Element;
-import javax.lang.model.element.ElementKind;
-import javax.lang.model.element.Name;
 import javax.lang.model.element.VariableElement;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Renderer of the constant values that {@code {@link}} and {@code {@value}} tags refer to.
+ * Only the first tree of the content is rendered, and only if it is one of those tags.
+ */
 class LinkValueRenderer implements CommentRenderer {
 
-    private final VariableElement element;
-    private final LinkResolver linkResolver;
+    private final ConstantValueCache constantValues;
     private final RenderMode renderMode;
     private final CommentRenderer labelRenderer;
 
-    public LinkValueRenderer(VariableElement element, LinkResolver linkResolver, RenderMode renderMode) {
-        this.element = element;
-        this.renderMode = renderMode;
-        this.linkResolver = linkResolver;
+    public LinkValueRenderer(ConstantValueCache constantValues, RenderMode renderMode) {
+        this.renderMode = requireNonNull(renderMode);
+        this.constantValues = requireNonNull(constantValues);
         labelRenderer = new BasicTextCommentRenderer();
     }
 
@@ -33,64 +35,55 @@ class LinkValueRenderer implements CommentRenderer {
     }
 
     @Nullable
-    private VariableElement findVariableElementForSignature(String signature) {
-        signature = qualifySignature(signature, element);
-        return linkResolver.resolve(element, signature);
-    }
-
-    @Nullable
-    private String resolveValue(LinkTree link) {
-        String signature = link.getReference().getSignature();
-        if (signature != null) {
-            @Nullable VariableElement element = findVariableElementForSignature(signature);
-            if (element != null) {
-                Object constValue = element.getConstantValue();
-                String defaultValue = null;
-                if (constValue != null) {
-                    defaultValue = constValue.toString();
-                }
-                return defaultValue;
-            }
+    private String resolveValue(VariableElement element, @Nullable ReferenceTree reference) {
+        if (reference == null) {
+            // {@value} without a reference refers to the element itself
+            @Nullable Object constValue = element.getConstantValue();
+            return constValue == null ? null : constValue.toString();
+        }
+        if (reference.getSignature() != null) {
+            return constantValues.resolve(element, reference);
         }
         return null;
     }
 
     @Override
-    public String render(Collection<? extends DocTree> content) {
-        List<? extends DocTree> docTrees = asList(content);
-        if (!docTrees.isEmpty() && docTrees.get(0) instanceof LinkTree) {
-            LinkTree link = (LinkTree) docTrees.get(0);
-            @Nullable String value = resolveValue(link);
+    public boolean render(VariableElement element, Collection<? extends DocTree> content, Appendable out) throws IOException {
+        @Nullable DocTree first = content.isEmpty() ? null : content.iterator().next();
+        if (first instanceof LinkTree) {
+            LinkTree link = (LinkTree) first;
+            @Nullable String value = resolveValue(element, link.getReference());
             if (renderMode == RenderMode.VALUE_ONLY) {
-                return value;
+                if (value == null) {
+                    return false;
+                }
+                out.append(value);
             } else {
                 List<? extends DocTree> labelTree = link.getLabel();
-                String label = labelTree.isEmpty()
-                    ? link.getReference().getSignature()
-                    : labelRenderer.render(labelTree);
-                if (value == null) {
-                    return label;
+                if (labelTree.isEmpty()) {
+                    out.append(link.getReference().getSignature());
                 } else {
-                    return String.format("%s (%s)", label, value);
+                    labelRenderer.render(element, labelTree, out);
+                }
+                if (value != null) {
+                    out.append(" (").append(value).append(')');
                 }
             }
+            return true;
         }
-        return null;
-    }
-
-    private <T> List<T> asList(Collection<T> items) {
-        return items instanceof List
-                ? (List<T>) items
-                : new ArrayList<>(items);
-    }
-
-    static String qualifySignature(String signature, Element element) {
-        String fieldPrefix = CollectionLinkResolver.getPrefix(ElementKind.FIELD);
-        if (signature.startsWith(fieldPrefix)) {
-            String parentSignature = CollectionLinkResolver.constructSignature(element.getEnclosingElement());
-            return parentSignature + signature;
+        if (first instanceof ValueTree) {
+            @Nullable ReferenceTree reference = ((ValueTree) first).getReference();
+            @Nullable String value = resolveValue(element, reference);
+            if (value != null) {
+                out.append(value);
+            } else if (renderMode == RenderMode.VALUE_ONLY) {
+                return false;
+            } else if (reference != null) {
+                out.append(reference.getSignature());
+            }
+            return true;
         }
-        return signature;
+        return false;
     }
 
 }
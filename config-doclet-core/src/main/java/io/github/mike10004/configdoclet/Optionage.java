@@ -59,6 +59,16 @@ interface Optionage {
         return getOptionStrings(name) != null;
     }
 
+    /**
+     * Creates a snapshot of this instance. The snapshot resolves the values of every name and alias
+     * of every supported option once, so that queries are map lookups. Queries for other names are
+     * passed through to this instance.
+     * @return a new instance that does not reflect later changes to this instance
+     */
+    default Optionage snapshot() {
+        return FrozenOptionage.of(this);
+    }
+
     /**
      * Creates a composite instance that implements this interface by querying multiple other instances.
      * @param priority the first instance to query
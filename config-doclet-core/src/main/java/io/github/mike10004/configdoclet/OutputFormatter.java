@@ -1,7 +1,12 @@
 package io.github.mike10004.configdoclet;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
 
@@ -9,7 +14,92 @@ import static java.util.Objects.requireNonNull;
 
 interface OutputFormatter {
 
-    void format(List<ConfigSetting> items, PrintWriter out) throws IOException;
+    /**
+     * Writes items to a byte stream. The stream is flushed but not closed.
+     * @param items the items
+     * @param out the output stream
+     * @param charset the charset to use for text output
+     * @throws IOException on I/O error
+     * @see TextOutputFormatter
+     */
+    void format(List<ConfigSetting> items, OutputStream out, Charset charset) throws IOException;
+
+    /**
+     * Tells whether this formatter writes from a trie of the items' keys. Callers that
+     * have the items in a list use {@link #formatSorted(List, OutputStream, Charset)},
+     * which builds the trie once, only for formatters that return true.
+     * @return true if this formatter uses a key trie
+     */
+    default boolean usesKeyTrie() {
+        return false;
+    }
+
+    /**
+     * Writes items to a byte stream, with the items also arranged in a trie by key.
+     * This is called only if {@link #usesKeyTrie()} returns true. The default
+     * implementation ignores the trie.
+     * @param items the items, in output order
+     * @param trie the trie of the items
+     * @param out the output stream
+     * @param charset the charset to use for text output
+     * @throws IOException on I/O error
+     */
+    default void format(List<ConfigSetting> items, KeyTrie trie, OutputStream out, Charset charset) throws IOException {
+        format(items, out, charset);
+    }
+
+    /**
+     * Writes items to a byte stream, building a trie of them first if this formatter
+     * uses one. The stream is flushed but not closed.
+     * @param items the items, in output order
+     * @param out the output stream
+     * @param charset the charset to use for text output
+     * @throws IOException on I/O error
+     */
+    default void formatSorted(List<ConfigSetting> items, OutputStream out, Charset charset) throws IOException {
+        if (usesKeyTrie()) {
+            format(items, KeyTrie.build(items), out, charset);
+        } else {
+            format(items, out, charset);
+        }
+    }
+
+    /**
+     * Writes items supplied by an iterator to a byte stream. The default implementation
+     * collects the items into a list and passes it to
+     * {@link #formatSorted(List, OutputStream, Charset)}; formatters that can write
+     * each item as it is supplied override this method, so that the items need not all
+     * be in memory at once. The stream is flushed but not closed.
+     * @param items the items, in output order
+     * @param out the output stream
+     * @param charset the charset to use for text output
+     * @throws IOException on I/O error
+     */
+    default void format(Iterator<ConfigSetting> items, OutputStream out, Charset charset) throws IOException {
+        List<ConfigSetting> list = new ArrayList<>();
+        items.forEachRemaining(list::add);
+        formatSorted(list, out, charset);
+    }
+
+    /**
+     * Encodes text printed by an action to a byte stream. The stream is flushed but not closed.
+     * @param out the output stream
+     * @param charset the charset
+     * @param action the action
+     * @throws IOException if the action throws it or if the print writer reports an error
+     */
+    static void printText(OutputStream out, Charset charset, TextAction action) throws IOException {
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, charset));
+        action.print(writer);
+        writer.flush();
+        if (writer.checkError()) {
+            throw new IOException("error writing formatted output");
+        }
+    }
+
+    interface TextAction {
+        void print(PrintWriter out) throws IOException;
+    }
 
     /**
      * Suggest a filename extension, not including a leading dot.
@@ -17,6 +107,15 @@ interface OutputFormatter {
      */
     String suggestFilenameExtension();
 
+    /**
+     * Suggests a filename for the output of this formatter, used when no filename is specified.
+     * @param defaultBaseName the base name to use if this formatter does not require a particular name
+     * @return a filename
+     */
+    default String suggestFilename(String defaultBaseName) {
+        return defaultBaseName + "." + suggestFilenameExtension();
+    }
+
     interface Factory {
 
         boolean isSpecifiedByFormatCode(String formatOptionParameterValue);
@@ -0,0 +1,161 @@
+package io.github.mike10004.configdoclet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Minimal perfect hash function over a set of strings, built with the hash-and-displace
+ * method. Each key is assigned to a bucket by its {@link String#hashCode() hash code}, and
+ * each bucket gets a seed such that the seeded hash of every key in the bucket lands on a
+ * distinct free slot. Buckets are processed from largest to smallest, because large
+ * buckets are hardest to place. The slots are the dense range from zero to the number
+ * of keys.
+ *
+ * <p>The functions {@link #bucketOf(int, int)} and {@link #seededHash(String, int)} are
+ * reproduced in generated code, so they must not change.
+ */
+final class PerfectHash {
+
+    /**
+     * Average number of keys per bucket.
+     */
+    private static final int KEYS_PER_BUCKET = 2;
+
+    private static final int MAX_SEED = 1 << 24;
+
+    private final int[] seeds;
+    private final int[] slots;
+
+    private PerfectHash(int[] seeds, int[] slots) {
+        this.seeds = seeds;
+        this.slots = slots;
+    }
+
+    /**
+     * Builds a perfect hash function over the given keys.
+     * @param keys the keys; must be distinct
+     * @return the function
+     * @throws IllegalArgumentException if the keys are not distinct
+     */
+    public static PerfectHash build(List<String> keys) {
+        int n = keys.size();
+        if (new HashSet<>(keys).size() != n) {
+            throw new IllegalArgumentException("keys must be distinct");
+        }
+        int numBuckets = Math.max(1, (n + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET);
+        List<List<Integer>> buckets = new ArrayList<>(numBuckets);
+        for (int b = 0; b < numBuckets; b++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            buckets.get(bucketOf(keys.get(i).hashCode(), numBuckets)).add(i);
+        }
+        Integer[] order = new Integer[numBuckets];
+        Arrays.setAll(order, b -> b);
+        Arrays.sort(order, Comparator.comparing((Integer b) -> buckets.get(b).size()).reversed());
+        int[] seeds = new int[numBuckets];
+        int[] slots = new int[n];
+        boolean[] occupied = new boolean[n];
+        int[] candidateSlots = new int[n];
+        for (int b : order) {
+            List<Integer> bucket = buckets.get(b);
+            if (bucket.isEmpty()) {
+                break;
+            }
+            int seed = 1;
+            while (!tryPlace(keys, bucket, seed, occupied, candidateSlots)) {
+                seed++;
+                if (seed > MAX_SEED) {
+                    throw new IllegalStateException("failed to place bucket of size " + bucket.size());
+                }
+            }
+            seeds[b] = seed;
+            for (int j = 0; j < bucket.size(); j++) {
+                occupied[candidateSlots[j]] = true;
+                slots[bucket.get(j)] = candidateSlots[j];
+            }
+        }
+        return new PerfectHash(seeds, slots);
+    }
+
+    private static boolean tryPlace(List<String> keys, List<Integer> bucket, int seed, boolean[] occupied, int[] candidateSlots) {
+        int n = occupied.length;
+        for (int j = 0; j < bucket.size(); j++) {
+            int slot = seededHash(keys.get(bucket.get(j)), seed) % n;
+            if (occupied[slot]) {
+                return false;
+            }
+            for (int k = 0; k < j; k++) {
+                if (candidateSlots[k] == slot) {
+                    return false;
+                }
+            }
+            candidateSlots[j] = slot;
+        }
+        return true;
+    }
+
+    static int bucketOf(int hashCode, int numBuckets) {
+        return ((hashCode ^ (hashCode >>> 16)) & 0x7fffffff) % numBuckets;
+    }
+
+    /**
+     * Hashes the characters of a string with a seed. Unlike {@link String#hashCode()},
+     * which is fixed, this function separates keys whose hash codes collide.
+     */
+    static int seededHash(String key, int seed) {
+        int h = 0x811c9dc5 ^ (seed * 0x9e3779b9);
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & 0x7fffffff;
+    }
+
+    /**
+     * Gets the slot of a key. For keys not in the set, the result is an arbitrary slot.
+     * @param key the key
+     * @return the slot
+     */
+    public int slotOf(String key) {
+        if (slots.length == 0) {
+            return -1;
+        }
+        int seed = seeds[bucketOf(key.hashCode(), seeds.length)];
+        return seededHash(key, seed) % slots.length;
+    }
+
+    /**
+     * Gets the slot assigned to the key at the given index of the list the function was built from.
+     */
+    public int slotAt(int keyIndex) {
+        return slots[keyIndex];
+    }
+
+    /**
+     * Gets the seeds, one per bucket.
+     * @return a copy of the seed array
+     */
+    public int[] getSeeds() {
+        return seeds.clone();
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringHelper(this)
+                .add("size", slots.length)
+                .add("numBuckets", seeds.length)
+                .toString();
+    }
+}
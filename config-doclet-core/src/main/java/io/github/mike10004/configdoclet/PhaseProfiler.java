@@ -0,0 +1,263 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.VariableElement;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Observer that measures the wall time, thread CPU time, and bytes allocated in each
+ * phase of a run. CPU time and allocation are those of the thread that runs the doclet,
+ * so they exclude the work javadoc does on that thread before and after the doclet runs.
+ * Measurements that the runtime does not support are reported as -1. The peak heap usage
+ * is the sum over the heap memory pools of each pool's peak usage since the profiler was
+ * created. The pools' peaks are not reset, because that would change them for every
+ * other observer in the JVM; instead each pool's peak and usage are recorded when the
+ * profiler is created. If a pool's peak has since risen, the new peak was reached while
+ * profiling; otherwise the larger of its usage then and now is the best known bound.
+ */
+final class PhaseProfiler implements RunObserver {
+
+    static final long UNSUPPORTED = -1;
+
+    private final ThreadMXBean threadBean;
+    @Nullable
+    private final com.sun.management.ThreadMXBean allocationBean;
+    private final boolean cpuTimeSupported;
+    private final List<MemoryPoolMXBean> heapPools;
+    private final long[] startPeakBytes;
+    private final long[] startUsedBytes;
+    private final List<Measurement> measurements;
+
+    public PhaseProfiler() {
+        this(ManagementFactory.getThreadMXBean(), ManagementFactory.getMemoryPoolMXBeans());
+    }
+
+    PhaseProfiler(ThreadMXBean threadBean, List<MemoryPoolMXBean> memoryPools) {
+        this.threadBean = threadBean;
+        cpuTimeSupported = threadBean.isCurrentThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled();
+        allocationBean = getAllocationBean(threadBean);
+        heapPools = memoryPools.stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                .collect(Collectors.toList());
+        startPeakBytes = new long[heapPools.size()];
+        startUsedBytes = new long[heapPools.size()];
+        for (int i = 0; i < heapPools.size(); i++) {
+            startPeakBytes[i] = heapPools.get(i).getPeakUsage().getUsed();
+            startUsedBytes[i] = heapPools.get(i).getUsage().getUsed();
+        }
+        measurements = new ArrayList<>();
+    }
+
+    /**
+     * Gets the thread bean as a bean that measures allocation, if allocation measurement
+     * is supported and enabled.
+     */
+    @Nullable
+    static com.sun.management.ThreadMXBean getAllocationBean(ThreadMXBean threadBean) {
+        try {
+            if (threadBean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+                if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                    return bean;
+                }
+            }
+        } catch (LinkageError ignore) {
+            // the jdk.management module is not present
+        }
+        return null;
+    }
+
+    private long currentCpuTime() {
+        return cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : UNSUPPORTED;
+    }
+
+    private long currentAllocatedBytes() {
+        return allocationBean == null ? UNSUPPORTED : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private long peakHeapBytes() {
+        long sum = 0;
+        for (int i = 0; i < heapPools.size(); i++) {
+            MemoryPoolMXBean pool = heapPools.get(i);
+            long peak = pool.getPeakUsage().getUsed();
+            if (peak > startPeakBytes[i]) {
+                sum += peak;
+            } else {
+                sum += Math.max(startUsedBytes[i], pool.getUsage().getUsed());
+            }
+        }
+        return sum;
+    }
+
+    private static long difference(long start, long end) {
+        return start == UNSUPPORTED || end == UNSUPPORTED ? UNSUPPORTED : end - start;
+    }
+
+    @Override
+    public PhaseSpan beginPhase(Phase phase) {
+        String threadName = Thread.currentThread().getName();
+        long startCpu = currentCpuTime();
+        long startAllocated = currentAllocatedBytes();
+        long startWall = System.nanoTime();
+        return elementCount -> {
+            long wallNanos = System.nanoTime() - startWall;
+            long cpuNanos = difference(startCpu, currentCpuTime());
+            long allocatedBytes = difference(startAllocated, currentAllocatedBytes());
+            synchronized (measurements) {
+                measurements.add(new Measurement(phase, threadName, elementCount, wallNanos, cpuNanos, allocatedBytes, peakHeapBytes()));
+            }
+        };
+    }
+
+    @Override
+    public SettingSpan beginSetting(VariableElement element) {
+        return NOOP.beginSetting(element);
+    }
+
+    /**
+     * Gets the measurements of the phases that have ended, in the order they ended.
+     */
+    public List<Measurement> getMeasurements() {
+        synchronized (measurements) {
+            return Collections.unmodifiableList(new ArrayList<>(measurements));
+        }
+    }
+
+    /**
+     * Measurement of a phase.
+     */
+    static final class Measurement {
+
+        public final Phase phase;
+        public final String thread;
+        public final int elementCount;
+        public final long wallNanos;
+        public final long cpuNanos;
+        public final long allocatedBytes;
+        public final long peakHeapBytes;
+
+        Measurement(Phase phase, String thread, int elementCount, long wallNanos, long cpuNanos, long allocatedBytes, long peakHeapBytes) {
+            this.phase = phase;
+            this.thread = thread;
+            this.elementCount = elementCount;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringHelper(this)
+                    .add("phase", phase)
+                    .add("elementCount", elementCount)
+                    .add("wallNanos", wallNanos)
+                    .add("cpuNanos", cpuNanos)
+                    .add("allocatedBytes", allocatedBytes)
+                    .toString();
+        }
+    }
+
+    private static long sum(long a, long b) {
+        return a == UNSUPPORTED || b == UNSUPPORTED ? UNSUPPORTED : a + b;
+    }
+
+    /**
+     * Gets the number of bytes allocated in the extraction phase per setting extracted.
+     * @return bytes per setting, or -1 if allocation is not measured or no settings were extracted
+     */
+    public long getAllocatedBytesPerSetting() {
+        for (Measurement m : getMeasurements()) {
+            if (m.phase == Phase.extraction) {
+                return m.allocatedBytes == UNSUPPORTED || m.elementCount == 0 ? UNSUPPORTED : m.allocatedBytes / m.elementCount;
+            }
+        }
+        return UNSUPPORTED;
+    }
+
+    /**
+     * Formats a summary of the measurements, with one line per phase.
+     */
+    public String formatSummary() {
+        StringBuilder sb = new StringBuilder("doclet profile (wall ms, cpu ms, allocated KiB):");
+        for (Measurement m : getMeasurements()) {
+            sb.append(System.lineSeparator()).append(String.format("  %-10s %6d elements %8.1f %8.1f %10s",
+                    m.phase, m.elementCount, m.wallNanos / 1e6, m.cpuNanos / 1e6,
+                    m.allocatedBytes == UNSUPPORTED ? "n/a" : String.valueOf(m.allocatedBytes / 1024)));
+        }
+        long perSetting = getAllocatedBytesPerSetting();
+        if (perSetting != UNSUPPORTED) {
+            sb.append(System.lineSeparator()).append(String.format("  %d bytes allocated per setting extracted", perSetting));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the measurements to a file in JSON format. The file has the measurements of
+     * each phase, their totals, and the peak heap usage. Times are in nanoseconds.
+     * @param file the metrics file
+     * @throws IOException on I/O error
+     */
+    public void writeMetrics(Path file) throws IOException {
+        List<Measurement> measurements = getMeasurements();
+        Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        long wallNanos = 0, cpuNanos = 0, allocatedBytes = 0, peakHeapBytes = 0;
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             JsonWriter out = gson.newJsonWriter(writer)) {
+            out.beginObject();
+            out.name("phases").beginArray();
+            for (Measurement m : measurements) {
+                out.beginObject()
+                        .name("phase").value(m.phase.name())
+                        .name("thread").value(m.thread)
+                        .name("elementCount").value(m.elementCount)
+                        .name("wallNanos").value(m.wallNanos)
+                        .name("cpuNanos").value(m.cpuNanos)
+                        .name("allocatedBytes").value(m.allocatedBytes)
+                        .name("peakHeapBytes").value(m.peakHeapBytes)
+                        .endObject();
+                wallNanos += m.wallNanos;
+                cpuNanos = sum(cpuNanos, m.cpuNanos);
+                allocatedBytes = sum(allocatedBytes, m.allocatedBytes);
+                peakHeapBytes = Math.max(peakHeapBytes, m.peakHeapBytes);
+            }
+            out.endArray();
+            out.name("totals").beginObject()
+                    .name("wallNanos").value(wallNanos)
+                    .name("cpuNanos").value(cpuNanos)
+                    .name("allocatedBytes").value(allocatedBytes)
+                    .name("allocatedBytesPerSetting").value(getAllocatedBytesPerSetting())
+                    .name("peakHeapBytes").value(peakHeapBytes)
+                    .endObject();
+            out.endObject();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringHelper(this)
+                .add("cpuTimeSupported", cpuTimeSupported)
+                .add("allocationSupported", allocationBean != null)
+                .add("measurements", getMeasurements().size())
+                .toString();
+    }
+}
@@ -4,22 +4,22 @@ import jdk.javadoc.doclet.Reporter;
 
 import javax.annotation.Nullable;
 import javax.tools.Diagnostic;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
-import java.io.StringWriter;
-import java.io.Writer;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
+import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static java.util.Objects.requireNonNull;
 
-class PropertiesOutputFormatter implements OutputFormatter {
+class PropertiesOutputFormatter implements TextOutputFormatter {
 
     static final String JAVA_PROPERTIES_COMMENT_PREFIX = "#";
 
@@ -58,15 +58,32 @@ class PropertiesOutputFormatter implements OutputFormatter {
     @Nullable
     private final String footer;
     private final AssignationHint assignationHint;
+    private final int sectionDepth;
 
     PropertiesOutputFormatter() {
         this("", "", AssignationHint.DEFAULT);
     }
 
     public PropertiesOutputFormatter(@Nullable String header, @Nullable String footer, AssignationHint assignationHint) {
+        this(header, footer, assignationHint, 0);
+    }
+
+    /**
+     * Constructs an instance.
+     * @param header header text
+     * @param footer footer text
+     * @param assignationHint assignation hint
+     * @param sectionDepth maximum number of segments in a key prefix that gets a section header;
+     *                     zero means no section headers are written
+     */
+    public PropertiesOutputFormatter(@Nullable String header, @Nullable String footer, AssignationHint assignationHint, int sectionDepth) {
         this.header = header;
         this.footer = footer;
         this.assignationHint = requireNonNull(assignationHint);
+        if (sectionDepth < 0) {
+            throw new IllegalArgumentException("section depth must be nonnegative: " + sectionDepth);
+        }
+        this.sectionDepth = sectionDepth;
     }
 
     @Override
@@ -74,14 +91,34 @@ class PropertiesOutputFormatter implements OutputFormatter {
         return "properties";
     }
 
+    /**
+     * Uses a trie only if section headers are written.
+     */
+    @Override
+    public boolean usesKeyTrie() {
+        return sectionDepth > 0;
+    }
+
+    /**
+     * Writes the settings in list order, or in trie order with section headers if
+     * the section depth is nonzero. The trie is only built in the latter case.
+     */
     @SuppressWarnings("RedundantThrows")
     @Override
     public void format(List<ConfigSetting> items, PrintWriter out) throws IOException {
+        if (sectionDepth > 0) {
+            format(KeyTrie.build(items), out);
+            return;
+        }
+        format(items.iterator(), out);
+    }
+
+    private void format(Iterator<ConfigSetting> items, PrintWriter out) throws IOException {
         if (header != null) {
             StringEscaping.writePropertyComment(header, out);
         }
-        for (ConfigSetting item : items) {
-            format(item, out);
+        while (items.hasNext()) {
+            format(items.next(), out);
             out.println();
         }
         if (footer != null) {
@@ -89,6 +126,61 @@ class PropertiesOutputFormatter implements OutputFormatter {
         }
     }
 
+    @Override
+    public void format(List<ConfigSetting> items, KeyTrie trie, OutputStream out, Charset charset) throws IOException {
+        if (sectionDepth == 0) {
+            format(items, out, charset);
+            return;
+        }
+        OutputFormatter.printText(out, charset, writer -> format(trie, writer));
+    }
+
+    @Override
+    public void format(Iterator<ConfigSetting> items, OutputStream out, Charset charset) throws IOException {
+        if (sectionDepth > 0) {
+            TextOutputFormatter.super.format(items, out, charset);
+            return;
+        }
+        OutputFormatter.printText(out, charset, writer -> format(items, writer));
+    }
+
+    /**
+     * Writes the settings in trie order, with a section header before each key prefix
+     * that is shared by more than one setting and has at most as many segments as the
+     * section depth. Settings whose key equals a prefix are written before the settings
+     * beneath the prefix.
+     */
+    void format(KeyTrie trie, PrintWriter out) throws IOException {
+        if (header != null) {
+            StringEscaping.writePropertyComment(header, out);
+        }
+        try {
+            trie.walk((node, depth) -> {
+                try {
+                    if (depth <= sectionDepth && node.getSubtreeSize() > 1 && !node.getChildren().isEmpty()) {
+                        StringEscaping.writePropertyComment(formatSectionHeader(node.getPrefix()), out);
+                        out.println();
+                    }
+                    for (ConfigSetting item : node.getSettings()) {
+                        format(item, out);
+                        out.println();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (footer != null) {
+            StringEscaping.writePropertyComment(footer, out);
+        }
+    }
+
+    protected String formatSectionHeader(String prefix) {
+        return String.format(" == %s ==", prefix);
+    }
+
     String getAssignedValue(ConfigSetting item) {
         String value;
         if (item.defaultValue != null) {
@@ -155,7 +247,20 @@ class PropertiesOutputFormatter implements OutputFormatter {
 
         @Override
         public OutputFormatter produce(Optionage optionage) {
-            return new PropertiesOutputFormatter(readHeader(optionage), readFooter(optionage), getAssignationHint(optionage));
+            return new PropertiesOutputFormatter(readHeader(optionage), readFooter(optionage), getAssignationHint(optionage), getSectionDepth(optionage));
+        }
+
+        private int getSectionDepth(Optionage optionage) {
+            String token = optionage.getOptionString(ConfigDoclet.OPT_SECTION_DEPTH, "0");
+            try {
+                int depth = Integer.parseInt(token.trim());
+                if (depth >= 0) {
+                    return depth;
+                }
+            } catch (NumberFormatException ignore) {
+            }
+            reporter.print(Diagnostic.Kind.WARNING, "invalid section depth: " + token);
+            return 0;
         }
 
         private AssignationHint getAssignationHint(Optionage optionage) {
@@ -200,182 +305,4 @@ class PropertiesOutputFormatter implements OutputFormatter {
         }
 
     }
-
-    private static class StringEscaping {
-
-        private StringEscaping() {}
-
-        public static String escapePropertyComment(String comment) {
-            StringWriter out = new StringWriter(comment.length() * 2);
-            try {
-                writePropertyComment(comment, out);
-            } catch (IOException e) {
-                throw new AssertionError("StringWriter should not throw IOException", e);
-            }
-            return out.toString();
-        }
-
-        public static void writePropertyComment(String comment, Writer out) throws IOException {
-            BufferedWriter bw = new BufferedWriter(out);
-            JavaUtilProperties.writeComments(bw, comment);
-            bw.flush();
-        }
-
-        public static String escapePropertyKey(String key) {
-            return JavaUtilProperties.saveConvert(key, true, true);
-        }
-
-        public static String escapePropertyValue(String value) {
-            return JavaUtilProperties.saveConvert(value, false, true);
-        }
-
-        /*
-         * Copyright (c) 1995, 2013, Oracle and/or its affiliates. All rights reserved.
-         * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
-         *
-         * This code is free software; you can redistribute it and/or modify it
-         * under the terms of the GNU General Public License version 2 only, as
-         * published by the Free Software Foundation.  Oracle designates this
-         * particular file as subject to the "Classpath" exception as provided
-         * by Oracle in the LICENSE file that accompanied this code.
-         *
-         * This code is distributed in the hope that it will be useful, but WITHOUT
-         * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
-         * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
-         * version 2 for more details (a copy is included in the LICENSE file that
-         * accompanied this code).
-         *
-         * You should have received a copy of the GNU General Public License version
-         * 2 along with this work; if not, write to the Free Software Foundation,
-         * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
-         *
-         * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
-         * or visit www.oracle.com if you need additional information or have any
-         * questions.
-         *
-         * SOURCE: http://hg.openjdk.java.net/jdk8/jdk8/jdk/raw-file/687fd7c7986d/src/share/classes/java/util/Properties.java
-         */
-        private static final class JavaUtilProperties {
-
-            private JavaUtilProperties() {}
-
-            /*
-             * Converts unicodes to encoded &#92;uxxxx and escapes
-             * special characters with a preceding slash
-             */
-            public static String saveConvert(String theString,
-                                       boolean escapeSpace,
-                                       boolean escapeUnicode) {
-                int len = theString.length();
-                int bufLen = len * 2;
-                if (bufLen < 0) {
-                    bufLen = Integer.MAX_VALUE;
-                }
-                StringBuilder outBuffer = new StringBuilder(bufLen);
-
-                for(int x=0; x<len; x++) {
-                    char aChar = theString.charAt(x);
-                    // Handle common case first, selecting largest block that
-                    // avoids the specials below
-                    if ((aChar > 61) && (aChar < 127)) {
-                        if (aChar == '\\') {
-                            outBuffer.append('\\'); outBuffer.append('\\');
-                            continue;
-                        }
-                        outBuffer.append(aChar);
-                        continue;
-                    }
-                    switch(aChar) {
-                        case ' ':
-                            if (x == 0 || escapeSpace)
-                                outBuffer.append('\\');
-                            outBuffer.append(' ');
-                            break;
-                        case '\t':outBuffer.append('\\'); outBuffer.append('t');
-                            break;
-                        case '\n':outBuffer.append('\\'); outBuffer.append('n');
-                            break;
-                        case '\r':outBuffer.append('\\'); outBuffer.append('r');
-                            break;
-                        case '\f':outBuffer.append('\\'); outBuffer.append('f');
-                            break;
-                        case '=': // Fall through
-                        case ':': // Fall through
-                        case '#': // Fall through
-                        case '!':
-                            outBuffer.append('\\'); outBuffer.append(aChar);
-                            break;
-                        default:
-                            if (((aChar < 0x0020) || (aChar > 0x007e)) & escapeUnicode ) {
-                                outBuffer.append('\\');
-                                outBuffer.append('u');
-                                outBuffer.append(toHex((aChar >> 12) & 0xF));
-                                outBuffer.append(toHex((aChar >>  8) & 0xF));
-                                outBuffer.append(toHex((aChar >>  4) & 0xF));
-                                outBuffer.append(toHex( aChar        & 0xF));
-                            } else {
-                                outBuffer.append(aChar);
-                            }
-                    }
-                }
-                return outBuffer.toString();
-            }
-
-            /**
-             * Convert a nibble to a hex character
-             * @param   nibble  the nibble to convert.
-             */
-            private static char toHex(int nibble) {
-                return hexDigit[(nibble & 0xF)];
-            }
-
-            /** A table of hex digits */
-            private static final char[] hexDigit = {
-                    '0','1','2','3','4','5','6','7','8','9','A','B','C','D','E','F'
-            };
-
-
-            public static void writeComments(BufferedWriter bw, String comments)
-                    throws IOException {
-                bw.write("#");
-                int len = comments.length();
-                int current = 0;
-                int last = 0;
-                char[] uu = new char[6];
-                uu[0] = '\\';
-                uu[1] = 'u';
-                while (current < len) {
-                    char c = comments.charAt(current);
-                    if (c > '\u00ff' || c == '\n' || c == '\r') {
-                        if (last != current)
-                            bw.write(comments.substring(last, current));
-                        if (c > '\u00ff') {
-                            uu[2] = toHex((c >> 12) & 0xf);
-                            uu[3] = toHex((c >>  8) & 0xf);
-                            uu[4] = toHex((c >>  4) & 0xf);
-                            uu[5] = toHex( c        & 0xf);
-                            bw.write(new String(uu));
-                        } else {
-                            bw.newLine();
-                            if (c == '\r' &&
-                                    current != len - 1 &&
-                                    comments.charAt(current + 1) == '\n') {
-                                current++;
-                            }
-                            if (current == len - 1 ||
-                                    (comments.charAt(current + 1) != '#' &&
-                                            comments.charAt(current + 1) != '!'))
-                                bw.write("#");
-                        }
-                        last = current + 1;
-                    }
-                    current++;
-                }
-                if (last != current)
-                    bw.write(comments.substring(last, current));
-                bw.newLine();
-            }
-        }
-
-    }
 }
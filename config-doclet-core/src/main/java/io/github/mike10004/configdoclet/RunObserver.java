@@ -0,0 +1,137 @@
+package io.github.mike10004.configdoclet;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.VariableElement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Observer of the phases of a doclet run and of the extraction of each setting.
+ * Each phase or extraction is bracketed by a call that begins it and a call to
+ * the returned span that ends it.
+ */
+interface RunObserver {
+
+    /**
+     * Phase of a doclet run.
+     */
+    enum Phase {
+
+        /**
+         * Collecting the variable elements of the included types.
+         */
+        discovery,
+
+        /**
+         * Selecting the variable elements that are relevant.
+         */
+        filtering,
+
+        /**
+         * Extracting settings from the comments of the relevant elements.
+         */
+        extraction,
+
+        /**
+         * Appending other settings and writing the output files.
+         */
+        output
+    }
+
+    /**
+     * Observer that does nothing.
+     */
+    RunObserver NOOP = new RunObserver() {
+        @Override
+        public PhaseSpan beginPhase(Phase phase) {
+            return elementCount -> {};
+        }
+
+        @Override
+        public SettingSpan beginSetting(VariableElement element) {
+            return (setting, linkResolutions) -> {};
+        }
+
+        @Override
+        public String toString() {
+            return "RunObserver{NOOP}";
+        }
+    };
+
+    /**
+     * Notifies this observer that a phase is beginning.
+     * @param phase the phase
+     * @return a span to be ended when the phase ends
+     */
+    PhaseSpan beginPhase(Phase phase);
+
+    /**
+     * Notifies this observer that extraction of a setting from an element is beginning.
+     * @param element the element
+     * @return a span to be ended when extraction ends
+     */
+    SettingSpan beginSetting(VariableElement element);
+
+    /**
+     * Creates an observer that notifies other observers.
+     * @param observers the observers, notified in order
+     * @return an observer representing a composite
+     */
+    static RunObserver compose(List<RunObserver> observers) {
+        List<RunObserver> members = Collections.unmodifiableList(new ArrayList<>(observers));
+        if (members.isEmpty()) {
+            return NOOP;
+        }
+        if (members.size() == 1) {
+            return members.get(0);
+        }
+        return new RunObserver() {
+            @Override
+            public PhaseSpan beginPhase(Phase phase) {
+                List<PhaseSpan> spans = members.stream().map(o -> o.beginPhase(phase)).collect(Collectors.toList());
+                return elementCount -> {
+                    // end in reverse order so that outer observers' measurements enclose inner ones
+                    for (int i = spans.size() - 1; i >= 0; i--) {
+                        spans.get(i).end(elementCount);
+                    }
+                };
+            }
+
+            @Override
+            public SettingSpan beginSetting(VariableElement element) {
+                List<SettingSpan> spans = members.stream().map(o -> o.beginSetting(element)).collect(Collectors.toList());
+                return (setting, linkResolutions) -> {
+                    for (int i = spans.size() - 1; i >= 0; i--) {
+                        spans.get(i).end(setting, linkResolutions);
+                    }
+                };
+            }
+
+            @Override
+            public String toString() {
+                return "RunObserver" + members;
+            }
+        };
+    }
+
+    interface PhaseSpan {
+
+        /**
+         * Ends the phase.
+         * @param elementCount number of elements or settings the phase produced
+         */
+        void end(int elementCount);
+    }
+
+    interface SettingSpan {
+
+        /**
+         * Ends extraction of a setting.
+         * @param setting the setting extracted, or null if the element did not produce a setting
+         * @param linkResolutions number of constant value references resolved during extraction
+         */
+        void end(@Nullable ConfigSetting setting, int linkResolutions);
+    }
+}
@@ -0,0 +1,306 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collection of settings that keeps a bounded number of settings in memory. When the
+ * number of settings in memory reaches the threshold, they are sorted and written to a
+ * temporary spill file, one JSON object per line. The settings are read back in sorted
+ * order by a k-way merge of the spill files, which keeps one setting per spill file in
+ * memory. At most a fixed number of spill files are merged at once; if there are more,
+ * groups of them are first merged into intermediate files, which replace them. Closing
+ * the spool deletes the spill files.
+ */
+final class SettingSpool implements Closeable {
+
+    private static final Logger log = Logger.getLogger(SettingSpool.class.getName());
+
+    static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    /**
+     * Default maximum number of spill files that are open at once while merging.
+     */
+    static final int DEFAULT_MAX_FAN_IN = 64;
+
+    private final int maxInMemory;
+    private final int maxFanIn;
+    private final SortOrder sortOrder;
+    @Nullable
+    private final Path directory;
+    private final Gson gson;
+    private final List<ConfigSetting> buffer;
+    private final List<Path> spillFiles;
+    private final List<Closeable> openReaders;
+    private int size;
+    private int spillCount;
+
+    /**
+     * Constructs an instance.
+     * @param maxInMemory maximum number of settings kept in memory
+     * @param sortOrder sort order
+     * @param directory directory in which to create spill files, or null for the default temporary directory
+     */
+    public SettingSpool(int maxInMemory, SortOrder sortOrder, @Nullable Path directory) {
+        this(maxInMemory, DEFAULT_MAX_FAN_IN, sortOrder, directory);
+    }
+
+    SettingSpool(int maxInMemory, int maxFanIn, SortOrder sortOrder, @Nullable Path directory) {
+        if (maxInMemory < 1) {
+            throw new IllegalArgumentException("maximum must be positive: " + maxInMemory);
+        }
+        if (maxFanIn < 2) {
+            throw new IllegalArgumentException("fan-in must be at least 2: " + maxFanIn);
+        }
+        this.maxInMemory = maxInMemory;
+        this.maxFanIn = maxFanIn;
+        this.sortOrder = requireNonNull(sortOrder);
+        this.directory = directory;
+        gson = new Gson();
+        buffer = new ArrayList<>();
+        spillFiles = new ArrayList<>();
+        openReaders = new ArrayList<>();
+    }
+
+    /**
+     * Adds a setting, spilling the settings in memory if the threshold is reached.
+     * @param setting the setting
+     * @throws IOException if spilling fails
+     */
+    public void add(ConfigSetting setting) throws IOException {
+        buffer.add(requireNonNull(setting));
+        size++;
+        if (buffer.size() >= maxInMemory) {
+            spill();
+        }
+    }
+
+    private void spill() throws IOException {
+        spillFiles.add(writeRun(sortOrder.sort(buffer).iterator()));
+        spillCount++;
+        buffer.clear();
+    }
+
+    private Path writeRun(Iterator<ConfigSetting> sorted) throws IOException {
+        Path file = directory == null
+                ? Files.createTempFile("config-doclet-spill", ".jsonl")
+                : Files.createTempFile(directory, "config-doclet-spill", ".jsonl");
+        try (BufferedWriter out = Files.newBufferedWriter(file, CHARSET)) {
+            while (sorted.hasNext()) {
+                gson.toJson(sorted.next(), ConfigSetting.class, out);
+                out.newLine();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Merges consecutive groups of spill files into intermediate files until there are
+     * no more than the maximum fan-in. Groups are consecutive so that settings that
+     * compare equal stay in the order they were added. Each intermediate file replaces
+     * its group in the list of spill files as soon as it is written, so that closing
+     * the spool deletes it even if a later group fails to merge.
+     */
+    private void reduceRuns() throws IOException {
+        while (spillFiles.size() > maxFanIn) {
+            for (int index = 0; index < spillFiles.size(); index++) {
+                List<Path> group = spillFiles.subList(index, Math.min(spillFiles.size(), index + maxFanIn));
+                if (group.size() == 1) {
+                    continue;
+                }
+                Path merged = mergeRuns(group);
+                List<Path> merging = new ArrayList<>(group);
+                group.clear();
+                spillFiles.add(index, merged);
+                merging.forEach(SettingSpool::deleteSpillFile);
+            }
+        }
+    }
+
+    private Path mergeRuns(List<Path> files) throws IOException {
+        MergingIterator merger = new MergingIterator(openAll(files));
+        try {
+            return writeRun(merger);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            merger.close();
+        }
+    }
+
+    private static void deleteSpillFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.log(Level.FINE, e, () -> "failed to delete spill file " + file);
+        }
+    }
+
+    private List<BufferedReader> openAll(List<Path> files) throws IOException {
+        List<BufferedReader> readers = new ArrayList<>(files.size());
+        for (Path file : files) {
+            BufferedReader reader = Files.newBufferedReader(file, CHARSET);
+            openReaders.add(reader);
+            readers.add(reader);
+        }
+        return readers;
+    }
+
+    /**
+     * Gets the number of settings added.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of times the settings in memory have been spilled so far.
+     * Intermediate files written while merging are not counted.
+     */
+    public int getSpillCount() {
+        return spillCount;
+    }
+
+    /**
+     * Gets the number of spill files that an iterator would currently merge.
+     */
+    public int getRunCount() {
+        return spillFiles.size();
+    }
+
+    /**
+     * Returns an iterator over all settings added so far, in sorted order. If any settings
+     * have been spilled, the settings in memory are spilled too, the spill files are reduced
+     * to at most the maximum fan-in, and the iterator merges them; it throws
+     * {@link UncheckedIOException} if reading fails. The reduction is kept, so a later call
+     * with no settings added in between reads each spill file once without merging again.
+     * More settings may be added after this method is called, but not while the iterator
+     * is in use.
+     * @return an iterator
+     * @throws IOException on I/O error
+     */
+    public Iterator<ConfigSetting> iterator() throws IOException {
+        if (spillFiles.isEmpty()) {
+            return sortOrder.sort(buffer).iterator();
+        }
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        reduceRuns();
+        return new MergingIterator(openAll(spillFiles));
+    }
+
+    private final class MergingIterator implements Iterator<ConfigSetting> {
+
+        private final PriorityQueue<Head> heads;
+
+        public MergingIterator(List<BufferedReader> readers) throws IOException {
+            heads = new PriorityQueue<>(Math.max(1, readers.size()), Comparator.comparing((Head h) -> h.collated, SortOrder.COLLATED_ORDERING)
+                    .thenComparingInt(h -> h.index));
+            for (int i = 0; i < readers.size(); i++) {
+                advance(readers.get(i), i);
+            }
+        }
+
+        private void advance(BufferedReader reader, int index) throws IOException {
+            @Nullable String line = reader.readLine();
+            if (line == null) {
+                reader.close();
+                openReaders.remove(reader);
+                return;
+            }
+            ConfigSetting setting;
+            try {
+                setting = gson.fromJson(line, ConfigSetting.class);
+            } catch (JsonParseException e) {
+                throw new IOException("corrupt spill file", e);
+            }
+            heads.add(new Head(sortOrder.collate(setting), reader, index));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        public void close() throws IOException {
+            while (!heads.isEmpty()) {
+                BufferedReader reader = heads.poll().reader;
+                reader.close();
+                openReaders.remove(reader);
+            }
+        }
+
+        @Override
+        public ConfigSetting next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            try {
+                advance(head.reader, head.index);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return head.collated.setting;
+        }
+    }
+
+    private static final class Head {
+
+        final SortOrder.Collated collated;
+        final BufferedReader reader;
+        final int index;
+
+        Head(SortOrder.Collated collated, BufferedReader reader, int index) {
+            this.collated = collated;
+            this.reader = reader;
+            this.index = index;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Closeable reader : openReaders) {
+            reader.close();
+        }
+        openReaders.clear();
+        spillFiles.forEach(SettingSpool::deleteSpillFile);
+        spillFiles.clear();
+        buffer.clear();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringHelper(this)
+                .add("size", size)
+                .add("maxInMemory", maxInMemory)
+                .add("spillCount", spillCount)
+                .add("runCount", spillFiles.size())
+                .toString();
+    }
+}
@@ -3,8 +3,9 @@ package io.github.mike10004.configdoclet;
 import com.sun.source.doctree.BlockTagTree;
 import com.sun.source.doctree.DocTree;
 import com.sun.source.doctree.UnknownBlockTagTree;
-import org.apache.commons.lang3.StringUtils;
 
+import javax.lang.model.element.VariableElement;
+import java.io.IOException;
 import java.util.Collection;
 
 class SimpleRenderer implements CommentRenderer {
@@ -13,29 +14,27 @@ class SimpleRenderer implements CommentRenderer {
     }
 
     @Override
-    public String render(Collection<? extends DocTree> docTrees) {
-        StringBuilder sb = new StringBuilder();
+    public boolean render(VariableElement element, Collection<? extends DocTree> docTrees, Appendable out) throws IOException {
+        Appendable trimming = new TrimmingAppendable(out);
         for (DocTree node : docTrees) {
-            String outcome;
             if (node instanceof BlockTagTree) {
-                String stringified = node.toString();
                 String tagName = ((BlockTagTree)node).getTagName();
                 if (ConfigDoclet.TAG_CFG_EXAMPLE.equals(tagName)) {
-                    outcome = CommentRenderer.concatenateText(((UnknownBlockTagTree)node).getContent());
+                    CommentRenderer.concatenateText(((UnknownBlockTagTree)node).getContent(), trimming);
                 } else {
-                    String expectedPrefix = "@" + tagName;
-                    if (stringified.startsWith(expectedPrefix)) {
-                        outcome = StringUtils.removeStart(stringified, expectedPrefix);
+                    String stringified = node.toString();
+                    // equivalent to removing the prefix "@" + tagName
+                    if (stringified.startsWith("@") && stringified.startsWith(tagName, 1)) {
+                        trimming.append(stringified, 1 + tagName.length(), stringified.length());
                     } else {
-                        outcome = buildReallySimply(node);
+                        trimming.append(buildReallySimply(node));
                     }
                 }
             } else {
-                outcome = buildReallySimply(node);
+                trimming.append(buildReallySimply(node));
             }
-            sb.append(outcome);
         }
-        return sb.toString().trim();
+        return true;
     }
 
     private String buildReallySimply(DocTree node) {
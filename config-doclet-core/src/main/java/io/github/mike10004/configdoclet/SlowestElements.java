@@ -0,0 +1,186 @@
+package io.github.mike10004.configdoclet;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.VariableElement;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Observer that ranks elements by the cost of extracting a setting from them, which
+ * covers scanning their block tags, rendering their comments, and resolving the
+ * constant values they refer to. The most expensive elements by time and by bytes
+ * allocated are kept, up to a limit, in bounded heaps, so that memory use does not
+ * grow with the number of elements. Allocation is measured only if the runtime
+ * supports it.
+ */
+final class SlowestElements implements RunObserver {
+
+    private static final Comparator<Cost> BY_NANOS = Comparator.comparingLong((Cost c) -> c.nanos).thenComparingInt(c -> -c.index);
+    private static final Comparator<Cost> BY_BYTES = Comparator.comparingLong((Cost c) -> c.allocatedBytes).thenComparingInt(c -> -c.index);
+
+    private final int limit;
+    @Nullable
+    private final com.sun.management.ThreadMXBean allocationBean;
+    private final PriorityQueue<Cost> slowest;
+    private final PriorityQueue<Cost> heaviest;
+    private int count;
+
+    /**
+     * Constructs an instance.
+     * @param limit maximum number of elements in each ranking
+     */
+    public SlowestElements(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        this.limit = limit;
+        allocationBean = PhaseProfiler.getAllocationBean(ManagementFactory.getThreadMXBean());
+        // each heap's head is the cheapest element kept, which is evicted when a costlier one arrives
+        slowest = new PriorityQueue<>(limit + 1, BY_NANOS);
+        heaviest = new PriorityQueue<>(limit + 1, BY_BYTES);
+    }
+
+    private long currentAllocatedBytes() {
+        return allocationBean == null ? PhaseProfiler.UNSUPPORTED : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Override
+    public PhaseSpan beginPhase(Phase phase) {
+        return NOOP.beginPhase(phase);
+    }
+
+    @Override
+    public SettingSpan beginSetting(VariableElement element) {
+        long startAllocated = currentAllocatedBytes();
+        long startNanos = System.nanoTime();
+        return (setting, linkResolutions) -> {
+            long nanos = System.nanoTime() - startNanos;
+            long allocatedBytes = allocationBean == null ? PhaseProfiler.UNSUPPORTED : currentAllocatedBytes() - startAllocated;
+            record(element, setting == null ? null : setting.key, nanos, allocatedBytes, linkResolutions);
+        };
+    }
+
+    synchronized void record(VariableElement element, @Nullable String key, long nanos, long allocatedBytes, int linkResolutions) {
+        Cost cost = new Cost(element, key, nanos, allocatedBytes, linkResolutions, count++);
+        offer(slowest, cost);
+        if (allocationBean != null) {
+            offer(heaviest, cost);
+        }
+    }
+
+    private void offer(PriorityQueue<Cost> ranking, Cost cost) {
+        if (ranking.size() < limit) {
+            ranking.add(cost);
+        } else if (ranking.comparator().compare(cost, ranking.peek()) > 0) {
+            ranking.poll();
+            ranking.add(cost);
+        }
+    }
+
+    /**
+     * Gets the number of elements observed.
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the slowest elements, slowest first.
+     */
+    public synchronized List<Cost> getSlowest() {
+        return sortDescending(slowest);
+    }
+
+    /**
+     * Gets the elements that allocated the most, heaviest first. The list is empty if
+     * allocation is not measured.
+     */
+    public synchronized List<Cost> getHeaviest() {
+        return sortDescending(heaviest);
+    }
+
+    private static List<Cost> sortDescending(PriorityQueue<Cost> ranking) {
+        List<Cost> costs = new ArrayList<>(ranking);
+        costs.sort(ranking.comparator().reversed());
+        return costs;
+    }
+
+    /**
+     * Formats a report of the slowest and most allocation-heavy elements, with one line per element.
+     */
+    public String formatReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("slowest %d of %d elements (ms, KiB allocated, link resolutions):", getSlowest().size(), getCount()));
+        getSlowest().forEach(cost -> appendLine(sb, cost));
+        List<Cost> heaviest = getHeaviest();
+        if (!heaviest.isEmpty()) {
+            sb.append(System.lineSeparator()).append(String.format("most allocation-heavy %d of %d elements (ms, KiB allocated, link resolutions):", heaviest.size(), getCount()));
+            heaviest.forEach(cost -> appendLine(sb, cost));
+        }
+        return sb.toString();
+    }
+
+    private static void appendLine(StringBuilder sb, Cost cost) {
+        sb.append(System.lineSeparator()).append(String.format("  %8.3f %8s %3d  %s",
+                cost.nanos / 1e6,
+                cost.allocatedBytes == PhaseProfiler.UNSUPPORTED ? "n/a" : String.valueOf(cost.allocatedBytes / 1024),
+                cost.linkResolutions,
+                cost.getSignature()));
+        if (cost.key != null) {
+            sb.append(" (").append(cost.key).append(')');
+        }
+    }
+
+    /**
+     * Cost of extracting a setting from an element.
+     */
+    static final class Cost {
+
+        public final VariableElement element;
+        @Nullable
+        public final String key;
+        public final long nanos;
+        public final long allocatedBytes;
+        public final int linkResolutions;
+        private final int index;
+
+        Cost(VariableElement element, @Nullable String key, long nanos, long allocatedBytes, int linkResolutions, int index) {
+            this.element = requireNonNull(element);
+            this.key = key;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.linkResolutions = linkResolutions;
+            this.index = index;
+        }
+
+        /**
+         * Gets the signature of the element, such as {@code com.example.Settings#CFG_NAME}.
+         */
+        public String getSignature() {
+            return CollectionLinkResolver.constructSignature(element);
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringHelper(this)
+                    .add("key", key)
+                    .add("nanos", nanos)
+                    .add("allocatedBytes", allocatedBytes)
+                    .add("linkResolutions", linkResolutions)
+                    .toString();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new ToStringHelper(this)
+                .add("limit", limit)
+                .add("count", count)
+                .toString();
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.mike10004.configdoclet;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Order in which settings are written. Each setting is sorted by its
+ * {@link ConfigSetting#getSortKey() sort key} and then by its key.
+ *
+ * <p>Sorting computes a collation key, an array of chars, for each setting once, and then
+ * compares the arrays, instead of transforming the sort key on every comparison. In the natural
+ * orders, each run of decimal digits in the sort key is encoded as the char {@code '0'}, then a
+ * char whose value is the number of digits after leading zeros, then those digits, so that
+ * numbers with fewer digits sort first and {@code item.2} precedes {@code item.10}. Because a
+ * run starts with {@code '0'}, numbers sort against other characters as digits do in the
+ * lexical order.
+ */
+enum SortOrder {
+
+    /**
+     * Compares sort keys char by char, as {@link String#compareTo(String)} does.
+     */
+    lexical("lexical"),
+
+    /**
+     * Compares runs of digits numerically.
+     */
+    natural("natural"),
+
+    /**
+     * Compares runs of digits numerically and ignores case.
+     */
+    natural_ci("natural-ci");
+
+    public static final SortOrder DEFAULT = lexical;
+
+    private static final char DIGIT_RUN_MARKER = '0';
+
+    private final String token;
+
+    SortOrder(String token) {
+        this.token = token;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Parses a token.
+     * @param token the token, or null
+     * @return the sort order, or the default if the token is null or empty
+     * @throws IllegalArgumentException if the token is not recognized
+     */
+    public static SortOrder parse(@Nullable String token) {
+        if (token == null || token.isEmpty()) {
+            return DEFAULT;
+        }
+        for (SortOrder order : values()) {
+            if (order.token.equalsIgnoreCase(token)) {
+                return order;
+            }
+        }
+        throw new IllegalArgumentException("not a sort order: " + token);
+    }
+
+    /**
+     * Computes the collation key of a string.
+     * @param sortKey the string
+     * @return the collation key
+     */
+    char[] collationKey(String sortKey) {
+        if (this == lexical) {
+            return sortKey.toCharArray();
+        }
+        boolean foldCase = this == natural_ci;
+        // a run of n digits is encoded in at most n + 2 chars, which is at most 3n
+        char[] buffer = new char[sortKey.length() * 3];
+        int length = 0;
+        int i = 0;
+        while (i < sortKey.length()) {
+            char c = sortKey.charAt(i);
+            if (isDigit(c)) {
+                while (i < sortKey.length() && sortKey.charAt(i) == '0') {
+                    i++;
+                }
+                int significant = i;
+                while (i < sortKey.length() && isDigit(sortKey.charAt(i))) {
+                    i++;
+                }
+                buffer[length++] = DIGIT_RUN_MARKER;
+                buffer[length++] = (char) (i - significant);
+                sortKey.getChars(significant, i, buffer, length);
+                length += i - significant;
+            } else {
+                buffer[length++] = foldCase ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+                i++;
+            }
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Sorts settings in this order. Settings with equal sort keys are ordered by key.
+     * @param settings the settings
+     * @return a new list of the settings
+     */
+    public List<ConfigSetting> sort(Collection<ConfigSetting> settings) {
+        Collated[] collated = new Collated[settings.size()];
+        int i = 0;
+        for (ConfigSetting setting : settings) {
+            collated[i++] = collate(setting);
+        }
+        Arrays.sort(collated, COLLATED_ORDERING);
+        ConfigSetting[] sorted = new ConfigSetting[collated.length];
+        for (int j = 0; j < collated.length; j++) {
+            sorted[j] = collated[j].setting;
+        }
+        return Arrays.asList(sorted);
+    }
+
+    /**
+     * Pairs a setting with its collation key in this order.
+     */
+    Collated collate(ConfigSetting setting) {
+        return new Collated(collationKey(setting.getSortKey()), setting);
+    }
+
+    /**
+     * Ordering of collated settings. Settings are only comparable if they were
+     * collated in the same order.
+     */
+    static final Comparator<Collated> COLLATED_ORDERING = (a, b) -> {
+        int result = Arrays.compare(a.collationKey, b.collationKey);
+        if (result == 0) {
+            result = a.setting.getSortKey().compareTo(b.setting.getSortKey());
+        }
+        if (result == 0) {
+            result = a.setting.key.compareTo(b.setting.key);
+        }
+        return result;
+    };
+
+    static final class Collated {
+
+        private final char[] collationKey;
+        public final ConfigSetting setting;
+
+        private Collated(char[] collationKey, ConfigSetting setting) {
+            this.collationKey = collationKey;
+            this.setting = setting;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package io.github.mike10004.configdoclet;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Scanner that finds the source files that could contribute settings, so that javadoc
+ * does not have to parse the rest. A file is a candidate if it contains the config tag
+ * prefix or any of the field name prefixes. The files that candidates link to with
+ * {@code {@link}} or {@code {@value}} tags are included as well, because the values of the
+ * constants they define may be needed to render defaults.
+ */
+class SourcePrescanner {
+
+    static final String CFG_TAG_NEEDLE = "@cfg.";
+
+    private static final String JAVA_FILENAME_SUFFIX = ".java";
+    private static final Pattern LINK_TARGET_PATTERN = Pattern.compile("\\{@(?:link|linkplain|value)\\s+([\\w.]+)#");
+    private static final Pattern IMPORT_PATTERN = Pattern.compile("^\\s*import\\s+([\\w.]+?)(\\.\\*)?\\s*;", Pattern.MULTILINE);
+    private static final Pattern PACKAGE_PATTERN = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+    private final List<Path> sourceRoots;
+    private final byte[][] needles;
+    private final boolean[] needleStarts;
+    private final Charset sourceCharset;
+
+    public SourcePrescanner(List<Path> sourceRoots, Collection<String> needles, Charset sourceCharset) {
+        this.sourceRoots = Collections.unmodifiableList(new ArrayList<>(sourceRoots));
+        this.sourceCharset = requireNonNull(sourceCharset);
+        this.needles = needles.stream()
+                .map(needle -> needle.getBytes(sourceCharset))
+                .toArray(byte[][]::new);
+        if (this.needles.length == 0) {
+            throw new IllegalArgumentException("at least one needle is required");
+        }
+        needleStarts = new boolean[256];
+        for (byte[] needle : this.needles) {
+            if (needle.length == 0) {
+                throw new IllegalArgumentException("needles must be nonempty");
+            }
+            needleStarts[needle[0] & 0xFF] = true;
+        }
+    }
+
+    /**
+     * Builds the list of strings to search for. If any of the wildcard patterns starts with a wildcard,
+     * field names cannot be filtered by prefix, and null is returned.
+     * @param fieldNamePatterns the field name patterns, or null if the default prefixes apply
+     * @return the list of needles, or null if every file is a candidate
+     */
+    @Nullable
+    static List<String> buildNeedles(@Nullable List<String> fieldNamePatterns) {
+        List<String> prefixes = fieldNamePatterns == null ? ConfigDoclet.DEFAULT_FIELD_NAME_PREFIXES : literalPrefixes(fieldNamePatterns);
+        if (prefixes.contains("")) {
+            return null;
+        }
+        return Stream.concat(Stream.of(CFG_TAG_NEEDLE), prefixes.stream())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    static List<String> literalPrefixes(List<String> wildcardPatterns) {
+        return wildcardPatterns.stream().map(pattern -> {
+            int wildcardIndex = 0;
+            while (wildcardIndex < pattern.length() && pattern.charAt(wildcardIndex) != '*' && pattern.charAt(wildcardIndex) != '?') {
+                wildcardIndex++;
+            }
+            return pattern.substring(0, wildcardIndex);
+        }).collect(Collectors.toList());
+    }
+
+    static List<Path> listSourceFiles(List<Path> sourceRoots) throws IOException {
+        List<Path> allFiles = new ArrayList<>();
+        for (Path root : sourceRoots) {
+            try (Stream<Path> files = Files.walk(root)) {
+                files.filter(file -> file.getFileName().toString().endsWith(JAVA_FILENAME_SUFFIX))
+                        .filter(Files::isRegularFile)
+                        .sorted()
+                        .forEach(allFiles::add);
+            }
+        }
+        return allFiles;
+    }
+
+    public Result scan() throws IOException {
+        List<Path> allFiles = listSourceFiles(sourceRoots);
+        Set<Path> candidates = new LinkedHashSet<>();
+        for (Path file : allFiles) {
+            if (containsAnyNeedle(file)) {
+                candidates.add(file);
+            }
+        }
+        Set<Path> linked = new LinkedHashSet<>();
+        for (Path candidate : candidates) {
+            for (Path target : findLinkTargets(candidate)) {
+                if (!candidates.contains(target)) {
+                    linked.add(target);
+                }
+            }
+        }
+        return new Result(allFiles.size(), candidates, linked);
+    }
+
+    boolean containsAnyNeedle(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return false;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return indexOfAny(buffer) >= 0;
+        }
+    }
+
+    /**
+     * Finds the first position at which any needle occurs.
+     * @param haystack the buffer to search, from position zero to its limit
+     * @return the index, or -1 if no needle occurs
+     */
+    int indexOfAny(ByteBuffer haystack) {
+        int limit = haystack.limit();
+        for (int i = 0; i < limit; i++) {
+            if (needleStarts[haystack.get(i) & 0xFF]) {
+                for (byte[] needle : needles) {
+                    if (regionMatches(haystack, i, needle)) {
+                        return i;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(ByteBuffer haystack, int offset, byte[] needle) {
+        if (offset + needle.length > haystack.limit()) {
+            return false;
+        }
+        for (int j = 0; j < needle.length; j++) {
+            if (haystack.get(offset + j) != needle[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<Path> findLinkTargets(Path candidate) throws IOException {
+        String source = new String(Files.readAllBytes(candidate), sourceCharset);
+        Matcher linkMatcher = LINK_TARGET_PATTERN.matcher(source);
+        Set<String> referencedTypes = new LinkedHashSet<>();
+        while (linkMatcher.find()) {
+            referencedTypes.add(linkMatcher.group(1));
+        }
+        if (referencedTypes.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Matcher packageMatcher = PACKAGE_PATTERN.matcher(source);
+        String packageName = packageMatcher.find() ? packageMatcher.group(1) : "";
+        List<String> searchPackages = new ArrayList<>();
+        searchPackages.add(packageName);
+        List<String> singleTypeImports = new ArrayList<>();
+        Matcher importMatcher = IMPORT_PATTERN.matcher(source);
+        while (importMatcher.find()) {
+            if (importMatcher.group(2) != null) {
+                searchPackages.add(importMatcher.group(1));
+            } else {
+                singleTypeImports.add(importMatcher.group(1));
+            }
+        }
+        Set<Path> targets = new LinkedHashSet<>();
+        for (String referencedType : referencedTypes) {
+            @Nullable Path target = resolveType(referencedType, searchPackages, singleTypeImports);
+            if (target != null) {
+                targets.add(target);
+            }
+        }
+        return targets;
+    }
+
+    @Nullable
+    private Path resolveType(String referencedType, List<String> searchPackages, List<String> singleTypeImports) {
+        String outermost = referencedType.split("\\.", 2)[0];
+        for (String imported : singleTypeImports) {
+            if (imported.endsWith("." + outermost)) {
+                return resolveQualified(imported + referencedType.substring(outermost.length()));
+            }
+        }
+        for (String packageName : searchPackages) {
+            String qualified = packageName.isEmpty() ? referencedType : packageName + "." + referencedType;
+            @Nullable Path target = resolveQualified(qualified);
+            if (target != null) {
+                return target;
+            }
+        }
+        return resolveQualified(referencedType);
+    }
+
+    /**
+     * Resolves a qualified type name to a source file, trying successively shorter names
+     * so that nested type references resolve to the file of the top-level type.
+     */
+    @Nullable
+    private Path resolveQualified(String qualifiedName) {
+        String name = qualifiedName;
+        while (!name.isEmpty()) {
+            String relativePath = name.replace('.', '/') + JAVA_FILENAME_SUFFIX;
+            for (Path root : sourceRoots) {
+                Path file = root.resolve(relativePath);
+                if (Files.isRegularFile(file)) {
+                    return file;
+                }
+            }
+            int lastDot = name.lastIndexOf('.');
+            name = lastDot < 0 ? "" : name.substring(0, lastDot);
+        }
+        return null;
+    }
+
+    public static class Result {
+
+        public final int numSourceFiles;
+        public final Set<Path> candidates;
+        public final Set<Path> linked;
+
+        public Result(int numSourceFiles, Set<Path> candidates, Set<Path> linked) {
+            this.numSourceFiles = numSourceFiles;
+            this.candidates = Collections.unmodifiableSet(candidates);
+            this.linked = Collections.unmodifiableSet(linked);
+        }
+
+        public List<Path> getFilesToDocument() {
+            return Stream.concat(candidates.stream(), linked.stream()).collect(Collectors.toList());
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringHelper(this)
+                    .add("numSourceFiles", numSourceFiles)
+                    .add("candidates.size", candidates.size())
+                    .add("linked.size", linked.size())
+                    .toString();
+        }
+    }
+}
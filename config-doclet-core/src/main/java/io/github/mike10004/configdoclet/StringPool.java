@@ -0,0 +1,99 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Table of canonical string instances, so that settings with equal descriptions, default
+ * values, or examples share one instance of each string. Unlike {@link String#intern()},
+ * the table is discarded along with the doclet run that created it.
+ */
+final class StringPool {
+
+    private final Map<String, String> canonical;
+    private int hitCount;
+
+    public StringPool() {
+        canonical = new HashMap<>();
+    }
+
+    /**
+     * Gets the canonical instance of a string, adding the string to the pool if it
+     * is not already present.
+     * @param value the string
+     * @return the canonical instance, or null if the argument is null
+     */
+    @Nullable
+    public synchronized String intern(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = canonical.putIfAbsent(value, value);
+        if (existing != null) {
+            hitCount++;
+            return existing;
+        }
+        return value;
+    }
+
+    /**
+     * Gets the number of distinct strings in the pool.
+     */
+    public synchronized int size() {
+        return canonical.size();
+    }
+
+    /**
+     * Gets the number of times a string was found already in the pool.
+     */
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Creates a Gson instance that reads every string through this pool.
+     */
+    public Gson createGson() {
+        return new GsonBuilder()
+                .registerTypeAdapter(String.class, new InterningTypeAdapter())
+                .create();
+    }
+
+    private final class InterningTypeAdapter extends TypeAdapter<String> {
+
+        @Override
+        public void write(JsonWriter out, String value) throws IOException {
+            out.value(value);
+        }
+
+        @Override
+        public String read(JsonReader in) throws IOException {
+            JsonToken token = in.peek();
+            if (token == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            if (token == JsonToken.BOOLEAN) {
+                return intern(Boolean.toString(in.nextBoolean()));
+            }
+            return intern(in.nextString());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringHelper(this)
+                .add("size", size())
+                .add("hitCount", getHitCount())
+                .toString();
+    }
+}
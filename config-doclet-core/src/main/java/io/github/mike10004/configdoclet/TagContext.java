@@ -0,0 +1,87 @@
+package io.github.mike10004.configdoclet;
+
+import com.sun.source.doctree.DocTree;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.VariableElement;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Context of the extraction of a setting from an element's comment. Tag handlers add to the
+ * setting builder, or record the key and description that the doclet applies
+ * after all tags are processed.
+ */
+final class TagContext {
+
+    public final VariableElement element;
+    public final ConfigSetting.Builder settingBuilder;
+    private final StringBuilder buffer;
+    @Nullable
+    private String key;
+    @Nullable
+    private String description;
+
+    /**
+     * Constructs an instance.
+     * @param element the element
+     * @param settingBuilder the setting builder
+     * @param buffer buffer for rendering, which may be shared by contexts that are not used concurrently
+     */
+    public TagContext(VariableElement element, ConfigSetting.Builder settingBuilder, StringBuilder buffer) {
+        this.element = requireNonNull(element);
+        this.settingBuilder = requireNonNull(settingBuilder);
+        this.buffer = requireNonNull(buffer);
+    }
+
+    /**
+     * Renders comment content of the element.
+     * @param renderer the renderer
+     * @param docTrees the content
+     * @return the rendered text, or null if the renderer does not render the content
+     */
+    @Nullable
+    public String render(CommentRenderer renderer, Collection<? extends DocTree> docTrees) {
+        buffer.setLength(0);
+        try {
+            if (!renderer.render(element, docTrees, buffer)) {
+                return null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Gets the key specified by a tag, or null if none was specified.
+     */
+    @Nullable
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Sets the key, unless a key was already specified.
+     */
+    public void keyIfAbsent(String key) {
+        if (this.key == null) {
+            this.key = requireNonNull(key);
+        }
+    }
+
+    /**
+     * Gets the description specified by a tag, or null if none was specified.
+     */
+    @Nullable
+    public String getDescription() {
+        return description;
+    }
+
+    public void description(String description) {
+        this.description = description;
+    }
+}
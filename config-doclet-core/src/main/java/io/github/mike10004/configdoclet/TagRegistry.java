@@ -0,0 +1,138 @@
+package io.github.mike10004.configdoclet;
+
+import com.sun.source.doctree.BlockTagTree;
+import com.sun.source.doctree.DocCommentTree;
+import com.sun.source.doctree.DocTree;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Table of block tag handlers, by tag name. Tag names are matched without regard to case.
+ * A comment's block tags are processed in a single pass, in which each tag is passed to
+ * the handler of its name.
+ */
+final class TagRegistry {
+
+    /**
+     * Interface of a service that processes a block tag.
+     */
+    interface Handler {
+
+        /**
+         * Processes a tag.
+         * @param tag the tag
+         * @param context the context of the comment that contains the tag
+         */
+        void handle(BlockTagTree tag, TagContext context);
+    }
+
+    // maps each tag name, as registered and in lowercase, to its handler
+    private final Map<String, Handler> handlers;
+    private final Set<String> tagNames;
+
+    public TagRegistry() {
+        handlers = new HashMap<>();
+        tagNames = new LinkedHashSet<>();
+    }
+
+    /**
+     * Registers a handler.
+     * @param tagName the tag name, without the {@code @} prefix
+     * @param handler the handler
+     * @return this instance
+     * @throws IllegalArgumentException if a handler is already registered for the tag name
+     */
+    public TagRegistry register(String tagName, Handler handler) {
+        requireNonNull(handler, "handler");
+        String normalized = normalize(tagName);
+        if (handlers.containsKey(normalized)) {
+            throw new IllegalArgumentException("handler already registered for tag " + tagName);
+        }
+        handlers.put(normalized, handler);
+        handlers.put(tagName, handler);
+        tagNames.add(tagName);
+        return this;
+    }
+
+    private static String normalize(String tagName) {
+        return tagName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the handler registered for a tag name.
+     * @param tagName the tag name
+     * @return the handler, or null if none is registered
+     */
+    @Nullable
+    public Handler lookup(String tagName) {
+        @Nullable Handler handler = handlers.get(tagName);
+        if (handler == null) {
+            handler = handlers.get(normalize(tagName));
+        }
+        return handler;
+    }
+
+    /**
+     * Gets the names of tags that have handlers, as registered.
+     */
+    public Set<String> getTagNames() {
+        return Collections.unmodifiableSet(tagNames);
+    }
+
+    /**
+     * Checks whether a comment has a block tag of a registered name. Tag names are matched
+     * as they are when tags are {@link #dispatch(DocCommentTree, TagContext, Consumer) dispatched}.
+     * @param tree the comment
+     * @param tagName the registered tag name
+     * @return true if the comment has a tag of the name
+     * @throws IllegalArgumentException if no handler is registered for the tag name
+     */
+    public boolean hasBlockTag(DocCommentTree tree, String tagName) {
+        @Nullable Handler target = lookup(tagName);
+        if (target == null) {
+            throw new IllegalArgumentException("no handler registered for tag " + tagName);
+        }
+        for (DocTree tag : tree.getBlockTags()) {
+            if (tag instanceof BlockTagTree && lookup(((BlockTagTree) tag).getTagName()) == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Passes each block tag of a comment to the handler of its name.
+     * @param tree the comment
+     * @param context the context
+     * @param unhandled consumer of the block tags that have no handler
+     */
+    public void dispatch(DocCommentTree tree, TagContext context, Consumer<? super BlockTagTree> unhandled) {
+        for (DocTree tag : tree.getBlockTags()) {
+            if (tag instanceof BlockTagTree) {
+                BlockTagTree blockTag = (BlockTagTree) tag;
+                @Nullable Handler handler = lookup(blockTag.getTagName());
+                if (handler != null) {
+                    handler.handle(blockTag, context);
+                } else {
+                    unhandled.accept(blockTag);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringHelper(this)
+                .add("tagNames", tagNames)
+                .toString();
+    }
+}
@@ -2,7 +2,10 @@ package io.github.mike10004.configdoclet;
 
 import com.sun.source.doctree.DocTree;
 import com.sun.source.doctree.LinkTree;
+import com.sun.source.doctree.ValueTree;
 
+import javax.lang.model.element.VariableElement;
+import java.io.IOException;
 import java.util.Collections;
 
 class TextCommentRenderer extends BasicTextCommentRenderer {
@@ -15,15 +18,17 @@ class TextCommentRenderer extends BasicTextCommentRenderer {
 
     protected boolean isRenderable(DocTree tree) {
         return super.isRenderable(tree)
-                ||  tree instanceof LinkTree;
+                ||  tree instanceof LinkTree
+                ||  tree instanceof ValueTree;
     }
 
     @Override
-    protected String renderOne(DocTree tree) {
-        if (tree instanceof LinkTree) {
-            return linkValueRenderer.render(Collections.singleton(tree));
+    protected void renderOne(VariableElement element, DocTree tree, Appendable out) throws IOException {
+        if (tree instanceof LinkTree || tree instanceof ValueTree) {
+            linkValueRenderer.render(element, Collections.singleton(tree), out);
+            return;
         }
-        return super.renderOne(tree);
+        super.renderOne(element, tree, out);
     }
 
 }
@@ -0,0 +1,29 @@
+package io.github.mike10004.configdoclet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Formatter whose output is text. Binary formatters implement {@link OutputFormatter}
+ * directly, so that only formatters that can write to a character stream offer to.
+ */
+interface TextOutputFormatter extends OutputFormatter {
+
+    void format(List<ConfigSetting> items, PrintWriter out) throws IOException;
+
+    /**
+     * Writes items to a byte stream by encoding the text written by
+     * {@link #format(List, PrintWriter)}. The stream is flushed but not closed.
+     * @param items the items
+     * @param out the output stream
+     * @param charset the charset to use for text output
+     * @throws IOException on I/O error
+     */
+    @Override
+    default void format(List<ConfigSetting> items, OutputStream out, Charset charset) throws IOException {
+        OutputFormatter.printText(out, charset, writer -> format(items, writer));
+    }
+}
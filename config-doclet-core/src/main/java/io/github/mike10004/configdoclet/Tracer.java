@@ -0,0 +1,233 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.gson.stream.JsonWriter;
+import jdk.javadoc.doclet.Reporter;
+
+import javax.annotation.Nullable;
+import javax.tools.Diagnostic;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Facility for tracing the doclet's work. Each trace event has a category and a level,
+ * and each category is enabled up to a level, or not at all. Checking whether an event
+ * is enabled is an array lookup, and event messages are supplied lazily, so events in
+ * disabled categories cost next to nothing. Enabled events go to a sink, which is either
+ * the javadoc reporter or a file in which each event is a line of JSON.
+ */
+final class Tracer implements Closeable {
+
+    enum Category {
+        discovery,
+        filtering,
+        links,
+        rendering,
+        output
+    }
+
+    /**
+     * Verbosity of an event. A category enabled at a level also has the less verbose levels enabled.
+     */
+    enum Level {
+        info,
+        debug,
+        trace
+    }
+
+    private static final Tracer DISABLED = new Tracer(allDisabled(), null);
+
+    private final int[] thresholds;
+    @Nullable
+    private final Sink sink;
+    private final long startNanos;
+
+    private Tracer(int[] thresholds, @Nullable Sink sink) {
+        this.thresholds = thresholds;
+        this.sink = sink;
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Gets a tracer with every category disabled.
+     */
+    public static Tracer disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Creates a tracer from a specification. The specification is a comma-separated list of
+     * items, each of which is a category name, or {@code all} for every category, optionally
+     * followed by {@code =} and a level. The level defaults to {@link Level#debug}.
+     * @param spec the specification, such as {@code links=trace,output}
+     * @param sink the sink for enabled events
+     * @return a new tracer
+     * @throws IllegalArgumentException if the specification is invalid
+     */
+    public static Tracer create(String spec, Sink sink) {
+        requireNonNull(sink, "sink");
+        int[] thresholds = allDisabled();
+        for (String item : spec.split(",")) {
+            item = item.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            int eq = item.indexOf('=');
+            String categoryName = (eq < 0 ? item : item.substring(0, eq)).trim().toLowerCase(Locale.ROOT);
+            Level level = eq < 0 ? Level.debug : parseLevel(item.substring(eq + 1).trim());
+            if ("all".equals(categoryName)) {
+                Arrays.fill(thresholds, level.ordinal());
+            } else {
+                thresholds[parseCategory(categoryName).ordinal()] = level.ordinal();
+            }
+        }
+        return new Tracer(thresholds, sink);
+    }
+
+    private static int[] allDisabled() {
+        int[] thresholds = new int[Category.values().length];
+        Arrays.fill(thresholds, -1);
+        return thresholds;
+    }
+
+    private static Category parseCategory(String name) {
+        try {
+            return Category.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("not a trace category: " + name + "; must be one of " + Arrays.toString(Category.values()) + " or all");
+        }
+    }
+
+    private static Level parseLevel(String name) {
+        try {
+            return Level.valueOf(name.toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("not a trace level: " + name + "; must be one of " + Arrays.toString(Level.values()));
+        }
+    }
+
+    public boolean isEnabled(Category category, Level level) {
+        return level.ordinal() <= thresholds[category.ordinal()];
+    }
+
+    /**
+     * Traces an event if its category is enabled at its level.
+     * @param category the category
+     * @param level the level
+     * @param message supplier of the message, invoked only if the event is enabled
+     */
+    public void trace(Category category, Level level, Supplier<String> message) {
+        if (isEnabled(category, level)) {
+            requireNonNull(sink).accept(System.nanoTime() - startNanos, category, level, message.get());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (sink != null) {
+            sink.close();
+        }
+    }
+
+    interface Sink extends Closeable {
+
+        /**
+         * Accepts an event.
+         * @param elapsedNanos nanoseconds since the tracer was created
+         * @param category the category
+         * @param level the level
+         * @param message the message
+         */
+        void accept(long elapsedNanos, Category category, Level level, String message);
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    /**
+     * Creates a sink that prints events as notes through a reporter.
+     */
+    public static Sink reporterSink(Reporter reporter) {
+        requireNonNull(reporter, "reporter");
+        return (elapsedNanos, category, level, message) -> reporter.print(Diagnostic.Kind.NOTE, message);
+    }
+
+    /**
+     * Creates a sink that writes each event as a line of JSON to a file. Each line is an
+     * object with the elapsed time in microseconds, the thread name, the category, the
+     * level, and the message.
+     * @param file the file
+     * @return a new sink, which must be closed
+     * @throws IOException if the file cannot be opened
+     */
+    public static Sink jsonLinesSink(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        return new JsonLinesSink(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+    }
+
+    static final class JsonLinesSink implements Sink {
+
+        private final BufferedWriter out;
+
+        JsonLinesSink(BufferedWriter out) {
+            this.out = requireNonNull(out);
+        }
+
+        @Override
+        public synchronized void accept(long elapsedNanos, Category category, Level level, String message) {
+            try {
+                out.write(toJson(elapsedNanos, category, level, message));
+                out.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        static String toJson(long elapsedNanos, Category category, Level level, String message) throws IOException {
+            StringWriter buffer = new StringWriter(message.length() + 96);
+            try (JsonWriter json = new JsonWriter(buffer)) {
+                json.beginObject()
+                        .name("elapsedMicros").value(elapsedNanos / 1000)
+                        .name("thread").value(Thread.currentThread().getName())
+                        .name("category").value(category.name())
+                        .name("level").value(level.name())
+                        .name("message").value(message)
+                        .endObject();
+            }
+            return buffer.toString();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Tracer{");
+        for (Category category : Category.values()) {
+            int threshold = thresholds[category.ordinal()];
+            if (threshold >= 0) {
+                if (sb.charAt(sb.length() - 1) != '{') {
+                    sb.append(',');
+                }
+                sb.append(category).append('=').append(Level.values()[threshold]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.mike10004.configdoclet;
+
+import java.io.IOException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Appendable that trims leading and trailing whitespace from the text appended to it as the text
+ * is appended, as {@link String#trim()} would trim the whole text. Leading whitespace is dropped,
+ * and other whitespace is held until a non-whitespace character follows, so whitespace at the end
+ * is never passed through.
+ */
+final class TrimmingAppendable implements Appendable {
+
+    private final Appendable out;
+    private final StringBuilder pending;
+    private boolean started;
+
+    public TrimmingAppendable(Appendable out) {
+        this.out = requireNonNull(out);
+        pending = new StringBuilder();
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c <= ' ';
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            csq = "null";
+        }
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) {
+            csq = "null";
+        }
+        int i = start;
+        while (i < end) {
+            int runStart = i;
+            while (i < end && isWhitespace(csq.charAt(i))) {
+                i++;
+            }
+            if (i == end) {
+                hold(csq, runStart, end);
+                break;
+            }
+            if (i > runStart) {
+                hold(csq, runStart, i);
+            }
+            int textStart = i;
+            while (i < end && !isWhitespace(csq.charAt(i))) {
+                i++;
+            }
+            release();
+            out.append(csq, textStart, i);
+            started = true;
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+        if (isWhitespace(c)) {
+            if (started) {
+                pending.append(c);
+            }
+        } else {
+            release();
+            out.append(c);
+            started = true;
+        }
+        return this;
+    }
+
+    /**
+     * Holds whitespace until non-whitespace follows. Whitespace before any text is dropped.
+     */
+    private void hold(CharSequence csq, int start, int end) {
+        if (started) {
+            pending.append(csq, start, end);
+        }
+    }
+
+    private void release() throws IOException {
+        if (pending.length() > 0) {
+            out.append(pending);
+            pending.setLength(0);
+        }
+    }
+}
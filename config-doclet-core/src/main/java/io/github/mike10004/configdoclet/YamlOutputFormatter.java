@@ -0,0 +1,196 @@
+package io.github.mike10004.configdoclet;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Formatter that produces YAML with nested mappings derived from the dot-separated segments
+ * of setting keys. For example, {@code app.server.port} is written as the entry {@code port}
+ * of the mapping {@code server} within the mapping {@code app}. Descriptions and examples
+ * are written as comments, and default values are written as values; a setting without a
+ * default value is written as a commented-out entry.
+ *
+ * <p>Output is produced by walking a {@link KeyTrie} of the settings, so settings that
+ * share a prefix are written within one mapping even if they are not adjacent in the
+ * list, which can happen when sort keys are used. A key cannot be both a scalar and a
+ * mapping, so if a prefix is also a setting key, that setting is written first and the
+ * settings beneath it are written as dotted keys beside it, which frameworks that flatten
+ * YAML into properties treat the same way. Of settings with duplicate keys, all but the
+ * first are written as commented-out entries.
+ *
+ * <p>Keys and values are written as plain scalars only if a YAML 1.1 parser would read
+ * them back as the same strings; reserved words such as {@code on}, {@code no}, and
+ * {@code null} and anything that starts with a digit, and so may be read as a number
+ * or timestamp, are quoted.
+ */
+class YamlOutputFormatter implements TextOutputFormatter {
+
+    static final String OUTPUT_FORMAT_YAML = "yaml";
+
+    private static final String INDENT = "  ";
+    private static final char SEGMENT_SEPARATOR = KeyTrie.SEGMENT_SEPARATOR;
+    private static final Pattern PLAIN_KEY = Pattern.compile("[A-Za-z0-9_][-A-Za-z0-9_.]*");
+    private static final Pattern PLAIN_VALUE = Pattern.compile("[A-Za-z0-9_/][-A-Za-z0-9_./+]*");
+    private static final Set<String> RESERVED_SCALARS = Set.of("y", "yes", "n", "no", "true", "false", "on", "off", "null");
+
+    @Override
+    public String suggestFilenameExtension() {
+        return "yml";
+    }
+
+    @Override
+    public boolean usesKeyTrie() {
+        return true;
+    }
+
+    @SuppressWarnings("RedundantThrows")
+    @Override
+    public void format(List<ConfigSetting> items, PrintWriter out) throws IOException {
+        format(KeyTrie.build(items), out);
+    }
+
+    @Override
+    public void format(List<ConfigSetting> items, KeyTrie trie, OutputStream out, Charset charset) throws IOException {
+        OutputFormatter.printText(out, charset, writer -> format(trie, writer));
+    }
+
+    void format(KeyTrie trie, PrintWriter out) {
+        boolean started = false;
+        for (KeyTrie.Node node : trie.getRoot().getChildren()) {
+            if (started) {
+                out.println();
+            }
+            started = true;
+            format(node, 0, out);
+        }
+    }
+
+    private void format(KeyTrie.Node node, int depth, PrintWriter out) {
+        if (!node.getSettings().isEmpty()) {
+            formatFlattened(node, node.getSegment(), indent(depth), out);
+            return;
+        }
+        out.format("%s%s:%n", indent(depth), formatKey(node.getSegment()));
+        for (KeyTrie.Node child : node.getChildren()) {
+            format(child, depth + 1, out);
+        }
+    }
+
+    /**
+     * Writes the settings at and beneath a node as entries of the enclosing mapping,
+     * with keys relative to that mapping.
+     */
+    private void formatFlattened(KeyTrie.Node node, String entryKey, String indent, PrintWriter out) {
+        List<ConfigSetting> settings = node.getSettings();
+        for (int i = 0; i < settings.size(); i++) {
+            format(settings.get(i), formatKey(entryKey), indent, i > 0, out);
+        }
+        for (KeyTrie.Node child : node.getChildren()) {
+            formatFlattened(child, entryKey + SEGMENT_SEPARATOR + child.getSegment(), indent, out);
+        }
+    }
+
+    private void format(ConfigSetting item, String entryKey, String indent, boolean duplicate, PrintWriter out) {
+        if (item.description != null && !item.description.trim().isEmpty()) {
+            writeComment(indent, item.description.trim(), out);
+        }
+        for (int i = 0; i < item.exampleValues.size(); i++) {
+            if (i > 0 || item.defaultValue != null) {
+                writeComment(indent, formatExample(item.exampleValues.get(i)), out);
+            }
+        }
+        if (item.defaultValue != null && !duplicate) {
+            out.format("%s%s: %s%n", indent, entryKey, formatValue(item.defaultValue));
+        } else {
+            @Nullable String value = item.defaultValue;
+            if (value == null && !item.exampleValues.isEmpty()) {
+                value = item.exampleValues.get(0).value;
+            }
+            String assignment = value == null ? entryKey + ":" : entryKey + ": " + formatValue(value);
+            writeComment(indent, assignment, out);
+        }
+    }
+
+    private static String formatExample(ConfigSetting.ExampleValue example) {
+        if (example.description == null || example.description.trim().isEmpty()) {
+            return String.format("Example: %s", example.value);
+        } else {
+            return String.format("Example: %s (%s)", example.value, example.description);
+        }
+    }
+
+    private static void writeComment(String indent, String text, PrintWriter out) {
+        for (String line : text.split("\\R", -1)) {
+            out.format("%s# %s%n", indent, line.trim());
+        }
+    }
+
+    private static String indent(int depth) {
+        StringBuilder sb = new StringBuilder(INDENT.length() * depth);
+        for (int i = 0; i < depth; i++) {
+            sb.append(INDENT);
+        }
+        return sb.toString();
+    }
+
+    static String formatKey(String key) {
+        return isPlain(PLAIN_KEY, key) ? key : quote(key);
+    }
+
+    static String formatValue(String value) {
+        return isPlain(PLAIN_VALUE, value) ? value : quote(value);
+    }
+
+    private static boolean isPlain(Pattern pattern, String scalar) {
+        return pattern.matcher(scalar).matches()
+                && !Character.isDigit(scalar.charAt(0))
+                && !RESERVED_SCALARS.contains(scalar.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Writes a double-quoted scalar, in which backslash escapes are interpreted.
+     */
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x7f) {
+                        sb.append(String.format("\\x%02x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+
+    public static Factory factory() {
+        return Factory.forCode(OUTPUT_FORMAT_YAML, optionage -> new YamlOutputFormatter());
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.mike10004.configdoclet;
+
+import io.github.mike10004.configdoclet.runtime.Setting;
+import io.github.mike10004.configdoclet.runtime.SettingsIndex;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+public class BinaryOutputFormatterTest {
+
+    @Test
+    public void format() throws Exception {
+        List<ConfigSetting> settings = List.of(
+                ConfigSetting.builder("a").exampleValue("b").build(),
+                ConfigSetting.builder("c").description("d").defaultValue("e").build()
+        );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryOutputFormatter().format(settings, out, UTF_8);
+        SettingsIndex index = SettingsIndex.readBinary(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("size", 2, index.size());
+        assertEquals("a", List.of(new Setting.ExampleValue("b", null)), index.get("a").exampleValues);
+        assertEquals("c", new Setting("c", "d", "e"), index.get("c"));
+    }
+}
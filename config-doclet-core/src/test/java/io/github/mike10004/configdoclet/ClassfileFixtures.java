@@ -0,0 +1,26 @@
+package io.github.mike10004.configdoclet;
+
+/**
+ * Class whose compiled form is read in tests of the classfile reader.
+ */
+@SuppressWarnings("unused")
+class ClassfileFixtures {
+
+    public static final boolean BOOLEAN_CONSTANT = true;
+    public static final char CHAR_CONSTANT = 'x';
+    public static final byte BYTE_CONSTANT = -7;
+    public static final short SHORT_CONSTANT = 1234;
+    public static final int INT_CONSTANT = 42;
+    public static final long LONG_CONSTANT = 9_000_000_000L;
+    public static final float FLOAT_CONSTANT = 1.5f;
+    public static final double DOUBLE_CONSTANT = -0.25;
+    public static final String STRING_CONSTANT = "café ☃ 😀 \u0000";
+
+    public static final Object NOT_A_CONSTANT = "not constant";
+    public final int instanceField = 3;
+    public static final String COMPUTED = String.valueOf(5);
+
+    static class Nested {
+        static final String NESTED_CONSTANT = "nested";
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.mike10004.configdoclet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ClassfileLinkResolverTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Path getTestClassesDirectory() throws Exception {
+        return Paths.get(ClassfileFixtures.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private File buildJar(Class<?>... classes) throws Exception {
+        File jarFile = temporaryFolder.newFile("fixtures.jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jarFile))) {
+            for (Class<?> clazz : classes) {
+                out.putNextEntry(new ZipEntry(clazz.getName().replace('.', '/') + ".class"));
+                out.write(ClassfileReaderTest.loadClassfile(clazz));
+                out.closeEntry();
+            }
+        }
+        return jarFile;
+    }
+
+    private static void checkResolution(ClassfileLinkResolver resolver) {
+        String className = ClassfileFixtures.class.getName();
+        assertEquals(42, resolver.resolveConstantValue(null, className + "#INT_CONSTANT"));
+        assertEquals(true, resolver.resolveConstantValue(null, className + "#BOOLEAN_CONSTANT"));
+        assertEquals("nested", resolver.resolveConstantValue(null, className + ".Nested#NESTED_CONSTANT"));
+        assertNull(resolver.resolveConstantValue(null, className + "#COMPUTED"));
+        assertNull(resolver.resolveConstantValue(null, className + "#NO_SUCH_FIELD"));
+        assertNull(resolver.resolveConstantValue(null, "com.example.NoSuchClass#INT_CONSTANT"));
+    }
+
+    @Test
+    public void resolveConstantValue_directory() throws Exception {
+        try (ClassfileLinkResolver resolver = new ClassfileLinkResolver(Collections.singletonList(getTestClassesDirectory()))) {
+            checkResolution(resolver);
+        }
+    }
+
+    @Test
+    public void resolveConstantValue_jar() throws Exception {
+        File jarFile = buildJar(ClassfileFixtures.class, ClassfileFixtures.Nested.class);
+        List<Path> classpath = Arrays.asList(temporaryFolder.getRoot().toPath().resolve("nonexistent.jar"), jarFile.toPath());
+        try (ClassfileLinkResolver resolver = new ClassfileLinkResolver(classpath)) {
+            checkResolution(resolver);
+        }
+    }
+
+    @Test
+    public void resolveConstantValue_unreadable() throws Exception {
+        File jarFile = buildJar(ClassfileFixtures.class);
+        byte[] jarBytes = Files.readAllBytes(jarFile.toPath());
+        String entryName = ClassfileFixtures.class.getName().replace('.', '/') + ".class";
+        // overwrite the start of the entry's compressed data, which follows its 30-byte local header and name
+        Arrays.fill(jarBytes, 30 + entryName.length(), 30 + entryName.length() + 16, (byte) 0xFF);
+        Files.write(jarFile.toPath(), jarBytes);
+        List<String> failures = new ArrayList<>();
+        try (ClassfileLinkResolver resolver = new ClassfileLinkResolver(Collections.singletonList(jarFile.toPath()), (internalName, e) -> failures.add(internalName))) {
+            assertNull(resolver.resolveConstantValue(null, ClassfileFixtures.class.getName() + "#INT_CONSTANT"));
+            assertNull(resolver.resolveConstantValue(null, ClassfileFixtures.class.getName() + "#BOOLEAN_CONSTANT"));
+        }
+        assertEquals("failures reported once", Collections.singletonList(entryName.replace(".class", "")), failures);
+    }
+
+    @Test
+    public void toInternalNames() {
+        assertEquals(Arrays.asList("a/b/C/D", "a/b/C$D", "a/b$C$D", "a$b$C$D"), ClassfileLinkResolver.toInternalNames("a.b.C.D"));
+        assertEquals(Collections.singletonList("C"), ClassfileLinkResolver.toInternalNames("C"));
+    }
+
+    @Test
+    public void launch_linkTargetOnlyInClassfile() throws Exception {
+        Path root = temporaryFolder.newFolder().toPath();
+        Tests.writeSource(root, "com/example/Settings.java",
+                "package com.example;",
+                "class Settings {",
+                "    /**",
+                "     * Setting with a default linked to a compiled class.",
+                "     * @cfg.default {@link com.example.other.Defaults#NUM_WIDGETS}",
+                "     */",
+                "    static final String CFG_NUM_WIDGETS = \"app.numWidgets\";",
+                "}");
+        Path defaultsSource = Tests.writeSource(temporaryFolder.newFolder().toPath(), "com/example/other/Defaults.java",
+                "package com.example.other;",
+                "public class Defaults {",
+                "    public static final int NUM_WIDGETS = 42;",
+                "}");
+        Path classesDir = temporaryFolder.newFolder().toPath();
+        int compilerExitCode = ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", classesDir.toString(), defaultsSource.toString());
+        assertEquals("compiler exit code", 0, compilerExitCode);
+        ConfigSetting[] settings = Tests.launch(temporaryFolder, root, ConfigDoclet.OPT_LINK_CLASSPATH, classesDir.toString()).settings;
+        assertEquals("num settings", 1, settings.length);
+        assertEquals("default resolved from classfile", "42", settings[0].defaultValue);
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.mike10004.configdoclet;
+
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ClassfileReaderTest {
+
+    static byte[] loadClassfile(Class<?> clazz) throws Exception {
+        String resourceName = "/" + clazz.getName().replace('.', '/') + ".class";
+        try (InputStream in = clazz.getResourceAsStream(resourceName)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    public void read() throws Exception {
+        ClassfileReader.ClassConstants classConstants = ClassfileReader.read(ByteBuffer.wrap(loadClassfile(ClassfileFixtures.class)));
+        assertEquals("internal name", "io/github/mike10004/configdoclet/ClassfileFixtures", classConstants.internalName);
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("BOOLEAN_CONSTANT", ClassfileFixtures.BOOLEAN_CONSTANT);
+        expected.put("CHAR_CONSTANT", ClassfileFixtures.CHAR_CONSTANT);
+        expected.put("BYTE_CONSTANT", ClassfileFixtures.BYTE_CONSTANT);
+        expected.put("SHORT_CONSTANT", ClassfileFixtures.SHORT_CONSTANT);
+        expected.put("INT_CONSTANT", ClassfileFixtures.INT_CONSTANT);
+        expected.put("LONG_CONSTANT", ClassfileFixtures.LONG_CONSTANT);
+        expected.put("FLOAT_CONSTANT", ClassfileFixtures.FLOAT_CONSTANT);
+        expected.put("DOUBLE_CONSTANT", ClassfileFixtures.DOUBLE_CONSTANT);
+        expected.put("STRING_CONSTANT", ClassfileFixtures.STRING_CONSTANT);
+        assertEquals("constants", expected, classConstants.constants);
+    }
+
+    @Test
+    public void read_nested() throws Exception {
+        ClassfileReader.ClassConstants classConstants = ClassfileReader.read(ByteBuffer.wrap(loadClassfile(ClassfileFixtures.Nested.class)));
+        assertEquals("internal name", "io/github/mike10004/configdoclet/ClassfileFixtures$Nested", classConstants.internalName);
+        assertEquals("constants", Map.of("NESTED_CONSTANT", "nested"), classConstants.constants);
+    }
+
+    @Test(expected = ClassfileReader.ClassfileFormatException.class)
+    public void read_notClassfile() {
+        ClassfileReader.read(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test(expected = ClassfileReader.ClassfileFormatException.class)
+    public void read_truncated() throws Exception {
+        byte[] bytes = loadClassfile(ClassfileFixtures.class);
+        ClassfileReader.read(ByteBuffer.wrap(bytes, 0, 64).slice());
+    }
+}
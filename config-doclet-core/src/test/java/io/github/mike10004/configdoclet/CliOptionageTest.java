@@ -35,4 +35,24 @@ public class CliOptionageTest {
         assertEquals("conflicts", Collections.emptyList(), conflicts);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getOptionStrings_alias() {
+        CliOptionage optionage = CliOptionage.standard();
+        Doclet.Option option = optionage.getSupportedOptions().stream()
+                .filter(opt -> opt.getNames().contains(ConfigDoclet.OPT_SORT_ORDER))
+                .findFirst().get();
+        assertTrue("has alias", option.getNames().size() > 1);
+        String alias = option.getNames().get(option.getNames().size() - 1);
+        assertNull(optionage.getOptionStrings(ConfigDoclet.OPT_SORT_ORDER));
+        option.process(alias, Collections.singletonList("natural"));
+        for (String name : option.getNames()) {
+            assertEquals(name, Collections.singletonList("natural"), optionage.getOptionStrings(name));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getOptionStrings_unsupported() {
+        CliOptionage.standard().getOptionStrings("--not-an-option");
+    }
+
+}
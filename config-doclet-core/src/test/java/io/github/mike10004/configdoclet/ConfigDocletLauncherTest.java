@@ -0,0 +1,48 @@
+package io.github.mike10004.configdoclet;
+
+import io.github.mike10004.configdoclet.tests.SampleProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ConfigDocletLauncherTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void run_linkTargetOutsideCandidates() throws Exception {
+        Path root = SourcePrescannerTest.prepareLinkingProject(temporaryFolder.newFolder().toPath());
+        ConfigSetting[] settings = Tests.launch(temporaryFolder, root).settings;
+        assertEquals("num settings", 1, settings.length);
+        assertEquals("key", "app.numWidgets", settings[0].key);
+        assertEquals("default resolved from linked file", "42", settings[0].defaultValue);
+        assertEquals("description with link resolved from linked file",
+                "Setting with a linked default. At most Limits#MAX_WIDGETS (100) .",
+                settings[0].description.replaceAll("\\s+", " "));
+    }
+
+    @Test
+    public void run_sampleProject() throws Exception {
+        Path projectDir = temporaryFolder.newFolder().toPath();
+        SampleProject.getDefault().copyTestProject(projectDir);
+        ConfigSetting[] prescanned = Tests.launch(temporaryFolder, projectDir.resolve("src/main/java")).settings;
+        ConfigSetting[] unscanned = Tests.launch(temporaryFolder, projectDir.resolve("src/main/java"), ConfigDocletLauncher.OPT_NO_PRESCAN).settings;
+        assertEquals("same output with and without prescan", Arrays.asList(unscanned), Arrays.asList(prescanned));
+    }
+
+    @Test
+    public void findArgValue() {
+        List<String> args = Arrays.asList("-private", "--field-names=A_*", "-encoding", "UTF-8");
+        assertEquals("A_*", ConfigDocletLauncher.findArgValue(args, ConfigDoclet.OPT_FIELD_NAME_PATTERN, null));
+        assertEquals("UTF-8", ConfigDocletLauncher.findArgValue(args, "-encoding", null));
+        assertNull(ConfigDocletLauncher.findArgValue(args, ConfigDoclet.OPT_FIELD_NAME_REGEX, null));
+    }
+}
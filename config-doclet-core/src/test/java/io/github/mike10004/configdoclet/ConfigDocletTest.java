@@ -1,12 +1,17 @@
 package io.github.mike10004.configdoclet;
 
-import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Ordering;
-import com.google.common.io.CharSource;
 import com.google.common.io.Resources;
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.mike10004.configdoclet.runtime.KeySet;
 import io.github.mike10004.configdoclet.tests.SampleProject;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.text.StringEscapeUtils;
@@ -15,16 +20,17 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
-import java.io.Reader;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,10 +38,8 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -44,6 +48,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class ConfigDocletTest {
@@ -281,43 +286,99 @@ public class ConfigDocletTest {
         assertEquals("settings[0].key", "wacky.setting.name", settings[0].key);
     }
 
-    private static final String SYSPROP_DUMP_PARSED_DEPENDENCIES = "configdoclet.build.tests.dumpClasspath";
-
-    private static boolean isDumpParsedDependencies() {
-        return Boolean.parseBoolean(System.getProperty(SYSPROP_DUMP_PARSED_DEPENDENCIES, "false"));
+    @Test
+    public void customTags() throws Exception {
+        String[] args = {
+                ConfigDoclet.OPT_OUTPUT_FORMAT, ConfigDoclet.OUTPUT_FORMAT_JSON,
+                ConfigDoclet.OPT_CUSTOM_TAGS + "=@cfg.type"
+        };
+        String output = execute(args);
+        ConfigSetting[] settings = new Gson().fromJson(output, ConfigSetting[].class);
+        ConfigSetting message = Stream.of(settings).filter(setting -> "app.message".equals(setting.key)).findFirst().get();
+        assertEquals("attributes", Collections.singletonMap("type", "string"), message.attributes);
+        ConfigSetting destination = Stream.of(settings).filter(setting -> "app.destination".equals(setting.key)).findFirst().get();
+        assertNull("attributes absent", destination.attributes);
     }
 
-    private static final Supplier<String> classpathSupplier = Suppliers.memoize(() -> {
-        URL depsResource = ConfigDocletTest.class.getResource("/dependencies.txt");
-        CharSource cs = Resources.asCharSource(depsResource, UTF_8);
-        List<MavenRepositoryItem> repoItems;
-        try (Reader reader = cs.openStream()) {
-            repoItems = new MavenDependencyListParser().parseList(reader);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        if (isDumpParsedDependencies()) {
-            try {
-                System.out.format("%s:%n%n", depsResource);
-                cs.copyTo(System.out);
-                System.out.format("%n%n%n");
-                repoItems.forEach(item -> System.out.format("%s%n", item));
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+    @Test
+    public void emitKeySet() throws Exception {
+        Path keySetFile = temporaryFolder.getRoot().toPath().resolve("classes").resolve(KeySet.RESOURCE_PATH);
+        String output = execute(new String[]{
+                ConfigDoclet.OPT_OUTPUT_FORMAT, ConfigDoclet.OUTPUT_FORMAT_JSON,
+                ConfigDoclet.OPT_EMIT_KEY_SET, keySetFile.toString(),
+        });
+        ConfigSetting[] settings = new Gson().fromJson(output, ConfigSetting[].class);
+        KeySet keySet;
+        try (InputStream in = new BufferedInputStream(java.nio.file.Files.newInputStream(keySetFile))) {
+            keySet = KeySet.read(in);
         }
-        String docletPart = new File(Tests.config().get("project.build.outputDirectory")).getAbsolutePath();
-        Stream<String> cpComponents = repoItems.stream()
-                .map(item -> item.artifactPathname)
-                .filter(Objects::nonNull)
-                .map(File::getAbsolutePath);
-        String cp = Stream.concat(Stream.of(docletPart), cpComponents)
-                .collect(Collectors.joining(File.pathSeparator));
-        if (isDumpParsedDependencies()) {
-            System.out.format("classpath: %s%n", cp);
+        assertEquals("keys", Stream.of(settings).map(s -> s.key).collect(Collectors.toSet()), new HashSet<>(keySet.keys()));
+    }
+
+    @Test
+    public void boundedMemory() throws Exception {
+        String[] args = {ConfigDoclet.OPT_OUTPUT_FORMAT, ConfigDoclet.OUTPUT_FORMAT_JSON};
+        List<ConfigSetting> unbounded = Arrays.asList(new Gson().fromJson(execute(args), ConfigSetting[].class));
+        String[] boundedArgs = Stream.concat(Stream.of(args), Stream.of(ConfigDoclet.OPT_MAX_SETTINGS_IN_MEMORY, "2")).toArray(String[]::new);
+        List<ConfigSetting> bounded = Arrays.asList(new Gson().fromJson(execute(boundedArgs), ConfigSetting[].class));
+        assertTrue("sample project has more settings than the maximum", unbounded.size() > 2);
+        assertEquals("same output with bounded memory", unbounded, bounded);
+    }
+
+    @Test
+    public void jfrEvents() throws Exception {
+        Path recordingFile = temporaryFolder.getRoot().toPath().resolve("doclet.jfr");
+        String output;
+        try (Recording recording = new Recording()) {
+            recording.enable(FlightRecorderObserver.EVENT_NAME_PREFIX + "Phase");
+            recording.enable(FlightRecorderObserver.EVENT_NAME_PREFIX + "Setting");
+            recording.start();
+            output = execute(new String[]{
+                    ConfigDoclet.OPT_OUTPUT_FORMAT, ConfigDoclet.OUTPUT_FORMAT_JSON,
+                    ConfigDoclet.OPT_JFR_EVENTS, ConfigDoclet.JFR_EVENTS_SETTINGS,
+            });
+            recording.stop();
+            recording.dump(recordingFile);
         }
-        return cp;
-    });
+        ConfigSetting[] settings = new Gson().fromJson(output, ConfigSetting[].class);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        List<String> phases = events.stream()
+                .filter(e -> e.getEventType().getName().endsWith("Phase"))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .map(e -> e.getString("phase"))
+                .collect(Collectors.toList());
+        assertEquals("phases", Arrays.asList("discovery", "filtering", "extraction", "output"), phases);
+        List<RecordedEvent> settingEvents = events.stream()
+                .filter(e -> e.getEventType().getName().endsWith("Setting"))
+                .collect(Collectors.toList());
+        assertEquals("setting event keys", Stream.of(settings).map(s -> s.key).collect(Collectors.toSet()),
+                settingEvents.stream().map(e -> e.getString("key")).collect(Collectors.toSet()));
+        RecordedEvent destination = settingEvents.stream().filter(e -> "app.destination".equals(e.getString("key"))).findFirst().get();
+        assertEquals("element", "com.example.App#CFG_DESTINATION", destination.getString("element"));
+        assertTrue("output bytes", destination.getLong("outputBytes") > 0);
+    }
+
+    @Test
+    public void metricsFile() throws Exception {
+        Path metricsFile = temporaryFolder.getRoot().toPath().resolve("metrics").resolve("doclet-metrics.json");
+        String output = execute(new String[]{
+                ConfigDoclet.OPT_OUTPUT_FORMAT, ConfigDoclet.OUTPUT_FORMAT_JSON,
+                ConfigDoclet.OPT_PROFILE,
+                ConfigDoclet.OPT_METRICS_FILE, metricsFile.toString(),
+                ConfigDoclet.OPT_SLOWEST_ELEMENTS, "3",
+        });
+        ConfigSetting[] settings = new Gson().fromJson(output, ConfigSetting[].class);
+        JsonObject metrics = new JsonParser().parse(new String(java.nio.file.Files.readAllBytes(metricsFile), UTF_8)).getAsJsonObject();
+        JsonArray phases = metrics.getAsJsonArray("phases");
+        List<String> phaseNames = new ArrayList<>();
+        phases.forEach(phase -> phaseNames.add(phase.getAsJsonObject().get("phase").getAsString()));
+        assertEquals("phases", Arrays.asList("discovery", "filtering", "extraction", "output"), phaseNames);
+        assertEquals("settings extracted", settings.length, phases.get(2).getAsJsonObject().get("elementCount").getAsInt());
+        JsonObject totals = metrics.getAsJsonObject("totals");
+        assertTrue("wall time", totals.get("wallNanos").getAsLong() > 0);
+        assertTrue("allocated", totals.get("allocatedBytes").getAsLong() > 0);
+        assertTrue("peak heap", totals.get("peakHeapBytes").getAsLong() > 0);
+    }
 
     private String execute(String[] moreArgs) throws Exception  {
         return execute(moreArgs, new String[]{"com.example"});
@@ -329,7 +390,7 @@ public class ConfigDocletTest {
         File sourcepath = prepareProject().toPath().resolve("src/main/java").toFile();
         System.out.format("using sourcepath %s%n", sourcepath);
         checkState(sourcepath.isDirectory(), "not a directory: %s", sourcepath);
-        String docletClasspath = classpathSupplier.get();
+        String docletClasspath = Tests.getDocletClasspath();
         File outputDir = temporaryFolder.newFolder();
         System.out.format("docletClasspath = %s%n", docletClasspath);
         System.setProperty(ConfigDoclet.SYSPROP_PRINT_EXTRA_DIAGNOSTICS, String.valueOf(PRINT_EXTRA_DIAGNOSTICS));
@@ -377,7 +438,7 @@ public class ConfigDocletTest {
                             && field.getName().startsWith("TAG_");
                 }).collect(Collectors.toList());
         ConfigDoclet doclet = new ConfigDoclet();
-        Set<String> actionableTagsByDefault = doclet.buildActionableTagSet();
+        Set<String> actionableTagsByDefault = doclet.buildTagRegistry(new SimpleRenderer(), new SimpleRenderer()).getTagNames();
         List<String> values = cfgConstants.stream().map(f -> {
             boolean acc = f.canAccess(null);
             try {
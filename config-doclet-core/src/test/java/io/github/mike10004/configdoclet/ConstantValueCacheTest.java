@@ -0,0 +1,194 @@
+package io.github.mike10004.configdoclet;
+
+import org.easymock.EasyMock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ConstantValueCacheTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void resolve() {
+        List<String> queried = new ArrayList<>();
+        Map<String, Object> constants = Map.of(
+                "com.example.Defaults#NUM_WIDGETS", 42,
+                "com.example.Limits#MAX_WIDGETS", 100,
+                "com.other.Limits#MAX_WIDGETS", 200);
+        LinkResolver resolver = new LinkResolver() {
+            @Nullable
+            @Override
+            public VariableElement resolve(Element context, String signature) {
+                return null;
+            }
+
+            @Nullable
+            @Override
+            public Object resolveConstantValue(Element context, String signature) {
+                queried.add(signature);
+                return constants.get(signature);
+            }
+        };
+        VariableElement a1 = mockField(), a2 = mockField(), b = mockField();
+        TypeElement typeA = EasyMock.createNiceMock(TypeElement.class), typeB = EasyMock.createNiceMock(TypeElement.class);
+        PackageElement packageA = mockPackage("com.example"), packageB = mockPackage("com.other");
+        EasyMock.expect(typeA.getEnclosingElement()).andReturn(packageA).anyTimes();
+        EasyMock.expect(typeB.getEnclosingElement()).andReturn(packageB).anyTimes();
+        EasyMock.expect(a1.getEnclosingElement()).andReturn(typeA).anyTimes();
+        EasyMock.expect(a2.getEnclosingElement()).andReturn(typeA).anyTimes();
+        EasyMock.expect(b.getEnclosingElement()).andReturn(typeB).anyTimes();
+        EasyMock.replay(a1, a2, b, typeA, typeB, packageA, packageB);
+        ConstantValueCache cache = new ConstantValueCache(resolver);
+        assertEquals("42", cache.resolve(a1, "com.example.Defaults#NUM_WIDGETS"));
+        assertEquals("42", cache.resolve(a2, "com.example.Defaults#NUM_WIDGETS"));
+        assertEquals("42", cache.resolve(b, "com.example.Defaults#NUM_WIDGETS"));
+        assertEquals("100", cache.resolve(a1, "Limits#MAX_WIDGETS"));
+        assertEquals("100", cache.resolve(a2, "Limits#MAX_WIDGETS"));
+        assertEquals("type in other package", "200", cache.resolve(b, "Limits#MAX_WIDGETS"));
+        assertNull(cache.resolve(a1, "com.example.Defaults#ABSENT"));
+        assertNull(cache.resolve(a2, "com.example.Defaults#ABSENT"));
+        assertEquals("resolver queries", Arrays.asList(
+                "com.example.Defaults#NUM_WIDGETS",
+                "com.example.Limits#MAX_WIDGETS",
+                "com.other.Limits#MAX_WIDGETS",
+                "com.example.Defaults#ABSENT"), queried);
+        assertEquals("hits", 4, cache.getHitCount());
+        assertEquals("misses", 4, cache.getMissCount());
+    }
+
+    private static PackageElement mockPackage(String qualifiedName) {
+        PackageElement pkg = EasyMock.createNiceMock(PackageElement.class);
+        EasyMock.expect(pkg.getKind()).andReturn(ElementKind.PACKAGE).anyTimes();
+        EasyMock.expect(pkg.getQualifiedName()).andReturn(new SimpleName(qualifiedName)).anyTimes();
+        return pkg;
+    }
+
+    @Test
+    public void launch_valueTags() throws Exception {
+        Path root = temporaryFolder.newFolder().toPath();
+        Tests.writeSource(root, "com/example/Values.java",
+                "package com.example;",
+                "class Values {",
+                "    static final int MAX_VALUES = 7;",
+                "    /**",
+                "     * Setting with at most {@value #MAX_VALUES} values, or {@value com.example.other.Defaults#NUM_VALUES} by default,",
+                "     * and at most {@value Limits#MAX_WIDGETS} widgets.",
+                "     * @cfg.default {@value #MAX_VALUES}",
+                "     */",
+                "    static final String CFG_VALUES = \"app.values\";",
+                "    /** Setting whose key is {@value}. */",
+                "    static final String CFG_SELF = \"app.self\";",
+                "}");
+        Tests.writeSource(root, "com/example/Limits.java",
+                "package com.example;",
+                "class Limits {",
+                "    static final int MAX_WIDGETS = 100;",
+                "}");
+        Tests.writeSource(root, "com/example/other/Defaults.java",
+                "package com.example.other;",
+                "public class Defaults {",
+                "    public static final int NUM_VALUES = 3;",
+                "}");
+        Map<String, ConfigSetting> settings = Arrays.stream(Tests.launch(temporaryFolder, root).settings).collect(Collectors.toMap(s -> s.key, s -> s));
+        ConfigSetting values = settings.get("app.values");
+        assertEquals("description", "Setting with at most 7 values, or 3 by default, and at most 100 widgets.", values.description.replaceAll("\\s+", " "));
+        assertEquals("default", "7", values.defaultValue);
+        assertEquals("self", "Setting whose key is app.self .", settings.get("app.self").description.replaceAll("\\s+", " "));
+    }
+
+    @Test
+    public void launch_importedType() throws Exception {
+        Path root = temporaryFolder.newFolder().toPath();
+        Tests.writeSource(root, "com/example/App.java",
+                "package com.example;",
+                "import com.example.defaults.Defaults;",
+                "class App {",
+                "    /**",
+                "     * Timeout, retried at most {@value Defaults#RETRIES} times,",
+                "     * with {@value Nesting.Inner#BACKOFF} ms between tries.",
+                "     * @cfg.default {@link Defaults#TIMEOUT}",
+                "     */",
+                "    static final String CFG_TIMEOUT = \"app.timeout\";",
+                "}");
+        Tests.writeSource(root, "com/example/Defaults.java",
+                "package com.example;",
+                "class Defaults {",
+                "    static final int TIMEOUT = -1;",
+                "    static final int RETRIES = -1;",
+                "}");
+        Tests.writeSource(root, "com/example/Nesting.java",
+                "package com.example;",
+                "class Nesting {",
+                "    static class Inner {",
+                "        static final int BACKOFF = 250;",
+                "    }",
+                "}");
+        Tests.writeSource(root, "com/example/defaults/Defaults.java",
+                "package com.example.defaults;",
+                "public class Defaults {",
+                "    public static final int TIMEOUT = 30;",
+                "    public static final int RETRIES = 5;",
+                "}");
+        ConfigSetting[] settings = Tests.launch(temporaryFolder, root).settings;
+        assertEquals("num settings", 1, settings.length);
+        assertEquals("default", "30", settings[0].defaultValue);
+        assertEquals("description", "Timeout, retried at most 5 times, with 250 ms between tries.", settings[0].description.replaceAll("\\s+", " "));
+    }
+
+    private static final class SimpleName implements Name {
+
+        private final String value;
+
+        SimpleName(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean contentEquals(CharSequence cs) {
+            return value.contentEquals(cs);
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return value.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return value.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    private static VariableElement mockField() {
+        return EasyMock.createMock(VariableElement.class);
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DiagnosticsAggregatorTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void record() {
+        DiagnosticsAggregator diagnostics = new DiagnosticsAggregator(2, false);
+        assertNull(diagnostics.formatSummary());
+        for (int i = 0; i < 5; i++) {
+            diagnostics.record(Diagnostic.Kind.NOTE, "no comment", "Foo.A" + i);
+        }
+        diagnostics.record(Diagnostic.Kind.WARNING, "no key", "Foo.B");
+        assertEquals(6, diagnostics.getTotalCount());
+        assertEquals(5, diagnostics.getCount("no comment"));
+        assertEquals(Arrays.asList("Foo.A0", "Foo.A1"), diagnostics.getExamples("no comment"));
+        assertEquals(Diagnostic.Kind.WARNING, diagnostics.getMostSevereKind());
+        String summary = diagnostics.formatSummary();
+        System.out.println(summary);
+        assertTrue(summary, summary.contains("no comment: 5 (e.g. Foo.A0, Foo.A1, ...)"));
+        assertTrue(summary, summary.contains("no key: 1 (e.g. Foo.B)"));
+    }
+
+    @Test
+    public void writeReport() throws Exception {
+        DiagnosticsAggregator diagnostics = new DiagnosticsAggregator(1, true);
+        diagnostics.record(Diagnostic.Kind.NOTE, "no comment", "Foo.A");
+        diagnostics.record(Diagnostic.Kind.NOTE, "no comment", "Foo.B");
+        Path file = temporaryFolder.getRoot().toPath().resolve("reports/diagnostics.json");
+        diagnostics.writeReport(file);
+        JsonObject report = new JsonParser().parse(new String(Files.readAllBytes(file), UTF_8)).getAsJsonObject();
+        assertEquals(2, report.getAsJsonObject("counts").get("no comment").getAsInt());
+        assertEquals(2, report.getAsJsonArray("diagnostics").size());
+        assertEquals("Foo.B", report.getAsJsonArray("diagnostics").get(1).getAsJsonObject().get("element").getAsString());
+    }
+
+    @Test
+    public void writeReport_notRetained() throws Exception {
+        DiagnosticsAggregator diagnostics = new DiagnosticsAggregator(1, false);
+        diagnostics.record(Diagnostic.Kind.NOTE, "no comment", "Foo.A");
+        Path file = temporaryFolder.newFile().toPath();
+        diagnostics.writeReport(file);
+        JsonObject report = new JsonParser().parse(new String(Files.readAllBytes(file), UTF_8)).getAsJsonObject();
+        assertFalse(report.has("diagnostics"));
+    }
+
+    @Test
+    public void launch_summaryKind() throws Exception {
+        Path root = temporaryFolder.newFolder().toPath();
+        Tests.writeSource(root, "com/example/Tags.java",
+                "package com.example;",
+                "class Tags {",
+                "    /**",
+                "     * Setting with an unsupported tag.",
+                "     * @cfg.bogus whatever",
+                "     */",
+                "    static final String CFG_TAGGED = \"app.tagged\";",
+                "}");
+        String output = Tests.launch(temporaryFolder, root).output;
+        assertTrue("summary reported as warning", output.contains("warning: 1 element diagnostic(s):"));
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.mike10004.configdoclet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EmbeddedSettingsTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void writeAndRead() throws Exception {
+        List<ConfigSetting> first = Arrays.asList(ConfigSetting.builder("a.b").defaultValue("1").build(),
+                ConfigSetting.builder("a.c").description("C").build());
+        List<ConfigSetting> second = Arrays.asList(ConfigSetting.builder("z").exampleValue("x").build());
+        Path dir = temporaryFolder.newFolder().toPath();
+        Path written = new EmbeddedSettings().write(dir, first);
+        assertEquals(dir.resolve(EmbeddedSettings.RESOURCE_PATH_JSON), written);
+        File jarFile = temporaryFolder.newFile("embedded.jar");
+        Path jarContentDir = temporaryFolder.newFolder().toPath();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jarFile))) {
+            out.putNextEntry(new ZipEntry("com/example/Foo.class"));
+            out.write(new byte[]{1, 2, 3});
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry(EmbeddedSettings.RESOURCE_PATH_JSON));
+            out.write(Files.readAllBytes(new EmbeddedSettings().write(jarContentDir, second)));
+            out.closeEntry();
+        }
+        File notAnArchive = temporaryFolder.newFile("not-an-archive.jar");
+        Path emptyDir = temporaryFolder.newFolder().toPath();
+        List<Path> classpath = Arrays.asList(emptyDir, dir, notAnArchive.toPath(), jarFile.toPath(), temporaryFolder.getRoot().toPath().resolve("nonexistent"));
+        EmbeddedSettings.Result result = new EmbeddedSettings().read(classpath);
+        assertEquals("sources", Arrays.asList(dir, jarFile.toPath()), result.sources);
+        assertEquals("settings", Arrays.asList(first.get(0), first.get(1), second.get(0)), result.settings);
+    }
+
+    @Test
+    public void launch_embedAndAppendClasspathSettings() throws Exception {
+        Path upstreamRoot = temporaryFolder.newFolder().toPath();
+        Tests.writeSource(upstreamRoot, "com/example/up/Config.java",
+                "package com.example.up;",
+                "class Config {",
+                "    /**",
+                "     * Upstream setting.",
+                "     * @cfg.default 42",
+                "     */",
+                "    static final String CFG_UP = \"up.setting\";",
+                "}");
+        Path upstreamClassesDir = temporaryFolder.newFolder().toPath();
+        ConfigSetting[] upstream = Tests.launch(temporaryFolder, upstreamRoot, ConfigDoclet.OPT_EMBED_SETTINGS, upstreamClassesDir.toString()).settings;
+        assertTrue("embedded", Files.isRegularFile(upstreamClassesDir.resolve(EmbeddedSettings.RESOURCE_PATH_JSON)));
+        Path downstreamRoot = temporaryFolder.newFolder().toPath();
+        Tests.writeSource(downstreamRoot, "com/example/down/Config.java",
+                "package com.example.down;",
+                "class Config {",
+                "    /** Downstream setting. */",
+                "    static final String CFG_DOWN = \"down.setting\";",
+                "}");
+        ConfigSetting[] downstream = Tests.launch(temporaryFolder, downstreamRoot, "-classpath", upstreamClassesDir.toString(), ConfigDoclet.OPT_APPEND_CLASSPATH_SETTINGS).settings;
+        List<String> keys = Arrays.stream(downstream).map(s -> s.key).collect(Collectors.toList());
+        assertEquals("keys", Arrays.asList("down.setting", "up.setting"), keys);
+        assertEquals("appended setting", upstream[0], downstream[1]);
+    }
+}
@@ -1,13 +1,18 @@
 package io.github.mike10004.configdoclet;
 
 import com.google.gson.Gson;
+import io.github.mike10004.configdoclet.runtime.Setting;
+import io.github.mike10004.configdoclet.runtime.SettingsIndex;
 import org.junit.Test;
 
 import java.io.PrintWriter;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 
 public class GsonOutputFormatterTest {
@@ -25,4 +30,32 @@ public class GsonOutputFormatterTest {
         ConfigSetting[] deserialized = new Gson().fromJson(sw.toString(), ConfigSetting[].class);
         assertEquals("deserialized", settings, Arrays.asList(deserialized));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void format_readableByRuntimeLibrary() throws Exception {
+        List<ConfigSetting> settings = List.of(
+                ConfigSetting.builder("a.b").defaultValue("x \"y\" \u00e9").sortKey("z").build(),
+                ConfigSetting.builder("a.c").exampleValue(new ConfigSetting.ExampleValue("1", "one")).build()
+        );
+        StringWriter sw = new StringWriter();
+        try (PrintWriter out = new PrintWriter(sw)) {
+            new GsonOutputFormatter().format(settings, out);
+        }
+        SettingsIndex index = SettingsIndex.readJson(new StringReader(sw.toString()));
+        List<Setting> expected = settings.stream().map(BinaryOutputFormatter::toSetting).collect(Collectors.toList());
+        assertEquals("settings", expected, index.settings());
+    }
+
+    @Test
+    public void format_iterator() throws Exception {
+        List<ConfigSetting> settings = List.of(
+                ConfigSetting.builder("a").exampleValue("b").build(),
+                ConfigSetting.builder("c").description("<d>").defaultValue("e").build()
+        );
+        GsonOutputFormatter formatter = new GsonOutputFormatter();
+        ByteBucket listBucket = new ByteBucket(256), iteratorBucket = new ByteBucket(256);
+        formatter.format(settings, listBucket.stream(), UTF_8);
+        formatter.format(settings.iterator(), iteratorBucket.stream(), UTF_8);
+        assertEquals("same output", listBucket.dump(UTF_8), iteratorBucket.dump(UTF_8));
+    }
+}
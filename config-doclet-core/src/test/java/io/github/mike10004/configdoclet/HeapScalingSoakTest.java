@@ -0,0 +1,298 @@
+package io.github.mike10004.configdoclet;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.github.mike10004.configdoclet.tests.SyntheticProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Soak test that runs the doclet in a forked JVM with a fixed maximum heap size over
+ * synthetic projects of increasing size, and checks that memory grows linearly with
+ * the number of settings, by a bounded amount per setting. Each forked JVM records
+ * the peak heap usage and the peak live heap, which is the largest heap usage after a
+ * garbage collection during the doclet run, so it includes everything the doclet and
+ * javadoc hold at once, such as the list of settings, the variable elements, and the
+ * signature caches. A least-squares line is fitted to the peak live heap over all sizes,
+ * and its slope is bounded. The default bound is about 1.2 times the slope measured on
+ * the synthetic project, roughly 8700 bytes per setting, so a structure that retains
+ * another kilobyte or two per setting fails the test. The forked JVM also records the
+ * memory retained by copies of the output settings read back with a string pool, which
+ * is the share of the live heap taken by the settings themselves.
+ * The test is skipped unless system property {@code configdoclet.soak} is true, which
+ * the {@code soak} profile sets.
+ *
+ * <p>System properties:
+ * <ul>
+ *     <li>{@code configdoclet.soak.sizes}: comma-separated setting counts, in increasing
+ *         order (default 500,1000,2000,4000)</li>
+ *     <li>{@code configdoclet.soak.xmx}: maximum heap size of the forked JVMs (default 256m)</li>
+ *     <li>{@code configdoclet.soak.maxLiveBytesPerSetting}: maximum growth of the peak live
+ *         heap per setting, as the slope of the line fitted over all sizes (default 10240)</li>
+ *     <li>{@code configdoclet.soak.maxRetainedBytesPerSetting}: maximum memory retained
+ *         per setting (default 768)</li>
+ * </ul>
+ */
+public class HeapScalingSoakTest {
+
+    static final String SYSPROP_SOAK = "configdoclet.soak";
+    static final String SYSPROP_SIZES = "configdoclet.soak.sizes";
+    static final String SYSPROP_XMX = "configdoclet.soak.xmx";
+    static final String SYSPROP_MAX_LIVE_BYTES_PER_SETTING = "configdoclet.soak.maxLiveBytesPerSetting";
+    static final String SYSPROP_MAX_RETAINED_BYTES_PER_SETTING = "configdoclet.soak.maxRetainedBytesPerSetting";
+
+    /**
+     * Maximum ratio of the largest to the smallest retained bytes per setting across sizes.
+     */
+    private static final double MAX_RETAINED_PER_SETTING_SPREAD = 1.5;
+
+    private static final long FORK_TIMEOUT_MINUTES = 10;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void memoryGrowsLinearly() throws Exception {
+        assumeTrue(SYSPROP_SOAK + " is not true", Boolean.parseBoolean(System.getProperty(SYSPROP_SOAK)));
+        List<Integer> sizes = Arrays.stream(System.getProperty(SYSPROP_SIZES, "500,1000,2000,4000").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .collect(Collectors.toList());
+        String xmx = System.getProperty(SYSPROP_XMX, "256m");
+        long maxLiveBytesPerSetting = Long.getLong(SYSPROP_MAX_LIVE_BYTES_PER_SETTING, 10 * 1024);
+        long maxRetainedBytesPerSetting = Long.getLong(SYSPROP_MAX_RETAINED_BYTES_PER_SETTING, 768);
+        List<Sample> samples = new ArrayList<>();
+        for (int size : sizes) {
+            samples.add(fork(size, xmx));
+        }
+        System.out.format("heap scaling with -Xmx%s (KiB):%n", xmx);
+        System.out.format("  %8s %10s %10s %10s %14s%n", "settings", "peak", "peak live", "retained", "retained/each");
+        samples.forEach(s -> System.out.format("  %8d %10d %10d %10d %14d%n",
+                s.settingCount, s.peakHeapBytes / 1024, s.peakLiveHeapBytes / 1024, s.retainedSettingBytes / 1024, s.retainedSettingBytes / s.settingCount));
+        long liveBytesPerSetting = Math.round(fitSlope(samples));
+        System.out.format("  peak live heap grows by %d bytes per setting%n", liveBytesPerSetting);
+        List<String> violations = new ArrayList<>();
+        if (liveBytesPerSetting > maxLiveBytesPerSetting) {
+            violations.add(String.format("peak live heap grows by %d bytes per setting from %d to %d settings; limit is %d",
+                    liveBytesPerSetting, samples.get(0).settingCount, samples.get(samples.size() - 1).settingCount, maxLiveBytesPerSetting));
+        }
+        long minRetainedPerSetting = Long.MAX_VALUE, maxRetainedPerSetting = 0;
+        for (Sample s : samples) {
+            long perSetting = s.retainedSettingBytes / s.settingCount;
+            minRetainedPerSetting = Math.min(minRetainedPerSetting, perSetting);
+            maxRetainedPerSetting = Math.max(maxRetainedPerSetting, perSetting);
+            if (perSetting > maxRetainedBytesPerSetting) {
+                violations.add(String.format("settings retain %d bytes each at %d settings; limit is %d",
+                        perSetting, s.settingCount, maxRetainedBytesPerSetting));
+            }
+        }
+        if (maxRetainedPerSetting > MAX_RETAINED_PER_SETTING_SPREAD * Math.max(1, minRetainedPerSetting)) {
+            violations.add(String.format("retained bytes per setting range from %d to %d, which is not linear growth",
+                    minRetainedPerSetting, maxRetainedPerSetting));
+        }
+        assertTrue(String.join(System.lineSeparator(), violations), violations.isEmpty());
+    }
+
+    /**
+     * Fits a least-squares line to the peak live heap as a function of the setting count.
+     * @return the slope, in bytes per setting
+     */
+    static double fitSlope(List<Sample> samples) {
+        if (samples.size() < 2) {
+            throw new IllegalArgumentException("at least two sizes are required");
+        }
+        double meanCount = samples.stream().mapToDouble(s -> s.settingCount).average().orElseThrow();
+        double meanLive = samples.stream().mapToDouble(s -> s.peakLiveHeapBytes).average().orElseThrow();
+        double covariance = 0, variance = 0;
+        for (Sample s : samples) {
+            covariance += (s.settingCount - meanCount) * (s.peakLiveHeapBytes - meanLive);
+            variance += (s.settingCount - meanCount) * (s.settingCount - meanCount);
+        }
+        return covariance / variance;
+    }
+
+    private Sample fork(int settingCount, String xmx) throws IOException, InterruptedException {
+        Path sourceRoot = temporaryFolder.newFolder().toPath();
+        SyntheticProject.withSettingCount(settingCount).writeSources(sourceRoot);
+        Path outputDir = temporaryFolder.newFolder().toPath();
+        Path resultFile = outputDir.resolve("soak-result.properties");
+        Path logFile = outputDir.resolve("soak.log");
+        String classpath = String.join(File.pathSeparator,
+                Tests.getDocletClasspath(),
+                new File(Tests.config().get("project.build.testOutputDirectory")).getAbsolutePath());
+        List<String> command = Arrays.asList(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xmx" + xmx,
+                "-XX:+UseSerialGC",
+                // clear softly reachable caches at every collection, so that heap usage after collection is what is strongly reachable
+                "-XX:SoftRefLRUPolicyMSPerMB=0",
+                "-cp", classpath,
+                Fork.class.getName(),
+                sourceRoot.toString(), outputDir.toString(), resultFile.toString());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        if (!process.waitFor(FORK_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new AssertionError("forked JVM timed out on " + settingCount + " settings");
+        }
+        if (process.exitValue() != 0) {
+            System.out.write(Files.readAllBytes(logFile));
+        }
+        assertEquals("exit code of forked JVM with -Xmx" + xmx + " on " + settingCount + " settings", 0, process.exitValue());
+        Properties result = new Properties();
+        try (Reader reader = Files.newBufferedReader(resultFile, UTF_8)) {
+            result.load(reader);
+        }
+        Sample sample = new Sample(Integer.parseInt(result.getProperty("settingCount")),
+                Long.parseLong(result.getProperty("peakHeapBytes")),
+                Long.parseLong(result.getProperty("peakLiveHeapBytes")),
+                Long.parseLong(result.getProperty("retainedSettingBytes")));
+        assertEquals("settings produced", settingCount, sample.settingCount);
+        return sample;
+    }
+
+    static final class Sample {
+
+        public final int settingCount;
+        public final long peakHeapBytes;
+        public final long peakLiveHeapBytes;
+        public final long retainedSettingBytes;
+
+        Sample(int settingCount, long peakHeapBytes, long peakLiveHeapBytes, long retainedSettingBytes) {
+            this.settingCount = settingCount;
+            this.peakHeapBytes = peakHeapBytes;
+            this.peakLiveHeapBytes = peakLiveHeapBytes;
+            this.retainedSettingBytes = retainedSettingBytes;
+        }
+    }
+
+    /**
+     * Program run in the forked JVM. It runs the doclet over a source root, and then
+     * measures the memory retained by the settings in the output, deserialized with
+     * a string pool as the doclet builds them. Arguments are the source root, the
+     * output directory, and the result file.
+     */
+    public static final class Fork {
+
+        private static final int RETAINED_COPIES = 4;
+
+        private Fork() {}
+
+        public static void main(String[] args) throws Exception {
+            Path sourceRoot = Paths.get(args[0]), outputDir = Paths.get(args[1]), resultFile = Paths.get(args[2]);
+            List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                    .collect(Collectors.toList());
+            Set<String> heapPoolNames = heapPools.stream().map(MemoryPoolMXBean::getName).collect(Collectors.toSet());
+            AtomicLong peakLiveHeapBytes = new AtomicLong();
+            NotificationListener listener = (notification, handback) -> {
+                if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                    GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                    long live = info.getGcInfo().getMemoryUsageAfterGc().entrySet().stream()
+                            .filter(entry -> heapPoolNames.contains(entry.getKey()))
+                            .mapToLong(entry -> entry.getValue().getUsed())
+                            .sum();
+                    peakLiveHeapBytes.accumulateAndGet(live, Math::max);
+                }
+            };
+            List<NotificationEmitter> collectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                    .map(NotificationEmitter.class::cast)
+                    .collect(Collectors.toList());
+            collectors.forEach(gc -> gc.addNotificationListener(listener, null, null));
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            String[] docletArgs = {
+                    ConfigDocletLauncher.OPT_SOURCE_ROOT, sourceRoot.toString(),
+                    "-d", outputDir.toString(),
+                    ConfigDoclet.OPT_OUTPUT_FORMAT, ConfigDoclet.OUTPUT_FORMAT_JSON,
+                    ConfigDoclet.OPT_OUTPUT_FILENAME, "settings.json",
+            };
+            int exitCode = new ConfigDocletLauncher(System.out, System.err).run(docletArgs);
+            if (exitCode != 0) {
+                System.exit(exitCode);
+            }
+            long peakHeapBytes = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            // notifications are delivered asynchronously
+            Thread.sleep(250);
+            for (NotificationEmitter gc : collectors) {
+                gc.removeNotificationListener(listener);
+            }
+            Path settingsFile = outputDir.resolve("settings.json");
+            // let the run's garbage settle, and populate the caches of the JSON library, which are not retained by the settings
+            usedHeapAfterCollection();
+            readSettings(settingsFile);
+            // several copies are read, so that the memory they retain stands out from the noise of collection
+            ConfigSetting[][] copies = new ConfigSetting[RETAINED_COPIES][];
+            long withoutSettings = usedHeapAfterCollection();
+            for (int i = 0; i < copies.length; i++) {
+                copies[i] = readSettings(settingsFile);
+            }
+            long withSettings = usedHeapAfterCollection();
+            int settingCount = copies[0].length;
+            long retainedSettingBytes = (withSettings - withoutSettings) / copies.length;
+            Reference.reachabilityFence(copies);
+            Properties result = new Properties();
+            result.setProperty("settingCount", String.valueOf(settingCount));
+            result.setProperty("peakHeapBytes", String.valueOf(peakHeapBytes));
+            result.setProperty("peakLiveHeapBytes", String.valueOf(peakLiveHeapBytes.get()));
+            result.setProperty("retainedSettingBytes", String.valueOf(retainedSettingBytes));
+            try (OutputStream out = Files.newOutputStream(resultFile)) {
+                result.store(out, null);
+            }
+        }
+
+        private static ConfigSetting[] readSettings(Path settingsFile) throws IOException {
+            try (Reader reader = Files.newBufferedReader(settingsFile, UTF_8)) {
+                return new StringPool().createGson().fromJson(reader, ConfigSetting[].class);
+            }
+        }
+
+        /**
+         * Collects garbage until heap usage stops decreasing, which gives the reference
+         * handler time to release objects that are cleaned or finalized, such as those
+         * of the compiler's file manager, and returns the heap usage.
+         */
+        private static long usedHeapAfterCollection() throws InterruptedException {
+            long used = Long.MAX_VALUE;
+            for (int i = 0; i < 10; i++) {
+                System.gc();
+                Thread.sleep(100);
+                long current = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+                if (current >= used) {
+                    break;
+                }
+                used = current;
+            }
+            return used;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.mike10004.configdoclet;
+
+import io.github.mike10004.configdoclet.tests.SampleProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JavaSourceOutputFormatterTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Class<?> generateAndCompile(List<ConfigSetting> settings, String className) throws Exception {
+        StringWriter sw = new StringWriter();
+        try (PrintWriter out = new PrintWriter(sw)) {
+            new JavaSourceOutputFormatter(className).format(settings, out);
+        }
+        String source = sw.toString();
+        if (settings.size() <= 100) {
+            System.out.println(source);
+        }
+        Path sourceDir = temporaryFolder.newFolder().toPath();
+        Path sourceFile = sourceDir.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes(UTF_8));
+        Path classesDir = temporaryFolder.newFolder().toPath();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int exitCode = compiler.run(null, null, null, "-encoding", "UTF-8", "-d", classesDir.toString(), sourceFile.toString());
+        assertEquals("compiler exit code", 0, exitCode);
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{classesDir.toUri().toURL()}, getClass().getClassLoader());
+        return classLoader.loadClass(className);
+    }
+
+    @Test
+    public void format() throws Exception {
+        List<ConfigSetting> settings = Arrays.asList(
+                ConfigSetting.builder("app.numWidgets").description("Number of widgets. See */ and \\u0041 & <b>.").defaultValue("42").build(),
+                ConfigSetting.builder("app.message").description("Message\nwith two lines").defaultValue("Hello, \"world\" é").build(),
+                ConfigSetting.builder("app.enabled").defaultValue("true").build(),
+                ConfigSetting.builder("app.ratio").defaultValue("0.5").build(),
+                ConfigSetting.builder("app.undefined").build(),
+                ConfigSetting.builder("app-num-widgets").build(),
+                ConfigSetting.builder("Aa").build(),
+                ConfigSetting.builder("BB").build(),
+                ConfigSetting.builder("app.message").defaultValue("duplicate").build()
+        );
+        Class<?> clazz = generateAndCompile(settings, "com.example.gen.AppSettings");
+        assertEquals(8, clazz.getField("SIZE").get(null));
+        assertEquals("app.numWidgets", clazz.getField("APP_NUM_WIDGETS").get(null));
+        assertEquals("app-num-widgets", clazz.getField("APP_NUM_WIDGETS_2").get(null));
+        Method indexOf = clazz.getMethod("indexOf", String.class);
+        Method keyAt = clazz.getMethod("keyAt", int.class);
+        Set<Integer> indexes = new HashSet<>();
+        for (ConfigSetting setting : settings) {
+            int index = (Integer) indexOf.invoke(null, setting.key);
+            assertEquals("key at index of " + setting.key, setting.key, keyAt.invoke(null, index));
+            indexes.add(index);
+        }
+        assertEquals("dense indexes", Set.of(0, 1, 2, 3, 4, 5, 6, 7), indexes);
+        assertEquals(-1, indexOf.invoke(null, "app.unknown"));
+        Method getDefault = clazz.getMethod("getDefault", String.class);
+        assertEquals("Hello, \"world\" é", getDefault.invoke(null, "app.message"));
+        assertNull(getDefault.invoke(null, "app.undefined"));
+        Properties properties = new Properties();
+        properties.setProperty("app.numWidgets", "7");
+        assertEquals(7, clazz.getMethod("getInt", Properties.class, String.class).invoke(null, properties, "app.numWidgets"));
+        assertEquals(true, clazz.getMethod("getBoolean", Properties.class, String.class).invoke(null, properties, "app.enabled"));
+        assertEquals(0.5, clazz.getMethod("getDouble", Map.class, String.class).invoke(null, Map.of(), "app.ratio"));
+        assertEquals("x", clazz.getMethod("getString", Map.class, String.class).invoke(null, Map.of("app.undefined", "x"), "app.undefined"));
+    }
+
+    @Test
+    public void format_empty() throws Exception {
+        Class<?> clazz = generateAndCompile(List.of(), "EmptySettings");
+        assertEquals(-1, clazz.getMethod("indexOf", String.class).invoke(null, "a"));
+    }
+
+    /**
+     * Checks that the tables are not written as array initializers, which would make the
+     * class initializer exceed the maximum method size.
+     */
+    @Test
+    public void format_manyKeys() throws Exception {
+        int numKeys = 10000;
+        List<ConfigSetting> settings = new ArrayList<>(numKeys);
+        for (int i = 0; i < numKeys; i++) {
+            ConfigSetting.Builder b = ConfigSetting.builder("app.group" + (i % 97) + ".setting" + i);
+            if (i % 3 != 0) {
+                b.defaultValue("value \u00e9 " + i);
+            }
+            settings.add(b.build());
+        }
+        Class<?> clazz = generateAndCompile(settings, "com.example.gen.ManySettings");
+        assertEquals(numKeys, clazz.getField("SIZE").get(null));
+        Method indexOf = clazz.getMethod("indexOf", String.class);
+        Method getDefault = clazz.getMethod("getDefault", String.class);
+        Set<Integer> indexes = new HashSet<>();
+        for (ConfigSetting setting : settings) {
+            int index = (Integer) indexOf.invoke(null, setting.key);
+            indexes.add(index);
+            assertEquals("default of " + setting.key, setting.defaultValue, getDefault.invoke(null, setting.key));
+        }
+        assertEquals("distinct indexes", numKeys, indexes.size());
+        assertEquals(-1, indexOf.invoke(null, "app.unknown"));
+    }
+
+    @Test
+    public void launch_defaultOptions() throws Exception {
+        Path projectDir = temporaryFolder.newFolder().toPath();
+        SampleProject.getDefault().copyTestProject(projectDir);
+        File outputDir = temporaryFolder.newFolder();
+        String[] args = {
+                ConfigDocletLauncher.OPT_SOURCE_ROOT, projectDir.resolve("src/main/java").toString(),
+                "-d", outputDir.getAbsolutePath(),
+                ConfigDoclet.OPT_OUTPUT_FORMAT, JavaSourceOutputFormatter.OUTPUT_FORMAT_JAVA,
+        };
+        int exitCode = new ConfigDocletLauncher(System.out, System.err).run(args);
+        assertEquals("exit code", 0, exitCode);
+        Path sourceFile = outputDir.toPath().resolve(JavaSourceOutputFormatter.DEFAULT_CLASS_NAME + ".java");
+        assertTrue("output file named after class", Files.isRegularFile(sourceFile));
+        File classesDir = temporaryFolder.newFolder();
+        int compilerExitCode = ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", classesDir.getAbsolutePath(), sourceFile.toString());
+        assertEquals("compiler exit code", 0, compilerExitCode);
+    }
+
+    @Test
+    public void toConstantName() {
+        Set<String> used = new HashSet<>();
+        assertEquals("APP_NUM_WIDGETS", JavaSourceOutputFormatter.toConstantName("app.numWidgets", used));
+        assertEquals("APP_NUM_WIDGETS_2", JavaSourceOutputFormatter.toConstantName("app_num_widgets", used));
+        assertEquals("KEY_1_X", JavaSourceOutputFormatter.toConstantName("1.x", used));
+        assertEquals("KEY", JavaSourceOutputFormatter.toConstantName("...", used));
+        assertEquals("SIZE_2", JavaSourceOutputFormatter.toConstantName("size", used));
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.mike10004.configdoclet;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class KeyTrieTest {
+
+    private static List<ConfigSetting> settings(String...keys) {
+        return Arrays.stream(keys).map(key -> ConfigSetting.builder(key).build()).collect(Collectors.toList());
+    }
+
+    @Test
+    public void build() {
+        KeyTrie trie = KeyTrie.build(settings("app.server", "app.server.host", "app.server.port", "app.name", "other"));
+        KeyTrie.Node root = trie.getRoot();
+        assertEquals("root subtree size", 5, root.getSubtreeSize());
+        List<String> topSegments = root.getChildren().stream().map(KeyTrie.Node::getSegment).collect(Collectors.toList());
+        assertEquals("top-level segments", Arrays.asList("app", "other"), topSegments);
+        KeyTrie.Node app = root.getChildren().iterator().next();
+        assertEquals(4, app.getSubtreeSize());
+        assertEquals(Collections.emptyList(), app.getSettings());
+        KeyTrie.Node server = app.getChildren().iterator().next();
+        assertEquals("app.server", server.getPrefix());
+        assertEquals("leaf that is also a prefix", 1, server.getSettings().size());
+        assertEquals(3, server.getSubtreeSize());
+        List<String> serverChildren = server.getChildren().stream().map(KeyTrie.Node::getPrefix).collect(Collectors.toList());
+        assertEquals(Arrays.asList("app.server.host", "app.server.port"), serverChildren);
+    }
+
+    @Test
+    public void walk() {
+        List<String> visits = new ArrayList<>();
+        KeyTrie trie = KeyTrie.build(settings("a.b.c", "a.d", "e"));
+        trie.walk(new KeyTrie.Visitor() {
+            @Override
+            public void enter(KeyTrie.Node node, int depth) {
+                visits.add("+" + node.getPrefix() + "@" + depth);
+            }
+
+            @Override
+            public void exit(KeyTrie.Node node, int depth) {
+                visits.add("-" + node.getPrefix());
+            }
+        });
+        assertEquals(Arrays.asList("+a@1", "+a.b@2", "+a.b.c@3", "-a.b.c", "-a.b", "+a.d@2", "-a.d", "-a", "+e@1", "-e"), visits);
+    }
+
+    @Test
+    public void emptySegments() {
+        KeyTrie trie = KeyTrie.build(settings("a..b", "a.", ""));
+        List<String> prefixes = new ArrayList<>();
+        trie.walk((node, depth) -> {
+            if (!node.getSettings().isEmpty()) {
+                prefixes.add(node.getPrefix());
+            }
+        });
+        assertEquals(Arrays.asList("a.", "a..b", ""), prefixes);
+    }
+}
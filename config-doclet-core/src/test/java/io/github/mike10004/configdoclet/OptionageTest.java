@@ -7,6 +7,7 @@ import org.junit.Test;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -46,6 +47,26 @@ public class OptionageTest {
         assertBoolEquals(composed, "boolean in both", "-booloption4", true);
     }
 
+    @Test
+    public void snapshot() {
+        Map<String, String> sysprops = new HashMap<>();
+        sysprops.put("configdoclet.footer", "a");
+        CliOptionage cli = CliOptionage.standard();
+        Optionage composed = Optionage.compose(cli, new PropertyOptionage(sysprops::get, "configdoclet."));
+        Doclet.Option header = cli.getSupportedOptions().stream()
+                .filter(opt -> opt.getNames().contains(ConfigDoclet.OPT_HEADER))
+                .findFirst().get();
+        header.process(ConfigDoclet.OPT_HEADER, singletonList("b"));
+        Optionage snapshot = composed.snapshot();
+        assertEquals(composed.getSupportedOptions(), snapshot.getSupportedOptions());
+        assertGetEquals(snapshot, "from cli", ConfigDoclet.OPT_HEADER, singletonList("b"));
+        assertGetEquals(snapshot, "from properties", ConfigDoclet.OPT_FOOTER, singletonList("a"));
+        assertGetEquals(snapshot, "absent", ConfigDoclet.OPT_OUTPUT_FORMAT, null);
+        sysprops.put("configdoclet.output-format", "json");
+        assertGetEquals(composed, "change reflected in source", ConfigDoclet.OPT_OUTPUT_FORMAT, singletonList("json"));
+        assertGetEquals(snapshot, "change not reflected in snapshot", ConfigDoclet.OPT_OUTPUT_FORMAT, null);
+    }
+
     private static void assertBoolEquals(Optionage opt, String message, String name, boolean expected) {
         assertEquals(message, expected, opt.isPresent(name));
     }
@@ -0,0 +1,58 @@
+package io.github.mike10004.configdoclet;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class PerfectHashTest {
+
+    private static void checkMinimalPerfect(List<String> keys) {
+        PerfectHash hash = PerfectHash.build(keys);
+        boolean[] used = new boolean[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            int slot = hash.slotOf(keys.get(i));
+            assertEquals("slot of " + keys.get(i), hash.slotAt(i), slot);
+            assertFalse("slot " + slot + " used twice", used[slot]);
+            used[slot] = true;
+        }
+    }
+
+    @Test
+    public void build_small() {
+        checkMinimalPerfect(Collections.singletonList("a"));
+        checkMinimalPerfect(Arrays.asList("app.message", "app.numRepetitions", "app.destination"));
+    }
+
+    @Test
+    public void build_empty() {
+        PerfectHash hash = PerfectHash.build(Collections.emptyList());
+        assertEquals(0, hash.size());
+        assertEquals(-1, hash.slotOf("a"));
+    }
+
+    @Test
+    public void build_hashCodeCollisions() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        checkMinimalPerfect(Arrays.asList("Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB"));
+    }
+
+    @Test
+    public void build_large() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            keys.add("service.component" + (i % 97) + ".setting" + i);
+        }
+        checkMinimalPerfect(keys);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_duplicates() {
+        PerfectHash.build(Arrays.asList("a", "a"));
+    }
+}
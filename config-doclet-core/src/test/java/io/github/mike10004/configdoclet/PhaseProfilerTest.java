@@ -0,0 +1,114 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.easymock.EasyMock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PhaseProfilerTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void formatSummary() {
+        PhaseProfiler profiler = new PhaseProfiler();
+        profiler.beginPhase(RunObserver.Phase.discovery).end(3);
+        RunObserver.PhaseSpan extraction = profiler.beginPhase(RunObserver.Phase.extraction);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add("setting" + i);
+        }
+        extraction.end(keys.size() / 500);
+        String summary = profiler.formatSummary();
+        System.out.println(summary);
+        String[] lines = summary.split("\\R");
+        assertEquals("lines", profiler.getAllocatedBytesPerSetting() == PhaseProfiler.UNSUPPORTED ? 3 : 4, lines.length);
+        assertTrue(lines[1], lines[1].trim().startsWith("discovery"));
+        assertTrue(lines[1], lines[1].contains(" 3 elements "));
+        assertTrue(lines[2], lines[2].trim().startsWith("extraction"));
+        if (profiler.getAllocatedBytesPerSetting() != PhaseProfiler.UNSUPPORTED) {
+            assertTrue(lines[3], lines[3].endsWith("bytes allocated per setting extracted"));
+        }
+    }
+
+    @Test
+    public void writeMetrics() throws Exception {
+        PhaseProfiler profiler = new PhaseProfiler();
+        profiler.beginPhase(RunObserver.Phase.discovery).end(5);
+        profiler.beginPhase(RunObserver.Phase.output).end(2);
+        File file = new File(temporaryFolder.getRoot(), "metrics/profile.json");
+        profiler.writeMetrics(file.toPath());
+        JsonObject metrics = new JsonParser().parse(new String(Files.readAllBytes(file.toPath()), UTF_8)).getAsJsonObject();
+        JsonArray phases = metrics.getAsJsonArray("phases");
+        assertEquals("num phases", 2, phases.size());
+        assertEquals("phase", "discovery", phases.get(0).getAsJsonObject().get("phase").getAsString());
+        assertEquals("elementCount", 5, phases.get(0).getAsJsonObject().get("elementCount").getAsInt());
+        assertEquals("thread", Thread.currentThread().getName(), phases.get(1).getAsJsonObject().get("thread").getAsString());
+        JsonObject totals = metrics.getAsJsonObject("totals");
+        long wallNanos = phases.get(0).getAsJsonObject().get("wallNanos").getAsLong() + phases.get(1).getAsJsonObject().get("wallNanos").getAsLong();
+        assertEquals("total wall", wallNanos, totals.get("wallNanos").getAsLong());
+        assertTrue("peak heap", totals.get("peakHeapBytes").getAsLong() > 0);
+    }
+
+    @Test
+    public void unsupported() throws Exception {
+        ThreadMXBean threadBean = EasyMock.createNiceMock(ThreadMXBean.class);
+        EasyMock.replay(threadBean);
+        PhaseProfiler profiler = new PhaseProfiler(threadBean, Collections.emptyList());
+        profiler.beginPhase(RunObserver.Phase.extraction).end(4);
+        PhaseProfiler.Measurement m = profiler.getMeasurements().get(0);
+        assertEquals("cpu", PhaseProfiler.UNSUPPORTED, m.cpuNanos);
+        assertEquals("allocated", PhaseProfiler.UNSUPPORTED, m.allocatedBytes);
+        assertEquals("per setting", PhaseProfiler.UNSUPPORTED, profiler.getAllocatedBytesPerSetting());
+        String summary = profiler.formatSummary();
+        assertTrue(summary, summary.contains("n/a"));
+        assertFalse(summary, summary.contains("per setting"));
+        File file = temporaryFolder.newFile();
+        profiler.writeMetrics(file.toPath());
+        JsonObject totals = new JsonParser().parse(new String(Files.readAllBytes(file.toPath()), UTF_8)).getAsJsonObject().getAsJsonObject("totals");
+        assertEquals("total cpu", PhaseProfiler.UNSUPPORTED, totals.get("cpuNanos").getAsLong());
+        assertEquals("total allocated", PhaseProfiler.UNSUPPORTED, totals.get("allocatedBytes").getAsLong());
+        assertEquals("total per setting", PhaseProfiler.UNSUPPORTED, totals.get("allocatedBytesPerSetting").getAsLong());
+    }
+
+    @Test
+    public void peakHeapBytes_relativeToStart() {
+        MemoryPoolMXBean pool = EasyMock.createMock(MemoryPoolMXBean.class); // fails on resetPeakUsage
+        EasyMock.expect(pool.getType()).andReturn(MemoryType.HEAP).anyTimes();
+        EasyMock.expect(pool.isValid()).andReturn(true).anyTimes();
+        EasyMock.expect(pool.getPeakUsage()).andReturn(usage(500)).andReturn(usage(500)).andReturn(usage(900));
+        EasyMock.expect(pool.getUsage()).andReturn(usage(300)).andReturn(usage(400));
+        EasyMock.replay(pool);
+        PhaseProfiler profiler = new PhaseProfiler(ManagementFactory.getThreadMXBean(), Collections.singletonList(pool));
+        profiler.beginPhase(RunObserver.Phase.discovery).end(0);
+        profiler.beginPhase(RunObserver.Phase.filtering).end(0);
+        List<PhaseProfiler.Measurement> measurements = profiler.getMeasurements();
+        assertEquals("peak not exceeded since start", 400, measurements.get(0).peakHeapBytes);
+        assertEquals("peak exceeded since start", 900, measurements.get(1).peakHeapBytes);
+        EasyMock.verify(pool);
+    }
+
+    private static MemoryUsage usage(long used) {
+        return new MemoryUsage(0, used, used, -1);
+    }
+}
@@ -6,8 +6,10 @@ import org.junit.Test;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.*;
@@ -53,4 +55,28 @@ public class PropertiesOutputFormatterTest {
         assertEquals("num examples", 1, exampleCount);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void sectionHeaders() throws Exception {
+        List<ConfigSetting> items = Arrays.asList(
+                ConfigSetting.builder("app.name").defaultValue("x").build(),
+                ConfigSetting.builder("app.server.host").defaultValue("localhost").build(),
+                ConfigSetting.builder("app.server.port").defaultValue("8080").build(),
+                ConfigSetting.builder("other").defaultValue("y").build());
+        PropertiesOutputFormatter formatter = new PropertiesOutputFormatter(null, null, PropertiesOutputFormatter.AssignationHint.always, 2);
+        ByteBucket bucket = new ByteBucket(1024);
+        formatter.format(items, bucket.stream(), UTF_8);
+        String output = bucket.dump(UTF_8);
+        System.out.println(output);
+        List<String> lines = CharSource.wrap(output).readLines().stream()
+                .filter(line -> !line.trim().isEmpty())
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(
+                "# == app ==",
+                "app.name = x",
+                "# == app.server ==",
+                "app.server.host = localhost",
+                "app.server.port = 8080",
+                "other = y"), lines);
+    }
+
+}
@@ -0,0 +1,123 @@
+package io.github.mike10004.configdoclet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SettingSpoolTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static List<ConfigSetting> createSettings(int count, Random random) {
+        List<ConfigSetting> settings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ConfigSetting.Builder b = ConfigSetting.builder("app.setting" + random.nextInt(count * 2))
+                    .description("Setting\nnumber " + i)
+                    .exampleValue(new ConfigSetting.ExampleValue(String.valueOf(i), "example " + i));
+            if (random.nextBoolean()) {
+                b.defaultValue("\"" + i + "\" é");
+            }
+            settings.add(b.build());
+        }
+        return settings;
+    }
+
+    private static List<ConfigSetting> toList(Iterator<ConfigSetting> iterator) {
+        List<ConfigSetting> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+
+    @Test
+    public void spillAndMerge() throws Exception {
+        List<ConfigSetting> settings = createSettings(100, new Random(2718));
+        Path directory = temporaryFolder.newFolder().toPath();
+        try (SettingSpool spool = new SettingSpool(7, SortOrder.natural, directory)) {
+            for (ConfigSetting setting : settings) {
+                spool.add(setting);
+            }
+            assertEquals("size", settings.size(), spool.size());
+            assertEquals("spill count", 14, spool.getSpillCount());
+            List<ConfigSetting> expected = SortOrder.natural.sort(settings);
+            assertEquals("merged", keys(expected), keys(toList(spool.iterator())));
+            assertEquals("merged settings", expected.stream().collect(Collectors.toSet()), toList(spool.iterator()).stream().collect(Collectors.toSet()));
+            assertEquals("spill count after merge", 15, spool.getSpillCount());
+        }
+        assertEquals("spill files deleted", 0, Files.list(directory).count());
+    }
+
+    @Test
+    public void mergeWithLimitedFanIn() throws Exception {
+        List<ConfigSetting> settings = createSettings(200, new Random(1618));
+        Path directory = temporaryFolder.newFolder().toPath();
+        try (SettingSpool spool = new SettingSpool(3, 4, SortOrder.natural, directory)) {
+            for (ConfigSetting setting : settings) {
+                spool.add(setting);
+            }
+            assertEquals("spill count", 66, spool.getSpillCount());
+            List<ConfigSetting> expected = SortOrder.natural.sort(settings);
+            assertEquals("merged", expected, toList(spool.iterator()));
+            assertTrue("run count " + spool.getRunCount(), spool.getRunCount() <= 4);
+            assertEquals("files on disk", spool.getRunCount(), Files.list(directory).count());
+            assertEquals("merged again", expected, toList(spool.iterator()));
+        }
+        assertEquals("spill files deleted", 0, Files.list(directory).count());
+    }
+
+    @Test
+    public void mergeFailureDeletesIntermediateFiles() throws Exception {
+        List<ConfigSetting> settings = createSettings(12, new Random(1414));
+        Path directory = temporaryFolder.newFolder().toPath();
+        try (SettingSpool spool = new SettingSpool(3, 2, SortOrder.natural, directory)) {
+            for (ConfigSetting setting : settings.subList(0, 9)) {
+                spool.add(setting);
+            }
+            Set<Path> earlierFiles = Files.list(directory).collect(Collectors.toSet());
+            for (ConfigSetting setting : settings.subList(9, 12)) {
+                spool.add(setting);
+            }
+            Path lastFile = Files.list(directory).filter(file -> !earlierFiles.contains(file)).findFirst().orElseThrow();
+            Files.write(lastFile, Collections.singletonList("[1, 2]"), SettingSpool.CHARSET);
+            try {
+                spool.iterator();
+                fail("merge should fail on corrupt spill file");
+            } catch (IOException expected) {
+            }
+        }
+        assertEquals("spill files deleted", Collections.emptyList(), Files.list(directory).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void noSpill() throws Exception {
+        List<ConfigSetting> settings = createSettings(10, new Random(3141));
+        Path directory = temporaryFolder.newFolder().toPath();
+        try (SettingSpool spool = new SettingSpool(100, SortOrder.lexical, directory)) {
+            for (ConfigSetting setting : settings) {
+                spool.add(setting);
+            }
+            assertEquals("spill count", 0, spool.getSpillCount());
+            assertEquals(SortOrder.lexical.sort(settings), toList(spool.iterator()));
+        }
+        assertEquals(0, Files.list(directory).count());
+    }
+
+    private static List<String> keys(List<ConfigSetting> settings) {
+        return settings.stream().map(s -> s.key).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.mike10004.configdoclet;
+
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+import javax.lang.model.element.VariableElement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class SlowestElementsTest {
+
+    @Test
+    public void record() {
+        SlowestElements ranking = new SlowestElements(2);
+        ranking.record(mockElement(), "a", 300, 10, 0);
+        ranking.record(mockElement(), "b", 100, 40, 1);
+        ranking.record(mockElement(), null, 500, 20, 0);
+        ranking.record(mockElement(), "d", 300, 30, 2);
+        ranking.record(mockElement(), "e", 200, 50, 0);
+        assertEquals("count", 5, ranking.getCount());
+        assertEquals("slowest", Arrays.asList(null, "a"), keys(ranking.getSlowest()));
+        assertEquals("slowest nanos", Arrays.asList(500L, 300L), ranking.getSlowest().stream().map(c -> c.nanos).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void record_heaviest() {
+        SlowestElements ranking = new SlowestElements(3);
+        ranking.record(mockElement(), "a", 300, 10, 0);
+        ranking.record(mockElement(), "b", 100, 40, 1);
+        ranking.record(mockElement(), "c", 500, 20, 0);
+        ranking.record(mockElement(), "d", 300, 40, 2);
+        List<SlowestElements.Cost> heaviest = ranking.getHeaviest();
+        if (!heaviest.isEmpty()) { // allocation is measurable on this runtime
+            assertEquals("heaviest", Arrays.asList("b", "d", "c"), keys(heaviest));
+        }
+    }
+
+    private static List<String> keys(List<SlowestElements.Cost> costs) {
+        return costs.stream().map(c -> c.key).collect(Collectors.toList());
+    }
+
+    private static VariableElement mockElement() {
+        VariableElement element = EasyMock.createMock(VariableElement.class);
+        EasyMock.replay(element);
+        return element;
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.mike10004.configdoclet;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class SortOrderTest {
+
+    private static List<String> sort(SortOrder order, String...keys) {
+        List<ConfigSetting> settings = Arrays.stream(keys).map(key -> ConfigSetting.builder(key).build()).collect(Collectors.toList());
+        Collections.shuffle(settings, new Random(12345));
+        return order.sort(settings).stream().map(s -> s.key).collect(Collectors.toList());
+    }
+
+    @Test
+    public void lexical() {
+        assertEquals(Arrays.asList("B", "a", "item.10", "item.2"), sort(SortOrder.lexical, "item.2", "item.10", "a", "B"));
+    }
+
+    @Test
+    public void natural() {
+        assertEquals(Arrays.asList("B", "a", "item.02", "item.2", "item.10", "item.10a", "item.10b", "item.100", "item.a"),
+                sort(SortOrder.natural, "item.a", "item.100", "item.10b", "item.10a", "item.10", "item.02", "item.2", "a", "B"));
+    }
+
+    @Test
+    public void natural_zero() {
+        assertEquals(Arrays.asList("x0", "x00", "x1", "x9", "x10"), sort(SortOrder.natural, "x10", "x9", "x1", "x00", "x0"));
+    }
+
+    @Test
+    public void naturalCaseInsensitive() {
+        assertEquals(Arrays.asList("a", "B", "c.2", "C.10"), sort(SortOrder.natural_ci, "C.10", "c.2", "B", "a"));
+    }
+
+    @Test
+    public void sortKey() {
+        List<ConfigSetting> settings = Arrays.asList(
+                ConfigSetting.builder("z").sortKey("group.10").build(),
+                ConfigSetting.builder("y").sortKey("group.9").build(),
+                ConfigSetting.builder("x").build());
+        List<String> keys = SortOrder.natural.sort(settings).stream().map(s -> s.key).collect(Collectors.toList());
+        assertEquals(Arrays.asList("y", "z", "x"), keys);
+    }
+
+    @Test
+    public void parse() {
+        assertEquals(SortOrder.lexical, SortOrder.parse(null));
+        assertEquals(SortOrder.natural, SortOrder.parse("natural"));
+        assertEquals(SortOrder.natural_ci, SortOrder.parse("Natural-CI"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_invalid() {
+        SortOrder.parse("natural_ci");
+    }
+}
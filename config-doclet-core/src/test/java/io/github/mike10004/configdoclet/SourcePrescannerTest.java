@@ -0,0 +1,81 @@
+package io.github.mike10004.configdoclet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SourcePrescannerTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    static Path prepareLinkingProject(Path root) throws IOException {
+        Tests.writeSource(root, "com/example/Settings.java",
+                "package com.example;",
+                "class Settings {",
+                "    /**",
+                "     * Setting with a linked default. At most {@link Limits#MAX_WIDGETS}.",
+                "     * @cfg.default {@link com.example.other.Defaults#NUM_WIDGETS}",
+                "     */",
+                "    static final String CFG_NUM_WIDGETS = \"app.numWidgets\";",
+                "}");
+        Tests.writeSource(root, "com/example/other/Defaults.java",
+                "package com.example.other;",
+                "public class Defaults {",
+                "    public static final int NUM_WIDGETS = 42;",
+                "}");
+        Tests.writeSource(root, "com/example/Limits.java",
+                "package com.example;",
+                "class Limits {",
+                "    static final int MAX_WIDGETS = 100;",
+                "}");
+        Tests.writeSource(root, "com/example/Unrelated.java",
+                "package com.example;",
+                "class Unrelated {",
+                "    static final String NAME = \"unrelated\";",
+                "}");
+        Tests.writeSource(root, "com/example/Tagged.java",
+                "package com.example;",
+                "class Tagged {",
+                "    /** @cfg.key app.tagged */",
+                "    static final String KEY = System.getProperty(\"x\");",
+                "}");
+        return root;
+    }
+
+    @Test
+    public void scan() throws Exception {
+        Path root = prepareLinkingProject(temporaryFolder.newFolder().toPath());
+        SourcePrescanner scanner = new SourcePrescanner(Collections.singletonList(root), SourcePrescanner.buildNeedles(null), UTF_8);
+        SourcePrescanner.Result result = scanner.scan();
+        assertEquals("num files", 5, result.numSourceFiles);
+        assertEquals("candidates", Set.of(root.resolve("com/example/Settings.java"), root.resolve("com/example/Tagged.java")), result.candidates);
+        assertEquals("linked", Set.of(root.resolve("com/example/other/Defaults.java"), root.resolve("com/example/Limits.java")), result.linked);
+    }
+
+    @Test
+    public void indexOfAny() {
+        SourcePrescanner scanner = new SourcePrescanner(Collections.emptyList(), Arrays.asList("KEY_", "@cfg."), UTF_8);
+        assertEquals(4, scanner.indexOfAny(ByteBuffer.wrap("int KEY_X".getBytes(UTF_8))));
+        assertEquals(3, scanner.indexOfAny(ByteBuffer.wrap("/**@cfg.".getBytes(UTF_8))));
+        assertEquals(-1, scanner.indexOfAny(ByteBuffer.wrap("KEY @cfg KEY".getBytes(UTF_8))));
+    }
+
+    @Test
+    public void buildNeedles() {
+        assertEquals(Arrays.asList("@cfg.", "KEY_", "CONF"), SourcePrescanner.buildNeedles(Arrays.asList("KEY_*", "CONF?G_*")));
+        assertNull("leading wildcard defeats prescan", SourcePrescanner.buildNeedles(List.of("*_KEY")));
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.mike10004.configdoclet;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class StringPoolTest {
+
+    @Test
+    public void intern() {
+        StringPool pool = new StringPool();
+        String a = new String(new char[]{'a', 'b'});
+        String b = new String(new char[]{'a', 'b'});
+        assertSame(a, pool.intern(a));
+        assertSame(a, pool.intern(b));
+        assertNull(pool.intern(null));
+        assertEquals(1, pool.size());
+        assertEquals(1, pool.getHitCount());
+    }
+
+    @Test
+    public void builder() {
+        StringPool pool = new StringPool();
+        ConfigSetting first = ConfigSetting.builder("a")
+                .stringPool(pool)
+                .description(new String("Shared description"))
+                .defaultValue(new String("true"))
+                .build();
+        ConfigSetting second = ConfigSetting.builder("b")
+                .stringPool(pool)
+                .description(new String("Shared description"))
+                .exampleValue(new String("true"))
+                .build();
+        assertSame(first.description, second.description);
+        assertSame(first.defaultValue, second.exampleValues.get(0).value);
+    }
+
+    @Test
+    public void createGson() {
+        StringPool pool = new StringPool();
+        String json = "[{\"key\": \"a\", \"description\": \"d\", \"defaultValue\": \"true\", \"exampleValues\": [{\"value\": \"true\"}]}, {\"key\": \"b\", \"description\": \"d\", \"exampleValues\": []}]";
+        ConfigSetting[] settings = pool.createGson().fromJson(json, ConfigSetting[].class);
+        assertEquals(Arrays.asList(
+                ConfigSetting.builder("a").description("d").defaultValue("true").exampleValue("true").build(),
+                ConfigSetting.builder("b").description("d").build()), Arrays.asList(settings));
+        assertSame(settings[0].description, settings[1].description);
+        assertSame(settings[0].defaultValue, settings[0].exampleValues.get(0).value);
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.mike10004.configdoclet;
+
+import com.sun.source.doctree.DocCommentTree;
+import com.sun.source.doctree.DocTree;
+import com.sun.source.doctree.UnknownBlockTagTree;
+import org.easymock.EasyMock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TagRegistryTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void lookup() {
+        TagRegistry.Handler sortKeyHandler = (tag, context) -> {};
+        TagRegistry.Handler keyHandler = (tag, context) -> {};
+        TagRegistry registry = new TagRegistry()
+                .register("cfg.sortKey", sortKeyHandler)
+                .register("cfg.key", keyHandler);
+        assertSame(sortKeyHandler, registry.lookup("cfg.sortKey"));
+        assertSame(sortKeyHandler, registry.lookup("cfg.sortkey"));
+        assertSame(sortKeyHandler, registry.lookup("CFG.SORTKEY"));
+        assertSame(keyHandler, registry.lookup("cfg.key"));
+        assertSame(keyHandler, registry.lookup("Cfg.Key"));
+        assertNull(registry.lookup("cfg.type"));
+        assertEquals(Arrays.asList("cfg.sortKey", "cfg.key"), new ArrayList<>(registry.getTagNames()));
+    }
+
+    @Test
+    public void hasBlockTag() {
+        TagRegistry registry = new TagRegistry()
+                .register("cfg.include", (tag, context) -> {})
+                .register("cfg.key", (tag, context) -> {});
+        assertTrue(registry.hasBlockTag(comment("cfg.key", "Cfg.Include"), "cfg.include"));
+        assertFalse(registry.hasBlockTag(comment("cfg.key", "cfg.includes"), "cfg.include"));
+    }
+
+    private static DocCommentTree comment(String... tagNames) {
+        List<DocTree> tags = new ArrayList<>();
+        for (String tagName : tagNames) {
+            UnknownBlockTagTree tag = EasyMock.createMock(UnknownBlockTagTree.class);
+            EasyMock.expect(tag.getTagName()).andReturn(tagName).anyTimes();
+            EasyMock.replay(tag);
+            tags.add(tag);
+        }
+        DocCommentTree tree = EasyMock.createMock(DocCommentTree.class);
+        EasyMock.<List<? extends DocTree>>expect(tree.getBlockTags()).andReturn(tags).anyTimes();
+        EasyMock.replay(tree);
+        return tree;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void register_duplicate() {
+        new TagRegistry()
+                .register("cfg.type", (tag, context) -> {})
+                .register("CFG.Type", (tag, context) -> {});
+    }
+
+    @Test
+    public void launch_deprecatedExcludedBeforeExtraction() throws Exception {
+        Path root = temporaryFolder.newFolder().toPath();
+        Tests.writeSource(root, "com/example/Deprecations.java",
+                "package com.example;",
+                "class Deprecations {",
+                "    /** Current setting. */",
+                "    static final String CFG_CURRENT = \"app.current\";",
+                "    /**",
+                "     * Deprecated setting with an unsupported tag.",
+                "     * @cfg.bogus whatever",
+                "     */",
+                "    @Deprecated",
+                "    static final String CFG_OLD = \"app.old\";",
+                "    /**",
+                "     * Deprecated setting that is still documented.",
+                "     * @cfg.include",
+                "     */",
+                "    @Deprecated",
+                "    static final String CFG_KEPT = \"app.kept\";",
+                "}");
+        Tests.LaunchResult result = Tests.launch(temporaryFolder, root);
+        assertTrue("deprecated element not counted as relevant", result.output.contains("2 of 3 variable elements are relevant"));
+        assertFalse("deprecated element not rendered", result.output.contains("element diagnostic(s)"));
+        List<String> keys = Arrays.stream(result.settings).map(s -> s.key).collect(Collectors.toList());
+        assertEquals("keys", Arrays.asList("app.current", "app.kept"), keys);
+    }
+}
@@ -1,6 +1,28 @@
 package io.github.mike10004.configdoclet;
 
+import com.google.common.base.Suppliers;
+import com.google.common.io.CharSource;
+import com.google.common.io.Resources;
+import com.google.gson.Gson;
 import io.github.mike10004.configdoclet.tests.TestConfig;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
 
 public class Tests {
 
@@ -10,4 +32,94 @@ public class Tests {
         return TestConfig.getInstance(Tests.class);
     }
 
+    private static final String SYSPROP_DUMP_PARSED_DEPENDENCIES = "configdoclet.build.tests.dumpClasspath";
+
+    private static boolean isDumpParsedDependencies() {
+        return Boolean.parseBoolean(System.getProperty(SYSPROP_DUMP_PARSED_DEPENDENCIES, "false"));
+    }
+
+    private static final Supplier<String> classpathSupplier = Suppliers.memoize(() -> {
+        URL depsResource = Tests.class.getResource("/dependencies.txt");
+        CharSource cs = Resources.asCharSource(depsResource, UTF_8);
+        List<MavenRepositoryItem> repoItems;
+        try (Reader reader = cs.openStream()) {
+            repoItems = new MavenDependencyListParser().parseList(reader);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if (isDumpParsedDependencies()) {
+            try {
+                System.out.format("%s:%n%n", depsResource);
+                cs.copyTo(System.out);
+                System.out.format("%n%n%n");
+                repoItems.forEach(item -> System.out.format("%s%n", item));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        String docletPart = new File(config().get("project.build.outputDirectory")).getAbsolutePath();
+        Stream<String> cpComponents = repoItems.stream()
+                .map(item -> item.artifactPathname)
+                .filter(Objects::nonNull)
+                .map(File::getAbsolutePath);
+        String cp = Stream.concat(Stream.of(docletPart), cpComponents)
+                .collect(Collectors.joining(File.pathSeparator));
+        if (isDumpParsedDependencies()) {
+            System.out.format("classpath: %s%n", cp);
+        }
+        return cp;
+    });
+
+    /**
+     * Gets the classpath of the doclet, which is the build output directory and the
+     * runtime dependencies.
+     */
+    public static String getDocletClasspath() {
+        return classpathSupplier.get();
+    }
+
+    /**
+     * Writes a source file with the given lines.
+     */
+    static Path writeSource(Path root, String relativePath, String... lines) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, Arrays.asList(lines), UTF_8);
+        return file;
+    }
+
+    static final class LaunchResult {
+
+        public final ConfigSetting[] settings;
+        public final String output;
+
+        private LaunchResult(ConfigSetting[] settings, String output) {
+            this.settings = settings;
+            this.output = output;
+        }
+    }
+
+    /**
+     * Runs the doclet with the launcher over the sources in a directory, producing JSON
+     * output, and asserts that it succeeds.
+     * @return the settings and the console output, which is standard output followed by standard error
+     */
+    static LaunchResult launch(TemporaryFolder temporaryFolder, Path sourceRoot, String... moreArgs) throws IOException {
+        File outputDir = temporaryFolder.newFolder();
+        ByteBucket stdout = new ByteBucket(256);
+        ByteBucket stderr = new ByteBucket(256);
+        String[] commonArgs = {
+                ConfigDocletLauncher.OPT_SOURCE_ROOT, sourceRoot.toString(),
+                "-d", outputDir.getAbsolutePath(),
+                ConfigDoclet.OPT_OUTPUT_FORMAT, ConfigDoclet.OUTPUT_FORMAT_JSON,
+                ConfigDoclet.OPT_OUTPUT_FILENAME, "settings.json",
+        };
+        String[] args = Stream.concat(Arrays.stream(commonArgs), Arrays.stream(moreArgs)).toArray(String[]::new);
+        int exitCode = new ConfigDocletLauncher(new PrintStream(stdout.stream(), true), new PrintStream(stderr.stream(), true)).run(args);
+        String output = stdout.dump(UTF_8) + stderr.dump(UTF_8);
+        System.out.print(output);
+        assertEquals("exit code", 0, exitCode);
+        String json = new String(Files.readAllBytes(outputDir.toPath().resolve("settings.json")), UTF_8);
+        return new LaunchResult(new Gson().fromJson(json, ConfigSetting[].class), output);
+    }
 }
@@ -0,0 +1,92 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TracerTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void create() {
+        Tracer tracer = Tracer.create("links=trace, output", (elapsedNanos, category, level, message) -> {});
+        assertTrue(tracer.isEnabled(Tracer.Category.links, Tracer.Level.trace));
+        assertTrue(tracer.isEnabled(Tracer.Category.output, Tracer.Level.debug));
+        assertFalse(tracer.isEnabled(Tracer.Category.output, Tracer.Level.trace));
+        assertFalse(tracer.isEnabled(Tracer.Category.discovery, Tracer.Level.info));
+        assertEquals("Tracer{links=trace,output=debug}", tracer.toString());
+    }
+
+    @Test
+    public void create_all() {
+        Tracer tracer = Tracer.create("all=info,rendering=trace", (elapsedNanos, category, level, message) -> {});
+        for (Tracer.Category category : Tracer.Category.values()) {
+            assertTrue(category.name(), tracer.isEnabled(category, Tracer.Level.info));
+        }
+        assertFalse(tracer.isEnabled(Tracer.Category.filtering, Tracer.Level.debug));
+        assertTrue(tracer.isEnabled(Tracer.Category.rendering, Tracer.Level.trace));
+    }
+
+    @Test
+    public void create_invalid() {
+        for (String spec : new String[]{"bogus", "links=loud"}) {
+            try {
+                Tracer.create(spec, (elapsedNanos, category, level, message) -> {});
+                fail("expected exception for " + spec);
+            } catch (IllegalArgumentException ignore) {
+            }
+        }
+    }
+
+    @Test
+    public void trace_disabled() {
+        List<String> messages = new ArrayList<>();
+        Tracer tracer = Tracer.create("output=info", (elapsedNanos, category, level, message) -> messages.add(message));
+        tracer.trace(Tracer.Category.links, Tracer.Level.info, () -> {
+            throw new AssertionError("supplier invoked for disabled category");
+        });
+        tracer.trace(Tracer.Category.output, Tracer.Level.debug, () -> {
+            throw new AssertionError("supplier invoked for disabled level");
+        });
+        Tracer.disabled().trace(Tracer.Category.output, Tracer.Level.info, () -> {
+            throw new AssertionError("supplier invoked for disabled tracer");
+        });
+        tracer.trace(Tracer.Category.output, Tracer.Level.info, () -> "hello");
+        assertEquals(List.of("hello"), messages);
+    }
+
+    @Test
+    public void jsonLinesSink() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("trace").resolve("events.jsonl");
+        try (Tracer tracer = Tracer.create("all", Tracer.jsonLinesSink(file))) {
+            tracer.trace(Tracer.Category.discovery, Tracer.Level.info, () -> "first");
+            tracer.trace(Tracer.Category.output, Tracer.Level.debug, () -> "second \"quoted\"\nline");
+            tracer.trace(Tracer.Category.output, Tracer.Level.trace, () -> "omitted");
+        }
+        List<String> lines = Files.readAllLines(file, UTF_8);
+        assertEquals(2, lines.size());
+        JsonObject first = new JsonParser().parse(lines.get(0)).getAsJsonObject();
+        assertEquals("discovery", first.get("category").getAsString());
+        assertEquals("info", first.get("level").getAsString());
+        assertEquals("first", first.get("message").getAsString());
+        assertEquals(Thread.currentThread().getName(), first.get("thread").getAsString());
+        assertTrue(first.get("elapsedMicros").getAsLong() >= 0);
+        JsonObject second = new JsonParser().parse(lines.get(1)).getAsJsonObject();
+        assertEquals("second \"quoted\"\nline", second.get("message").getAsString());
+    }
+}
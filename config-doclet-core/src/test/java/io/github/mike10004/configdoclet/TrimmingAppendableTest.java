@@ -0,0 +1,52 @@
+package io.github.mike10004.configdoclet;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+public class TrimmingAppendableTest {
+
+    @Test
+    public void append() throws IOException {
+        String[][] testCases = {
+                {""},
+                {"   "},
+                {"abc"},
+                {"  abc  "},
+                {" a b ", " ", " c\n"},
+                {"\t", "a", " ", "", "\n", "b", " "},
+                {"a", " ", " ", "b"},
+        };
+        for (String[] fragments : testCases) {
+            StringBuilder sb = new StringBuilder();
+            TrimmingAppendable trimming = new TrimmingAppendable(sb);
+            for (String fragment : fragments) {
+                trimming.append(fragment);
+            }
+            String expected = String.join("", fragments).trim();
+            assertEquals(String.join("|", fragments), expected, sb.toString());
+        }
+    }
+
+    @Test
+    public void append_chars() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        TrimmingAppendable trimming = new TrimmingAppendable(sb);
+        for (char c : "  x  y \n".toCharArray()) {
+            trimming.append(c);
+        }
+        assertEquals("x  y", sb.toString());
+    }
+
+    @Test
+    public void append_range() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        new TrimmingAppendable(sb)
+                .append("@tag  value ", 4, 12)
+                .append(" ", 0, 1)
+                .append("-", 0, 1);
+        assertEquals("value  -", sb.toString());
+    }
+}
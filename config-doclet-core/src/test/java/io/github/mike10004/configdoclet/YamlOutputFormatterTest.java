@@ -0,0 +1,130 @@
+package io.github.mike10004.configdoclet;
+
+import com.google.common.io.CharSource;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class YamlOutputFormatterTest {
+
+    private static List<String> format(ConfigSetting...settings) throws Exception {
+        StringWriter sw = new StringWriter();
+        try (PrintWriter out = new PrintWriter(sw)) {
+            new YamlOutputFormatter().format(Arrays.asList(settings), out);
+        }
+        String output = sw.toString();
+        System.out.println(output);
+        return CharSource.wrap(output).readLines();
+    }
+
+    @Test
+    public void nested() throws Exception {
+        List<String> lines = format(
+                ConfigSetting.builder("app.name").description("Name of the app").defaultValue("Widget Factory").build(),
+                ConfigSetting.builder("app.server.host").exampleValue("localhost").exampleValue(new ConfigSetting.ExampleValue("example.com", "remote")).build(),
+                ConfigSetting.builder("app.server.port").defaultValue("8080").exampleValue("80").build(),
+                ConfigSetting.builder("other").defaultValue("true").build());
+        assertEquals(Arrays.asList(
+                "app:",
+                "  # Name of the app",
+                "  name: \"Widget Factory\"",
+                "  server:",
+                "    # Example: example.com (remote)",
+                "    # host: localhost",
+                "    # Example: 80",
+                "    port: \"8080\"",
+                "",
+                "other: \"true\""), lines);
+    }
+
+    @Test
+    public void prefixIsAlsoKey() throws Exception {
+        List<String> lines = format(
+                ConfigSetting.builder("app.server").defaultValue("on").build(),
+                ConfigSetting.builder("app.server.port").defaultValue("8080").build(),
+                ConfigSetting.builder("app.zed").defaultValue("z").build());
+        assertEquals(Arrays.asList(
+                "app:",
+                "  server: \"on\"",
+                "  server.port: \"8080\"",
+                "  zed: z"), lines);
+    }
+
+    @Test
+    public void sharedPrefixNotAdjacent() throws Exception {
+        List<String> lines = format(
+                ConfigSetting.builder("a.b.c").defaultValue("1").build(),
+                ConfigSetting.builder("x").defaultValue("2").build(),
+                ConfigSetting.builder("a.b.d").defaultValue("3").build(),
+                ConfigSetting.builder("a.b.d").defaultValue("4").build());
+        assertEquals(Arrays.asList(
+                "a:",
+                "  b:",
+                "    c: \"1\"",
+                "    d: \"3\"",
+                "    # d: \"4\"",
+                "",
+                "x: \"2\""), lines);
+    }
+
+    @Test
+    public void prefixIsAlsoKeyAfterSettingsBeneath() throws Exception {
+        List<String> lines = format(
+                ConfigSetting.builder("a.b.c").defaultValue("p").build(),
+                ConfigSetting.builder("a.b").defaultValue("q").build(),
+                ConfigSetting.builder("a.d").defaultValue("r").build());
+        assertEquals(Arrays.asList(
+                "a:",
+                "  b: q",
+                "  b.c: p",
+                "  d: r"), lines);
+    }
+
+    @Test
+    public void topLevelPrefixIsAlsoKey() throws Exception {
+        List<String> lines = format(
+                ConfigSetting.builder("a.b").defaultValue("p").build(),
+                ConfigSetting.builder("c").defaultValue("q").build(),
+                ConfigSetting.builder("a").defaultValue("r").build());
+        assertEquals(Arrays.asList(
+                "a: r",
+                "a.b: p",
+                "",
+                "c: q"), lines);
+    }
+
+    @Test
+    public void formatSorted() throws Exception {
+        List<ConfigSetting> settings = Arrays.asList(
+                ConfigSetting.builder("app.name").defaultValue("x").build(),
+                ConfigSetting.builder("app.port").defaultValue("80").build());
+        ByteBucket bucket = new ByteBucket(256);
+        new YamlOutputFormatter().formatSorted(settings, bucket.stream(), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("app:", "  name: x", "  port: \"80\""), CharSource.wrap(bucket.dump(StandardCharsets.UTF_8)).readLines());
+    }
+
+    @Test
+    public void quote() {
+        assertEquals("plain/value-1.0", YamlOutputFormatter.formatValue("plain/value-1.0"));
+        assertEquals("\"\"", YamlOutputFormatter.formatValue(""));
+        assertEquals("\"a: b # c\"", YamlOutputFormatter.formatValue("a: b # c"));
+        assertEquals("\"tab\\there \\\"q\\\" \\\\ \\x01\"", YamlOutputFormatter.formatValue("tab\there \"q\" \\ \u0001"));
+        assertEquals("\"key with space\"", YamlOutputFormatter.formatKey("key with space"));
+    }
+
+    @Test
+    public void quoteResolvableScalars() {
+        for (String scalar : Arrays.asList("on", "Off", "YES", "no", "y", "N", "true", "False", "null", "0123", "1_000", "1e3", "0x1F", "8080", "2024-01-31")) {
+            assertEquals(scalar, "\"" + scalar + "\"", YamlOutputFormatter.formatValue(scalar));
+            assertEquals(scalar, "\"" + scalar + "\"", YamlOutputFormatter.formatKey(scalar));
+        }
+        assertEquals("online", YamlOutputFormatter.formatValue("online"));
+        assertEquals("v1_000", YamlOutputFormatter.formatKey("v1_000"));
+    }
+}
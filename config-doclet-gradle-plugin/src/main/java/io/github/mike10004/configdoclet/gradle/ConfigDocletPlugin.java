@@ -0,0 +1,63 @@
+package io.github.mike10004.configdoclet.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.tasks.SourceSet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * Plugin that registers a task to produce config help output from the main source set
+ * of a Java project. The doclet is resolved from the {@value #CONFIGURATION_NAME}
+ * configuration, which defaults to the doclet artifact matching this plugin's version.
+ */
+public class ConfigDocletPlugin implements Plugin<Project> {
+
+    public static final String CONFIGURATION_NAME = "configDoclet";
+    public static final String TASK_NAME = "configDocletHelp";
+
+    private static final String BUILD_INFO_RESOURCE = "/config-doclet-gradle-plugin.properties";
+    private static final String DEFAULT_OUTPUT_FILENAME = "config-doclet-output.properties";
+
+    @Override
+    public void apply(Project project) {
+        Configuration docletConfiguration = project.getConfigurations().create(CONFIGURATION_NAME, c -> {
+            c.setVisible(false);
+            c.setCanBeConsumed(false);
+            c.setDescription("The config doclet and its dependencies");
+            c.defaultDependencies(dependencies -> dependencies.add(project.getDependencies().create(getDefaultDocletNotation())));
+        });
+        project.getTasks().withType(ConfigDocletTask.class).configureEach(task -> {
+            task.setGroup("documentation");
+            task.getDocletClasspath().from(docletConfiguration);
+        });
+        project.getPluginManager().withPlugin("java", plugin -> {
+            SourceSet main = project.getExtensions().getByType(JavaPluginExtension.class)
+                    .getSourceSets().getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+            project.getTasks().register(TASK_NAME, ConfigDocletTask.class, task -> {
+                task.setDescription("Generates configuration help from the main source set");
+                task.getSource().from(main.getAllJava());
+                task.getClasspath().from(main.getCompileClasspath());
+                task.getOutputFile().convention(project.getLayout().getBuildDirectory().file("config-help/" + DEFAULT_OUTPUT_FILENAME));
+            });
+        });
+    }
+
+    static String getDefaultDocletNotation() {
+        Properties buildInfo = new Properties();
+        try (InputStream in = ConfigDocletPlugin.class.getResourceAsStream(BUILD_INFO_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("not found: classpath:" + BUILD_INFO_RESOURCE);
+            }
+            buildInfo.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return String.format("%s:%s:%s", buildInfo.getProperty("doclet.groupId"), buildInfo.getProperty("doclet.artifactId"), buildInfo.getProperty("doclet.version"));
+    }
+}
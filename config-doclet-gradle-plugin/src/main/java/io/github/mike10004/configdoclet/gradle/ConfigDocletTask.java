@@ -0,0 +1,285 @@
+package io.github.mike10004.configdoclet.gradle;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemLocationProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.CompileClasspath;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.spi.ToolProvider;
+import java.util.stream.Collectors;
+
+/**
+ * Task that runs the config doclet over a set of source files. All inputs that affect
+ * the doclet output are declared, and source and bookend files are tracked with
+ * path sensitivity that survives relocation of the project directory, so the output
+ * may be restored from the local or remote build cache.
+ */
+@CacheableTask
+public abstract class ConfigDocletTask extends DefaultTask {
+
+    /**
+     * Options that may not be specified in the {@link #getOptions() options} map, because
+     * they are derived from other properties of the task. Options that name files must be
+     * set by typed properties, so that the files are tracked as inputs or outputs and
+     * absolute paths do not become part of the cache key. The doclet accepts each of its
+     * options with one or two leading hyphens, so options are compared without them.
+     */
+    static final Set<String> RESERVED_OPTIONS = Set.of(
+            "-d", "--output-directory", "--output-filename",
+            "-header", "-footer", "-encoding", "-docencoding",
+            "--append-settings", "--link-classpath",
+            "--embed-settings", "--emit-key-set", "--metrics-file", "--diagnostics-report", "--trace-file");
+
+    /**
+     * Gets the source files to be examined. Typically this is the set of Java sources
+     * of the main source set.
+     * @return the source files
+     */
+    @InputFiles
+    @SkipWhenEmpty
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getSource();
+
+    /**
+     * Gets the classpath javadoc uses to resolve types referenced by the sources.
+     * @return the compile classpath
+     */
+    @CompileClasspath
+    public abstract ConfigurableFileCollection getClasspath();
+
+    /**
+     * Gets the classpath from which the doclet is loaded.
+     * @return the doclet classpath
+     */
+    @Classpath
+    public abstract ConfigurableFileCollection getDocletClasspath();
+
+    /**
+     * Gets the JSON files of settings to be appended to the output. These are passed
+     * to the doclet with the {@code --append-settings} option.
+     * @return the settings files
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getAppendSettings();
+
+    /**
+     * Gets the classpath from which constant values of linked fields are read if they are
+     * not in the sources. If empty, the doclet uses the classpath of the javadoc run.
+     * These are passed to the doclet with the {@code --link-classpath} option.
+     * @return the link classpath
+     */
+    @CompileClasspath
+    public abstract ConfigurableFileCollection getLinkClasspath();
+
+    /**
+     * Gets the doclet options, such as {@code --field-names} or {@code --output-format}.
+     * Map keys are option names including leading hyphens. An empty value means the
+     * option is passed without a parameter. Options that name files are set by typed
+     * properties of the task instead; see {@link #RESERVED_OPTIONS}.
+     * @return the doclet options
+     */
+    @Input
+    public abstract MapProperty<String, String> getOptions();
+
+    /**
+     * Gets the file whose content is prepended to the output.
+     * @return the header file
+     */
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getHeaderFile();
+
+    /**
+     * Gets the file whose content is appended to the output.
+     * @return the footer file
+     */
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getFooterFile();
+
+    /**
+     * Gets the charset used to read the sources and write the output. The default is
+     * UTF-8 rather than the platform charset, so that builds on machines with different
+     * locales share cache entries.
+     * @return the encoding
+     */
+    @Input
+    public abstract Property<String> getEncoding();
+
+    /**
+     * Gets the settings output file.
+     * @return the output file
+     */
+    @OutputFile
+    public abstract RegularFileProperty getOutputFile();
+
+    /**
+     * Gets the root directory in which settings are embedded as a resource, as with the
+     * {@code --embed-settings} option. Typically this is a resources output directory.
+     * @return the embedding directory
+     */
+    @OutputDirectory
+    @Optional
+    public abstract DirectoryProperty getEmbedSettingsDirectory();
+
+    /**
+     * Gets the file to which the key set is written, as with the {@code --emit-key-set} option.
+     * @return the key set file
+     */
+    @OutputFile
+    @Optional
+    public abstract RegularFileProperty getKeySetFile();
+
+    /**
+     * Gets the file to which profiling metrics are written, as with the {@code --metrics-file} option.
+     * @return the metrics file
+     */
+    @OutputFile
+    @Optional
+    public abstract RegularFileProperty getMetricsFile();
+
+    /**
+     * Gets the file to which the diagnostics report is written, as with the
+     * {@code --diagnostics-report} option.
+     * @return the diagnostics report file
+     */
+    @OutputFile
+    @Optional
+    public abstract RegularFileProperty getDiagnosticsReportFile();
+
+    /**
+     * Gets the file to which trace records are written, as with the {@code --trace-file} option.
+     * @return the trace file
+     */
+    @OutputFile
+    @Optional
+    public abstract RegularFileProperty getTraceFile();
+
+    public ConfigDocletTask() {
+        getEncoding().convention(StandardCharsets.UTF_8.name());
+    }
+
+    private static List<File> toList(Iterable<File> files) {
+        List<File> list = new ArrayList<>();
+        files.forEach(list::add);
+        return list;
+    }
+
+    /**
+     * Checks that the options map contains no reserved options.
+     * @param options the options
+     * @throws InvalidUserDataException if a reserved option is present
+     */
+    static void checkOptions(Map<String, String> options) {
+        Set<String> reservedNames = RESERVED_OPTIONS.stream()
+                .map(ConfigDocletTask::trimHyphens)
+                .collect(Collectors.toSet());
+        Set<String> reserved = options.keySet().stream()
+                .filter(option -> reservedNames.contains(trimHyphens(option)))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (!reserved.isEmpty()) {
+            throw new InvalidUserDataException("options " + reserved + " may not be specified in the options map; set the corresponding task properties instead");
+        }
+    }
+
+    private static String trimHyphens(String option) {
+        int start = 0;
+        while (start < option.length() && option.charAt(start) == '-') {
+            start++;
+        }
+        return option.substring(start);
+    }
+
+    private static String joinPaths(Iterable<File> files) {
+        return toList(files).stream().map(File::getAbsolutePath).collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static void fileOption(JavadocCommandLine commandLine, String name, FileSystemLocationProperty<?> property) {
+        if (property.isPresent()) {
+            commandLine.option(name, property.get().getAsFile().getAbsolutePath());
+        }
+    }
+
+    JavadocCommandLine buildCommandLine() {
+        File outputFile = getOutputFile().get().getAsFile();
+        Map<String, String> options = getOptions().get();
+        checkOptions(options);
+        JavadocCommandLine commandLine = new JavadocCommandLine(toList(getSource().getFiles()),
+                toList(getClasspath()), toList(getDocletClasspath()), outputFile)
+                .header(getHeaderFile().isPresent() ? getHeaderFile().get().getAsFile() : null)
+                .footer(getFooterFile().isPresent() ? getFooterFile().get().getAsFile() : null)
+                .encoding(getEncoding().get())
+                .options(options);
+        if (!getAppendSettings().isEmpty()) {
+            commandLine.option("--append-settings", joinPaths(getAppendSettings()));
+        }
+        if (!getLinkClasspath().isEmpty()) {
+            commandLine.option("--link-classpath", joinPaths(getLinkClasspath()));
+        }
+        fileOption(commandLine, "--embed-settings", getEmbedSettingsDirectory());
+        fileOption(commandLine, "--emit-key-set", getKeySetFile());
+        fileOption(commandLine, "--metrics-file", getMetricsFile());
+        fileOption(commandLine, "--diagnostics-report", getDiagnosticsReportFile());
+        fileOption(commandLine, "--trace-file", getTraceFile());
+        return commandLine;
+    }
+
+    @TaskAction
+    public void generate() throws IOException {
+        JavadocCommandLine commandLine = buildCommandLine();
+        File outputFile = getOutputFile().get().getAsFile();
+        java.nio.file.Files.createDirectories(outputFile.getAbsoluteFile().getParentFile().toPath());
+        ToolProvider javadoc = ToolProvider.findFirst("javadoc")
+                .orElseThrow(() -> new GradleException("javadoc tool not available in " + System.getProperty("java.home")));
+        List<String> args = commandLine.toArguments();
+        getLogger().debug("javadoc arguments: {}", args);
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream(), stderr = new ByteArrayOutputStream();
+        int exitCode;
+        try (PrintStream out = new PrintStream(stdout, true); PrintStream err = new PrintStream(stderr, true)) {
+            exitCode = javadoc.run(out, err, args.toArray(new String[0]));
+        }
+        String outText = stdout.toString(), errText = stderr.toString();
+        if (!outText.isEmpty()) {
+            getLogger().info(outText);
+        }
+        if (exitCode != 0) {
+            getLogger().error(errText);
+            throw new GradleException("javadoc exited with code " + exitCode);
+        } else if (!errText.isEmpty()) {
+            getLogger().warn(errText);
+        }
+    }
+}
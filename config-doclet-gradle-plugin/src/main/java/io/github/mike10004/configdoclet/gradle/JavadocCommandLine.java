@@ -0,0 +1,118 @@
+package io.github.mike10004.configdoclet.gradle;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Assembles the javadoc command line that runs the config doclet.
+ */
+class JavadocCommandLine {
+
+    static final String DOCLET_CLASS_NAME = "io.github.mike10004.configdoclet.ConfigDoclet";
+
+    private final List<File> sourceFiles;
+    private final List<File> classpath;
+    private final List<File> docletClasspath;
+    private final File outputFile;
+    @Nullable
+    private File headerFile;
+    @Nullable
+    private File footerFile;
+    @Nullable
+    private String encoding;
+    private final Map<String, String> docletOptions;
+
+    public JavadocCommandLine(List<File> sourceFiles, List<File> classpath, List<File> docletClasspath, File outputFile) {
+        this.sourceFiles = requireNonNull(sourceFiles);
+        this.classpath = requireNonNull(classpath);
+        this.docletClasspath = requireNonNull(docletClasspath);
+        this.outputFile = requireNonNull(outputFile);
+        docletOptions = new LinkedHashMap<>();
+    }
+
+    public JavadocCommandLine header(@Nullable File headerFile) {
+        this.headerFile = headerFile;
+        return this;
+    }
+
+    public JavadocCommandLine footer(@Nullable File footerFile) {
+        this.footerFile = footerFile;
+        return this;
+    }
+
+    public JavadocCommandLine encoding(@Nullable String encoding) {
+        this.encoding = encoding;
+        return this;
+    }
+
+    /**
+     * Adds a doclet option. An empty value means the option is passed without a parameter.
+     * @param name option name, including leading hyphens
+     * @param value parameter value
+     * @return this instance
+     */
+    public JavadocCommandLine option(String name, String value) {
+        docletOptions.put(requireNonNull(name, "name"), requireNonNull(value, "value"));
+        return this;
+    }
+
+    public JavadocCommandLine options(Map<String, String> options) {
+        options.forEach(this::option);
+        return this;
+    }
+
+    private static String joinPath(List<File> files) {
+        return files.stream().map(File::getAbsolutePath).collect(Collectors.joining(File.pathSeparator));
+    }
+
+    public List<String> toArguments() {
+        List<String> args = new ArrayList<>();
+        args.add("-private");
+        args.add("-quiet");
+        args.add("-doclet");
+        args.add(DOCLET_CLASS_NAME);
+        args.add("-docletpath");
+        args.add(joinPath(docletClasspath));
+        if (!classpath.isEmpty()) {
+            args.add("-classpath");
+            args.add(joinPath(classpath));
+        }
+        if (encoding != null) {
+            args.add("-encoding");
+            args.add(encoding);
+            args.add("-docencoding");
+            args.add(encoding);
+        }
+        if (headerFile != null) {
+            args.add("-header");
+            args.add(headerFile.toURI().toString());
+        }
+        if (footerFile != null) {
+            args.add("-footer");
+            args.add(footerFile.toURI().toString());
+        }
+        docletOptions.forEach((name, value) -> {
+            args.add(name);
+            if (!value.isEmpty()) {
+                args.add(value);
+            }
+        });
+        args.add("-d");
+        args.add(outputFile.getAbsoluteFile().getParent());
+        args.add("--output-filename");
+        args.add(outputFile.getName());
+        sourceFiles.stream()
+                .map(File::getAbsolutePath)
+                .sorted()
+                .forEach(args::add);
+        return Collections.unmodifiableList(args);
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.mike10004.configdoclet.gradle;
+
+import com.google.gson.Gson;
+import io.github.mike10004.configdoclet.ConfigDoclet;
+import io.github.mike10004.configdoclet.runtime.KeySet;
+import org.apache.commons.lang3.StringUtils;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.BuildTask;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConfigDocletTaskTest {
+
+    private static final String TASK_PATH = ":" + ConfigDocletPlugin.TASK_NAME;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void restoresOutputsFromCache() throws Exception {
+        Path cacheDir = temporaryFolder.newFolder().toPath();
+        Path projectDir = temporaryFolder.newFolder().toPath();
+        writeProject(projectDir, cacheDir, "");
+
+        assertOutcome(TaskOutcome.SUCCESS, run(projectDir));
+        assertOutcome(TaskOutcome.UP_TO_DATE, run(projectDir));
+        assertOutcome(TaskOutcome.FROM_CACHE, run(projectDir, "clean"));
+
+        write(projectDir.resolve("extra-settings.json"), "[{\"key\": \"app.extra\", \"defaultValue\": \"2\", \"exampleValues\": []}]");
+        assertOutcome("after change to appended settings", TaskOutcome.SUCCESS, run(projectDir, "clean"));
+
+        Path relocatedDir = temporaryFolder.newFolder().toPath();
+        copyProject(projectDir, relocatedDir);
+        assertOutcome("in relocated project", TaskOutcome.FROM_CACHE, run(relocatedDir, "clean"));
+        String output = new String(Files.readAllBytes(relocatedDir.resolve("build/config-help/config-doclet-output.properties")), UTF_8);
+        assertTrue("output has documented setting: " + output, output.contains("app.numWidgets"));
+        assertTrue("output has appended setting: " + output, output.contains("app.extra"));
+        KeySet keySet;
+        try (InputStream in = Files.newInputStream(relocatedDir.resolve("build/config-help/keys.bin"))) {
+            keySet = KeySet.read(in);
+        }
+        assertTrue("key set restored from cache", keySet.contains("app.extra"));
+    }
+
+    @Test
+    public void rejectsReservedOption() throws Exception {
+        Path projectDir = temporaryFolder.newFolder().toPath();
+        writeProject(projectDir, temporaryFolder.newFolder().toPath(), "    options.put('-emit-key-set', 'keys.bin')\n");
+        BuildResult result = runner(projectDir, TASK_PATH).buildAndFail();
+        assertTrue(result.getOutput(), result.getOutput().contains("[-emit-key-set] may not be specified"));
+    }
+
+    @Test
+    public void checkOptions_aliases() {
+        for (String option : new String[]{"--emit-key-set", "-emit-key-set", "-append-settings", "-link-classpath",
+                "--header", "--footer", "--docencoding", "-output-filename", "-embed-settings", "--d"}) {
+            try {
+                ConfigDocletTask.checkOptions(Map.of(option, "x"));
+                fail("accepted " + option);
+            } catch (InvalidUserDataException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("[" + option + "]"));
+            }
+        }
+        ConfigDocletTask.checkOptions(Map.of("--field-names", "KEY_*", "-section-depth", "2"));
+    }
+
+    private static void assertOutcome(TaskOutcome expected, BuildResult result) {
+        assertOutcome("outcome", expected, result);
+    }
+
+    private static void assertOutcome(String message, TaskOutcome expected, BuildResult result) {
+        BuildTask task = result.task(TASK_PATH);
+        assertNotNull(result.getOutput(), task);
+        assertEquals(message, expected, task.getOutcome());
+    }
+
+    private static BuildResult run(Path projectDir, String... moreTasks) {
+        List<String> arguments = Stream.concat(Stream.of(moreTasks), Stream.of(TASK_PATH, "--build-cache"))
+                .collect(Collectors.toList());
+        return runner(projectDir, arguments.toArray(new String[0])).build();
+    }
+
+    private static GradleRunner runner(Path projectDir, String... arguments) {
+        GradleRunner runner = GradleRunner.create()
+                .withProjectDir(projectDir.toFile())
+                .withPluginClasspath(Collections.singletonList(codeSourceOf(ConfigDocletPlugin.class)))
+                .withArguments(arguments)
+                .forwardOutput();
+        File installation = new File(System.getProperty("configDocletTests.gradleInstallation", ""));
+        if (installation.isDirectory()) {
+            return runner.withGradleInstallation(installation);
+        }
+        return runner.withGradleVersion(System.getProperty("configDocletTests.gradleVersion"));
+    }
+
+    /**
+     * Writes a project whose build cache is outside the project directory, so that
+     * a relocated copy of the project uses the same cache.
+     */
+    private static void writeProject(Path projectDir, Path cacheDir, String moreTaskConfig) throws IOException {
+        String docletClasspath = Stream.of(ConfigDoclet.class, KeySet.class, StringUtils.class, Gson.class)
+                .map(ConfigDocletTaskTest::codeSourceOf)
+                .map(file -> "'" + file.getAbsolutePath().replace('\\', '/') + "'")
+                .collect(Collectors.joining(", "));
+        write(projectDir.resolve("settings.gradle"), "rootProject.name = 'sample'\n" +
+                "buildCache {\n" +
+                "    local {\n" +
+                "        directory = '" + cacheDir.toAbsolutePath().toString().replace('\\', '/') + "'\n" +
+                "    }\n" +
+                "}\n");
+        write(projectDir.resolve("build.gradle"), "plugins {\n" +
+                "    id 'java'\n" +
+                "    id 'io.github.mike10004.config-doclet'\n" +
+                "}\n" +
+                "dependencies {\n" +
+                "    configDoclet files(" + docletClasspath + ")\n" +
+                "}\n" +
+                "configDocletHelp {\n" +
+                "    options.put('--field-names', 'KEY_*')\n" +
+                "    appendSettings.from('extra-settings.json')\n" +
+                "    keySetFile = layout.buildDirectory.file('config-help/keys.bin')\n" +
+                moreTaskConfig +
+                "}\n");
+        write(projectDir.resolve("extra-settings.json"), "[{\"key\": \"app.extra\", \"defaultValue\": \"1\", \"exampleValues\": []}]");
+        write(projectDir.resolve("src/main/java/com/example/App.java"), "package com.example;\n" +
+                "\n" +
+                "public class App {\n" +
+                "\n" +
+                "    /**\n" +
+                "     * Number of widgets.\n" +
+                "     * @cfg.default 42\n" +
+                "     */\n" +
+                "    public static final String KEY_NUM_WIDGETS = \"app.numWidgets\";\n" +
+                "}\n");
+    }
+
+    private static void copyProject(Path source, Path destination) throws IOException {
+        for (String filename : new String[]{"settings.gradle", "build.gradle", "extra-settings.json", "src/main/java/com/example/App.java"}) {
+            Path target = destination.resolve(filename);
+            Files.createDirectories(target.getParent());
+            Files.copy(source.resolve(filename), target);
+        }
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(UTF_8));
+    }
+
+    private static File codeSourceOf(Class<?> clazz) {
+        try {
+            return Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).toFile();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
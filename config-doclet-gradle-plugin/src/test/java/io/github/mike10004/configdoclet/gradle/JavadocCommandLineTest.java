@@ -0,0 +1,43 @@
+package io.github.mike10004.configdoclet.gradle;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JavadocCommandLineTest {
+
+    @Test
+    public void toArguments() {
+        File outputFile = new File("/tmp/build/config-help/out.properties");
+        List<String> args = new JavadocCommandLine(Arrays.asList(new File("/src/b/B.java"), new File("/src/a/A.java")),
+                Collections.emptyList(), Collections.singletonList(new File("/lib/doclet.jar")), outputFile)
+                .header(new File("/tmp/header.txt"))
+                .option("--field-names", "KEY_*")
+                .option("--some-flag", "")
+                .toArguments();
+        System.out.println(args);
+        assertEquals("doclet", JavadocCommandLine.DOCLET_CLASS_NAME, args.get(args.indexOf("-doclet") + 1));
+        assertEquals("header", new File("/tmp/header.txt").toURI().toString(), args.get(args.indexOf("-header") + 1));
+        assertEquals("option value", "KEY_*", args.get(args.indexOf("--field-names") + 1));
+        assertEquals("flag has no value", "-d", args.get(args.indexOf("--some-flag") + 1));
+        assertEquals("output dir", outputFile.getParent(), args.get(args.indexOf("-d") + 1));
+        assertEquals("output filename", "out.properties", args.get(args.indexOf("--output-filename") + 1));
+        assertFalse("no classpath", args.contains("-classpath"));
+        assertFalse("no footer", args.contains("-footer"));
+        List<String> tail = args.subList(args.size() - 2, args.size());
+        assertEquals("sources sorted for stable command line", Arrays.asList(new File("/src/a/A.java").getAbsolutePath(), new File("/src/b/B.java").getAbsolutePath()), tail);
+    }
+
+    @Test
+    public void getDefaultDocletNotation() {
+        String notation = ConfigDocletPlugin.getDefaultDocletNotation();
+        assertTrue(notation, notation.matches("^[^:$]+:config-doclet-core:[^:$]+$"));
+    }
+}
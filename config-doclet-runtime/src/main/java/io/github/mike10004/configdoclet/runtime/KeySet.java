@@ -0,0 +1,249 @@
+package io.github.mike10004.configdoclet.runtime;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable set of documented setting keys, for detecting unknown keys in a configuration.
+ * Membership is checked against a Bloom filter first, which rejects most unknown keys
+ * after computing only the key's hash code, and then against a sorted array of the
+ * keys, so there are no false positives.
+ *
+ * <p>The binary form is a four-byte magic number, a one-byte version, the number of
+ * filter bits, the number of hash functions, the filter words, the number of keys, and
+ * the keys in sorted order, each as a four-byte length and that many bytes of UTF-8.
+ */
+public final class KeySet {
+
+    /**
+     * Resource path of the key set written by the doclet's {@code --emit-key-set} option,
+     * if the argument is a path of that name beneath a class output directory.
+     */
+    public static final String RESOURCE_PATH = "META-INF/config-doclet/keys.bin";
+
+    static final int MAGIC = 0x43444b53; // "CDKS"
+    static final int VERSION = 1;
+
+    private static final int BITS_PER_KEY = 10;
+    private static final int MIN_BITS = 64;
+
+    private final String[] sortedKeys;
+    private final long[] words;
+    private final int numBits;
+    private final int numHashes;
+
+    private KeySet(String[] sortedKeys, long[] words, int numBits, int numHashes) {
+        this.sortedKeys = sortedKeys;
+        this.words = words;
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Creates a key set.
+     * @param keys the keys; duplicates are ignored
+     * @return a new key set
+     */
+    public static KeySet of(Collection<String> keys) {
+        String[] sortedKeys = new TreeSet<>(keys).toArray(new String[0]);
+        int numBits = Math.max(MIN_BITS, sortedKeys.length * BITS_PER_KEY);
+        numBits = (numBits + 63) / 64 * 64;
+        // optimal number of hash functions is (bits per key) * ln 2
+        int numHashes = Math.max(1, Math.min(16, (int) Math.round((double) numBits / Math.max(1, sortedKeys.length) * Math.log(2))));
+        long[] words = new long[numBits / 64];
+        for (String key : sortedKeys) {
+            int h1 = key.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < numHashes; i++) {
+                int bit = ((h1 + i * h2) & 0x7fffffff) % numBits;
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new KeySet(sortedKeys, words, numBits, numHashes);
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+
+    /**
+     * Checks whether the filter admits a key. False means the key is definitely absent.
+     */
+    boolean mightContain(String key) {
+        int h1 = key.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = ((h1 + i * h2) & 0x7fffffff) % numBits;
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean contains(String key) {
+        return mightContain(key) && Arrays.binarySearch(sortedKeys, key) >= 0;
+    }
+
+    /**
+     * Finds the keys that are not in this set.
+     * @param keys the keys to check
+     * @return the unknown keys, in iteration order
+     */
+    public List<String> findUnknown(Iterable<String> keys) {
+        List<String> unknown = new ArrayList<>();
+        for (String key : keys) {
+            if (!contains(key)) {
+                unknown.add(key);
+            }
+        }
+        return unknown;
+    }
+
+    /**
+     * Finds the property names that are not in this set. Only keys and values
+     * that are strings are considered, as with {@link Properties#stringPropertyNames()},
+     * but default properties are not considered.
+     * @param properties the properties
+     * @return the unknown property names, in sorted order
+     */
+    public List<String> findUnknown(Properties properties) {
+        List<String> unknown = new ArrayList<>();
+        for (Object key : properties.keySet()) {
+            if (key instanceof String && !contains((String) key) && properties.get(key) instanceof String) {
+                unknown.add((String) key);
+            }
+        }
+        unknown.sort(null);
+        return unknown;
+    }
+
+    public int size() {
+        return sortedKeys.length;
+    }
+
+    /**
+     * Gets the keys.
+     * @return an unmodifiable list of the keys in sorted order
+     */
+    public List<String> keys() {
+        return List.of(sortedKeys);
+    }
+
+    /**
+     * Writes this set in binary form. The stream is flushed but not closed.
+     * @param out the output stream
+     * @throws IOException on I/O error
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(numBits);
+        data.writeByte(numHashes);
+        for (long word : words) {
+            data.writeLong(word);
+        }
+        data.writeInt(sortedKeys.length);
+        for (String key : sortedKeys) {
+            byte[] bytes = key.getBytes(UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a set in binary form. The stream is not closed, and it is read
+     * without buffering, so supply a buffered stream.
+     * @param in the input stream
+     * @return the set
+     * @throws IOException on I/O error or if the input is not in the expected format
+     */
+    public static KeySet read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("not a key set stream");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported key set version " + version);
+        }
+        int numBits = data.readInt();
+        int numHashes = data.readUnsignedByte();
+        if (numBits <= 0 || numBits % 64 != 0 || numHashes == 0) {
+            throw new IOException("invalid filter parameters");
+        }
+        long[] words = new long[numBits / 64];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = data.readLong();
+        }
+        int count = data.readInt();
+        if (count < 0) {
+            throw new IOException("invalid key count " + count);
+        }
+        String[] sortedKeys = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = data.readInt();
+            if (length < 0) {
+                throw new IOException("invalid key length " + length);
+            }
+            byte[] bytes = new byte[length];
+            data.readFully(bytes);
+            sortedKeys[i] = new String(bytes, UTF_8);
+            if (i > 0 && sortedKeys[i - 1].compareTo(sortedKeys[i]) >= 0) {
+                throw new IOException("keys are not in sorted order");
+            }
+        }
+        return new KeySet(sortedKeys, words, numBits, numHashes);
+    }
+
+    /**
+     * Loads the union of all key set resources visible to a class loader.
+     * @param classLoader the class loader
+     * @return a new key set
+     * @throws IOException on I/O error
+     */
+    public static KeySet load(ClassLoader classLoader) throws IOException {
+        requireNonNull(classLoader, "classLoader");
+        List<KeySet> sets = new ArrayList<>();
+        Enumeration<URL> resources = classLoader.getResources(RESOURCE_PATH);
+        while (resources.hasMoreElements()) {
+            try (InputStream in = new BufferedInputStream(resources.nextElement().openStream())) {
+                sets.add(read(in));
+            }
+        }
+        if (sets.size() == 1) {
+            return sets.get(0);
+        }
+        List<String> keys = new ArrayList<>();
+        sets.forEach(set -> keys.addAll(set.keys()));
+        return of(keys);
+    }
+
+    @Override
+    public String toString() {
+        return "KeySet{size=" + sortedKeys.length + ", numBits=" + numBits + ", numHashes=" + numHashes + "}";
+    }
+}
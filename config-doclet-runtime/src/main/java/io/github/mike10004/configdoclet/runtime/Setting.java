@@ -0,0 +1,99 @@
+package io.github.mike10004.configdoclet.runtime;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable value class that represents a documented configuration setting.
+ */
+public final class Setting {
+
+    public final String key;
+
+    @Nullable
+    public final String description;
+
+    @Nullable
+    public final String defaultValue;
+
+    public final List<ExampleValue> exampleValues;
+
+    public Setting(String key, @Nullable String description, @Nullable String defaultValue, List<ExampleValue> exampleValues) {
+        this.key = requireNonNull(key, "key");
+        this.description = description;
+        this.defaultValue = defaultValue;
+        this.exampleValues = Collections.unmodifiableList(new ArrayList<>(exampleValues));
+    }
+
+    public Setting(String key, @Nullable String description, @Nullable String defaultValue) {
+        this(key, description, defaultValue, Collections.emptyList());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Setting)) return false;
+        Setting setting = (Setting) o;
+        return key.equals(setting.key) &&
+                Objects.equals(description, setting.description) &&
+                Objects.equals(defaultValue, setting.defaultValue) &&
+                exampleValues.equals(setting.exampleValues);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, description, defaultValue, exampleValues);
+    }
+
+    @Override
+    public String toString() {
+        return "Setting{" +
+                "key='" + key + '\'' +
+                ", defaultValue=" + (defaultValue == null ? null : "'" + defaultValue + "'") +
+                ", exampleValues.size=" + exampleValues.size() +
+                '}';
+    }
+
+    /**
+     * Value class that represents an example value of a setting.
+     */
+    public static final class ExampleValue {
+
+        public final String value;
+
+        @Nullable
+        public final String description;
+
+        public ExampleValue(String value, @Nullable String description) {
+            this.value = requireNonNull(value, "value");
+            this.description = description;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ExampleValue)) return false;
+            ExampleValue that = (ExampleValue) o;
+            return value.equals(that.value) &&
+                    Objects.equals(description, that.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(value, description);
+        }
+
+        @Override
+        public String toString() {
+            return "ExampleValue{" +
+                    "value='" + value + '\'' +
+                    (description == null ? "" : ", description='" + description + '\'') +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.mike10004.configdoclet.runtime;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Codec for the compact binary form of a list of settings. The format is a four-byte
+ * magic number and a one-byte version, followed by the content, in which all integers
+ * are unsigned variable-length quantities of seven bits per byte, least significant
+ * group first.
+ *
+ * <p>In version 2, the content is a string table and then the settings. The string
+ * table is a count followed by the distinct strings, each as a length and that many
+ * bytes of UTF-8. Settings are a count followed by, for each setting, the references
+ * to its key, description, and default value, then a count of example values and the
+ * references to the value and description of each. A reference is one more than the
+ * string's index in the table, or zero for null. Each distinct string is therefore
+ * written once, and strings read from the same stream are shared.
+ */
+public final class SettingsBinary {
+
+    static final int MAGIC = 0x43445342; // "CDSB"
+    static final int VERSION = 2;
+
+    private SettingsBinary() {}
+
+    /**
+     * Writes settings in binary form. The stream is flushed but not closed.
+     * @param settings the settings
+     * @param out the output stream
+     * @throws IOException on I/O error
+     */
+    public static void write(Collection<Setting> settings, OutputStream out) throws IOException {
+        Map<String, Integer> refs = new LinkedHashMap<>();
+        for (Setting setting : settings) {
+            addRef(refs, setting.key);
+            addRef(refs, setting.description);
+            addRef(refs, setting.defaultValue);
+            for (Setting.ExampleValue example : setting.exampleValues) {
+                addRef(refs, example.value);
+                addRef(refs, example.description);
+            }
+        }
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        writeVarInt(data, refs.size());
+        for (String value : refs.keySet()) {
+            byte[] bytes = value.getBytes(UTF_8);
+            writeVarInt(data, bytes.length);
+            data.write(bytes);
+        }
+        writeVarInt(data, settings.size());
+        for (Setting setting : settings) {
+            writeRef(data, refs, setting.key);
+            writeRef(data, refs, setting.description);
+            writeRef(data, refs, setting.defaultValue);
+            writeVarInt(data, setting.exampleValues.size());
+            for (Setting.ExampleValue example : setting.exampleValues) {
+                writeRef(data, refs, example.value);
+                writeRef(data, refs, example.description);
+            }
+        }
+        data.flush();
+    }
+
+    private static void addRef(Map<String, Integer> refs, @Nullable String value) {
+        if (value != null) {
+            refs.putIfAbsent(value, refs.size() + 1);
+        }
+    }
+
+    private static void writeRef(DataOutputStream data, Map<String, Integer> refs, @Nullable String value) throws IOException {
+        writeVarInt(data, value == null ? 0 : refs.get(value));
+    }
+
+    private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            data.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("integer out of range");
+                }
+                return value;
+            }
+        }
+        throw new IOException("malformed variable-length integer");
+    }
+
+    /**
+     * Reads settings in binary form. The stream is not closed, and it is read
+     * without buffering, so supply a buffered stream.
+     * @param in the input stream
+     * @return the list of settings
+     * @throws IOException on I/O error or if the input is not in the expected format
+     */
+    public static List<Setting> read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("not a binary settings stream");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported binary settings version " + version);
+        }
+        int numStrings = readVarInt(data);
+        String[] strings = new String[numStrings];
+        for (int i = 0; i < numStrings; i++) {
+            byte[] bytes = new byte[readVarInt(data)];
+            data.readFully(bytes);
+            strings[i] = new String(bytes, UTF_8);
+        }
+        int count = readVarInt(data);
+        List<Setting> settings = new ArrayList<>(Math.min(count, numStrings));
+        for (int i = 0; i < count; i++) {
+            String key = readRef(data, strings);
+            if (key == null) {
+                throw new IOException("setting " + i + " has no key");
+            }
+            String description = readRef(data, strings);
+            String defaultValue = readRef(data, strings);
+            int numExamples = readVarInt(data);
+            List<Setting.ExampleValue> exampleValues = new ArrayList<>(Math.min(numExamples, numStrings));
+            for (int j = 0; j < numExamples; j++) {
+                String value = readRef(data, strings);
+                if (value == null) {
+                    throw new IOException("example value " + j + " of " + key + " has no value");
+                }
+                exampleValues.add(new Setting.ExampleValue(value, readRef(data, strings)));
+            }
+            settings.add(new Setting(key, description, defaultValue, exampleValues));
+        }
+        return settings;
+    }
+
+    @Nullable
+    private static String readRef(DataInputStream data, String[] strings) throws IOException {
+        int ref = readVarInt(data);
+        if (ref == 0) {
+            return null;
+        }
+        if (ref > strings.length) {
+            throw new IOException("invalid string reference " + ref);
+        }
+        return strings[ref - 1];
+    }
+}
@@ -0,0 +1,208 @@
+package io.github.mike10004.configdoclet.runtime;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Immutable index of settings that supports constant-time lookup by key and
+ * enumeration of the settings whose keys start with a given prefix. The settings are
+ * held in an array sorted by key, so prefix enumeration is a binary search for the
+ * first match followed by a scan, and the result is a view of a contiguous range.
+ */
+public final class SettingsIndex {
+
+    /**
+     * Resource path of settings in JSON format, as written by the doclet's
+     * {@code --embed-settings} option.
+     */
+    public static final String RESOURCE_PATH_JSON = "META-INF/config-doclet/settings.json";
+
+    /**
+     * Resource path of settings in binary format.
+     */
+    public static final String RESOURCE_PATH_BINARY = "META-INF/config-doclet/settings.bin";
+
+    private final List<Setting> sortedSettings;
+    private final String[] sortedKeys;
+    private final Map<String, Setting> settingsByKey;
+
+    private SettingsIndex(List<Setting> sortedSettings) {
+        this.sortedSettings = Collections.unmodifiableList(sortedSettings);
+        sortedKeys = new String[sortedSettings.size()];
+        settingsByKey = new HashMap<>(sortedSettings.size() * 4 / 3 + 1);
+        for (int i = 0; i < sortedKeys.length; i++) {
+            Setting setting = sortedSettings.get(i);
+            sortedKeys[i] = setting.key;
+            settingsByKey.put(setting.key, setting);
+        }
+    }
+
+    /**
+     * Creates an index of the given settings. If multiple settings have the same key,
+     * the first is indexed.
+     * @param settings the settings
+     * @return a new index
+     */
+    public static SettingsIndex of(Collection<Setting> settings) {
+        Map<String, Setting> unique = new LinkedHashMap<>();
+        for (Setting setting : settings) {
+            unique.putIfAbsent(setting.key, setting);
+        }
+        List<Setting> sorted = new ArrayList<>(unique.values());
+        sorted.sort(Comparator.comparing(setting -> setting.key));
+        return new SettingsIndex(sorted);
+    }
+
+    /**
+     * Reads an index from the JSON output of the doclet.
+     * @param reader the reader
+     * @return a new index
+     * @throws IOException on I/O error
+     */
+    public static SettingsIndex readJson(Reader reader) throws IOException {
+        return of(SettingsJson.read(reader));
+    }
+
+    /**
+     * Reads an index from the binary output of the doclet.
+     * @param in the input stream
+     * @return a new index
+     * @throws IOException on I/O error
+     * @see SettingsBinary
+     */
+    public static SettingsIndex readBinary(InputStream in) throws IOException {
+        return of(SettingsBinary.read(new BufferedInputStream(in)));
+    }
+
+    /**
+     * Loads an index from all binary and JSON settings resources visible to the
+     * context class loader of the current thread.
+     * @return a new index
+     * @throws IOException on I/O error
+     * @see #load(ClassLoader)
+     */
+    public static SettingsIndex load() throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return load(classLoader == null ? SettingsIndex.class.getClassLoader() : classLoader);
+    }
+
+    /**
+     * Loads an index from all binary and JSON settings resources visible to a class loader.
+     * Binary resources are read first, so if a key is defined in both, the setting from
+     * the binary resource is indexed.
+     * @param classLoader the class loader
+     * @return a new index
+     * @throws IOException on I/O error
+     */
+    public static SettingsIndex load(ClassLoader classLoader) throws IOException {
+        requireNonNull(classLoader, "classLoader");
+        List<Setting> settings = new ArrayList<>();
+        Enumeration<URL> binaryResources = classLoader.getResources(RESOURCE_PATH_BINARY);
+        while (binaryResources.hasMoreElements()) {
+            try (InputStream in = new BufferedInputStream(binaryResources.nextElement().openStream())) {
+                settings.addAll(SettingsBinary.read(in));
+            }
+        }
+        Enumeration<URL> jsonResources = classLoader.getResources(RESOURCE_PATH_JSON);
+        while (jsonResources.hasMoreElements()) {
+            try (Reader reader = new InputStreamReader(jsonResources.nextElement().openStream(), UTF_8)) {
+                settings.addAll(SettingsJson.read(reader));
+            }
+        }
+        return of(settings);
+    }
+
+    /**
+     * Gets the setting with the given key.
+     * @param key the key
+     * @return the setting, or null if there is no setting with the given key
+     */
+    @Nullable
+    public Setting get(String key) {
+        return settingsByKey.get(key);
+    }
+
+    public boolean contains(String key) {
+        return settingsByKey.containsKey(key);
+    }
+
+    /**
+     * Gets the default value of the setting with the given key.
+     * @param key the key
+     * @return the default value, or null if there is no setting with the given key or it has no default value
+     */
+    @Nullable
+    public String getDefaultValue(String key) {
+        @Nullable Setting setting = settingsByKey.get(key);
+        return setting == null ? null : setting.defaultValue;
+    }
+
+    /**
+     * Gets the settings whose keys start with the given prefix.
+     * @param prefix the prefix; the empty string matches all settings
+     * @return an unmodifiable list of settings, sorted by key
+     */
+    public List<Setting> withPrefix(String prefix) {
+        requireNonNull(prefix, "prefix");
+        int start = Arrays.binarySearch(sortedKeys, prefix);
+        if (start < 0) {
+            start = -(start + 1);
+        }
+        int end = start;
+        while (end < sortedKeys.length && sortedKeys[end].startsWith(prefix)) {
+            end++;
+        }
+        return sortedSettings.subList(start, end);
+    }
+
+    /**
+     * Gets all settings.
+     * @return an unmodifiable list of settings, sorted by key
+     */
+    public List<Setting> settings() {
+        return sortedSettings;
+    }
+
+    public int size() {
+        return sortedKeys.length;
+    }
+
+    /**
+     * Creates a properties object containing the default values of the settings that have them.
+     * Use the result as the defaults argument of {@link Properties#Properties(Properties)}.
+     * @return a new properties object
+     */
+    public Properties toDefaultProperties() {
+        Properties defaults = new Properties();
+        for (Setting setting : sortedSettings) {
+            if (setting.defaultValue != null) {
+                defaults.setProperty(setting.key, setting.defaultValue);
+            }
+        }
+        return defaults;
+    }
+
+    @Override
+    public String toString() {
+        return "SettingsIndex{size=" + size() + "}";
+    }
+}
@@ -0,0 +1,282 @@
+package io.github.mike10004.configdoclet.runtime;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reader of the JSON output of the doclet. This is a minimal parser, so that the
+ * runtime library has no dependencies. Members other than those of {@link Setting}
+ * are ignored.
+ */
+class SettingsJson {
+
+    private final CharSequence text;
+    private int pos;
+
+    private SettingsJson(CharSequence text) {
+        this.text = text;
+    }
+
+    public static List<Setting> read(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder(8192);
+        char[] buffer = new char[8192];
+        int r;
+        while ((r = reader.read(buffer)) != -1) {
+            sb.append(buffer, 0, r);
+        }
+        return parse(sb);
+    }
+
+    static List<Setting> parse(CharSequence json) {
+        SettingsJson parser = new SettingsJson(json);
+        Object root = parser.parseDocument();
+        if (root == null) {
+            return Collections.emptyList();
+        }
+        if (!(root instanceof List)) {
+            throw new IllegalArgumentException("expected top-level array");
+        }
+        List<Setting> settings = new ArrayList<>();
+        for (Object item : (List<?>) root) {
+            settings.add(toSetting(item));
+        }
+        return settings;
+    }
+
+    private static Setting toSetting(Object item) {
+        Map<?, ?> object = asObject(item);
+        String key = asString(object.get("key"));
+        if (key == null) {
+            throw new IllegalArgumentException("setting has no key");
+        }
+        List<Setting.ExampleValue> exampleValues = new ArrayList<>();
+        @Nullable Object examples = object.get("exampleValues");
+        if (examples != null) {
+            if (!(examples instanceof List)) {
+                throw new IllegalArgumentException("exampleValues of " + key + " is not an array");
+            }
+            for (Object example : (List<?>) examples) {
+                Map<?, ?> exampleObject = asObject(example);
+                String value = asString(exampleObject.get("value"));
+                if (value == null) {
+                    throw new IllegalArgumentException("example value of " + key + " has no value");
+                }
+                exampleValues.add(new Setting.ExampleValue(value, asString(exampleObject.get("description"))));
+            }
+        }
+        return new Setting(key, asString(object.get("description")), asString(object.get("defaultValue")), exampleValues);
+    }
+
+    private static Map<?, ?> asObject(Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("expected object but found " + value);
+        }
+        return (Map<?, ?>) value;
+    }
+
+    @Nullable
+    private static String asString(@Nullable Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        throw new IllegalArgumentException("expected string but found " + value);
+    }
+
+    @Nullable
+    private Object parseDocument() {
+        skipWhitespace();
+        if (pos == text.length()) {
+            return null;
+        }
+        Object value = parseValue();
+        skipWhitespace();
+        if (pos != text.length()) {
+            throw syntaxError("unexpected trailing content");
+        }
+        return value;
+    }
+
+    @Nullable
+    private Object parseValue() {
+        skipWhitespace();
+        if (pos >= text.length()) {
+            throw syntaxError("unexpected end of input");
+        }
+        char c = text.charAt(pos);
+        switch (c) {
+            case '{':
+                return parseObject();
+            case '[':
+                return parseArray();
+            case '"':
+                return parseString();
+            case 't':
+                expectLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return parseNumber();
+                }
+                throw syntaxError("unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> parseObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw syntaxError("expected member name");
+            }
+            String name = parseString();
+            skipWhitespace();
+            expect(':');
+            object.put(name, parseValue());
+            skipWhitespace();
+            char c = next();
+            if (c == '}') {
+                return object;
+            }
+            if (c != ',') {
+                throw syntaxError("expected ',' or '}'");
+            }
+        }
+    }
+
+    private List<Object> parseArray() {
+        List<Object> array = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return array;
+        }
+        while (true) {
+            array.add(parseValue());
+            skipWhitespace();
+            char c = next();
+            if (c == ']') {
+                return array;
+            }
+            if (c != ',') {
+                throw syntaxError("expected ',' or ']'");
+            }
+        }
+    }
+
+    private String parseString() {
+        pos++;
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c == '\\') {
+                char escaped = next();
+                switch (escaped) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append(escaped);
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw syntaxError("truncated unicode escape");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(text.subSequence(pos, pos + 4).toString(), 16));
+                        } catch (NumberFormatException e) {
+                            throw syntaxError("malformed unicode escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        throw syntaxError("invalid escape '\\" + escaped + "'");
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+
+    private Double parseNumber() {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+            pos++;
+        }
+        try {
+            return Double.valueOf(text.subSequence(start, pos).toString());
+        } catch (NumberFormatException e) {
+            throw syntaxError("malformed number");
+        }
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            expect(literal.charAt(i));
+        }
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw syntaxError("expected '" + expected + "'");
+        }
+    }
+
+    private char peek() {
+        if (pos >= text.length()) {
+            throw syntaxError("unexpected end of input");
+        }
+        return text.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException syntaxError(String message) {
+        return new IllegalArgumentException(message + " at offset " + pos);
+    }
+}
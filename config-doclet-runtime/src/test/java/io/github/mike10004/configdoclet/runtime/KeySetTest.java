@@ -0,0 +1,108 @@
+package io.github.mike10004.configdoclet.runtime;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KeySetTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static List<String> generateKeys(int n) {
+        List<String> keys = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            keys.add("service" + (i % 37) + ".setting" + i);
+        }
+        return keys;
+    }
+
+    @Test
+    public void contains() {
+        List<String> keys = generateKeys(20_000);
+        KeySet keySet = KeySet.of(keys);
+        assertEquals(keys.size(), keySet.size());
+        keys.forEach(key -> assertTrue(key, keySet.contains(key)));
+        int numFilterPasses = 0;
+        int numTrials = 20_000;
+        for (int i = 0; i < numTrials; i++) {
+            String unknown = "service" + (i % 37) + ".settnig" + i;
+            assertFalse(unknown, keySet.contains(unknown));
+            if (keySet.mightContain(unknown)) {
+                numFilterPasses++;
+            }
+        }
+        assertTrue("false positive rate of filter too high: " + numFilterPasses, numFilterPasses < numTrials * 0.05);
+    }
+
+    @Test
+    public void empty() {
+        KeySet keySet = KeySet.of(Collections.emptyList());
+        assertFalse(keySet.contains("a"));
+        assertEquals(Collections.singletonList("a"), keySet.findUnknown(Collections.singletonList("a")));
+    }
+
+    @Test
+    public void findUnknown() {
+        KeySet keySet = KeySet.of(Arrays.asList("app.port", "app.host"));
+        Properties properties = new Properties();
+        properties.setProperty("app.port", "80");
+        properties.setProperty("app.hots", "x");
+        properties.setProperty("app.prot", "x");
+        properties.put("app.nonString", 5);
+        assertEquals(Arrays.asList("app.hots", "app.prot"), keySet.findUnknown(properties));
+    }
+
+    @Test
+    public void writeAndRead() throws Exception {
+        KeySet keySet = KeySet.of(generateKeys(100));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        keySet.write(out);
+        KeySet deserialized = KeySet.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(keySet.keys(), deserialized.keys());
+        assertEquals(keySet.toString(), deserialized.toString());
+        assertTrue(deserialized.contains("service1.setting1"));
+        assertFalse(deserialized.contains("service1.setting100"));
+    }
+
+    @Test(expected = IOException.class)
+    public void read_badMagic() throws Exception {
+        KeySet.read(new ByteArrayInputStream(new byte[16]));
+    }
+
+    @Test
+    public void load() throws Exception {
+        Path root1 = temporaryFolder.newFolder().toPath(), root2 = temporaryFolder.newFolder().toPath();
+        writeResource(root1, KeySet.of(Arrays.asList("a", "b")));
+        writeResource(root2, KeySet.of(Arrays.asList("b", "c")));
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root1.toUri().toURL(), root2.toUri().toURL()}, null)) {
+            assertEquals(Arrays.asList("a", "b", "c"), KeySet.load(classLoader).keys());
+        }
+    }
+
+    private static void writeResource(Path root, KeySet keySet) throws IOException {
+        Path file = root.resolve(KeySet.RESOURCE_PATH);
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            keySet.write(out);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.mike10004.configdoclet.runtime;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SettingsBinaryTest {
+
+    @Test
+    public void roundTrip() throws Exception {
+        List<Setting> settings = Arrays.asList(
+                new Setting("a", "Description with ☃", "1", Arrays.asList(new Setting.ExampleValue("2", "two"), new Setting.ExampleValue("3", null))),
+                new Setting("b", null, null),
+                new Setting("c", "", ""));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SettingsBinary.write(settings, out);
+        List<Setting> deserialized = SettingsBinary.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(settings, deserialized);
+    }
+
+    @Test
+    public void write_sharesRepeatedStrings() throws Exception {
+        List<Setting> settings = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            settings.add(new Setting("key." + i, "A description that many settings share", "true",
+                    Arrays.asList(new Setting.ExampleValue("true", null), new Setting.ExampleValue("false", null))));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SettingsBinary.write(settings, out);
+        assertTrue("size " + out.size(), out.size() < 200 * 20);
+        List<Setting> deserialized = SettingsBinary.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(settings, deserialized);
+        assertSame("shared description", deserialized.get(0).description, deserialized.get(199).description);
+        assertSame("shared value", deserialized.get(0).defaultValue, deserialized.get(1).exampleValues.get(0).value);
+    }
+
+    @Test(expected = IOException.class)
+    public void read_unsupportedVersion() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(SettingsBinary.MAGIC);
+        data.writeByte(SettingsBinary.VERSION - 1);
+        data.writeInt(0);
+        data.flush();
+        SettingsBinary.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test(expected = IOException.class)
+    public void read_badMagic() throws Exception {
+        SettingsBinary.read(new ByteArrayInputStream(new byte[]{'[', '{', '}', ']', 1, 0, 0, 0, 0}));
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.mike10004.configdoclet.runtime;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SettingsIndexTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static SettingsIndex createIndex() {
+        return SettingsIndex.of(Arrays.asList(
+                new Setting("server.port", "Port", "8080"),
+                new Setting("app.name", "Name", null),
+                new Setting("server.host", "Host", "localhost"),
+                new Setting("server", "Server mode", "on"),
+                new Setting("serverless", null, "false"),
+                new Setting("app.name", "Duplicate", "ignored")));
+    }
+
+    private static List<String> keys(List<Setting> settings) {
+        return settings.stream().map(s -> s.key).collect(Collectors.toList());
+    }
+
+    @Test
+    public void get() {
+        SettingsIndex index = createIndex();
+        assertEquals("size", 5, index.size());
+        assertEquals("Name", index.get("app.name").description);
+        assertNull(index.get("app"));
+        assertTrue(index.contains("server"));
+        assertFalse(index.contains("nope"));
+        assertEquals("8080", index.getDefaultValue("server.port"));
+        assertNull(index.getDefaultValue("app.name"));
+        assertNull(index.getDefaultValue("nope"));
+    }
+
+    @Test
+    public void withPrefix() {
+        SettingsIndex index = createIndex();
+        assertEquals(Arrays.asList("server.host", "server.port"), keys(index.withPrefix("server.")));
+        assertEquals(Arrays.asList("server", "server.host", "server.port", "serverless"), keys(index.withPrefix("server")));
+        assertEquals(Collections.emptyList(), keys(index.withPrefix("zzz")));
+        assertEquals(Collections.emptyList(), keys(index.withPrefix("a.")));
+        assertEquals(keys(index.settings()), keys(index.withPrefix("")));
+    }
+
+    @Test
+    public void toDefaultProperties() {
+        Properties defaults = createIndex().toDefaultProperties();
+        Properties properties = new Properties(defaults);
+        properties.setProperty("server.port", "9090");
+        assertEquals("9090", properties.getProperty("server.port"));
+        assertEquals("localhost", properties.getProperty("server.host"));
+        assertNull(properties.getProperty("app.name"));
+    }
+
+    @Test
+    public void readJson() throws Exception {
+        String json = "[{\"key\": \"a\", \"defaultValue\": \"1\", \"exampleValues\": []}, {\"key\": \"b\"}]";
+        SettingsIndex index = SettingsIndex.readJson(new StringReader(json));
+        assertEquals(Arrays.asList(new Setting("a", null, "1"), new Setting("b", null, null)), index.settings());
+    }
+
+    @Test
+    public void load() throws Exception {
+        Path binaryRoot = temporaryFolder.newFolder().toPath();
+        Path binaryFile = binaryRoot.resolve(SettingsIndex.RESOURCE_PATH_BINARY);
+        Files.createDirectories(binaryFile.getParent());
+        try (OutputStream out = Files.newOutputStream(binaryFile)) {
+            SettingsBinary.write(Arrays.asList(new Setting("x.one", null, "1"), new Setting("shared", "from binary", null)), out);
+        }
+        Path jsonRoot = temporaryFolder.newFolder().toPath();
+        Path jsonFile = jsonRoot.resolve(SettingsIndex.RESOURCE_PATH_JSON);
+        Files.createDirectories(jsonFile.getParent());
+        Files.write(jsonFile, "[{\"key\":\"y.two\",\"defaultValue\":\"2\"},{\"key\":\"shared\",\"description\":\"from json\"}]".getBytes(UTF_8));
+        URL[] urls = {jsonRoot.toUri().toURL(), binaryRoot.toUri().toURL()};
+        try (URLClassLoader classLoader = new URLClassLoader(urls, null)) {
+            SettingsIndex index = SettingsIndex.load(classLoader);
+            assertEquals(Arrays.asList("shared", "x.one", "y.two"), keys(index.settings()));
+            assertEquals("from binary", index.get("shared").description);
+            assertEquals("2", index.getDefaultValue("y.two"));
+        }
+    }
+}
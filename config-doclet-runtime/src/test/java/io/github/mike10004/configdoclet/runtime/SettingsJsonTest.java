@@ -0,0 +1,49 @@
+package io.github.mike10004.configdoclet.runtime;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SettingsJsonTest {
+
+    @Test
+    public void parse() {
+        String json = "[\n" +
+                "  {\n" +
+                "    \"key\": \"app.message\",\n" +
+                "    \"description\": \"Line one\\nline \\\"two\\\" \\u00e9\\\\\",\n" +
+                "    \"defaultValue\": \"Hello, world!\",\n" +
+                "    \"exampleValues\": [\n" +
+                "      {\"value\": \"Hi\", \"description\": \"short\"},\n" +
+                "      {\"value\": \"Yo\"}\n" +
+                "    ],\n" +
+                "    \"sortKey\": \"zzz\",\n" +
+                "    \"attributes\": {\"n\": 1.5e2, \"b\": [true, false, null]}\n" +
+                "  }\n" +
+                "]";
+        List<Setting> settings = SettingsJson.parse(json);
+        Setting expected = new Setting("app.message", "Line one\nline \"two\" é\\", "Hello, world!",
+                Arrays.asList(new Setting.ExampleValue("Hi", "short"), new Setting.ExampleValue("Yo", null)));
+        assertEquals(Collections.singletonList(expected), settings);
+    }
+
+    @Test
+    public void parse_empty() {
+        assertEquals(Collections.emptyList(), SettingsJson.parse(" "));
+        assertEquals(Collections.emptyList(), SettingsJson.parse("[]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_malformed() {
+        SettingsJson.parse("[{\"key\": \"a\"]");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_missingKey() {
+        SettingsJson.parse("[{\"description\": \"a\"}]");
+    }
+}
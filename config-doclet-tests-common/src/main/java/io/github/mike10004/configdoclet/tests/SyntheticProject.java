@@ -0,0 +1,204 @@
+package io.github.mike10004.configdoclet.tests;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Generator of Java sources for projects of arbitrary size with documented settings.
+ * Each generated class has a number of setting fields whose comments mix plain text,
+ * {@code {@code}} spans, links to constants, characters that must be escaped in
+ * properties files, non-ASCII characters, and {@code @cfg} block tags, so that the
+ * doclet's work per setting resembles its work on real projects. Non-ASCII characters
+ * are written as Unicode escapes, so the sources compile in any encoding. Generation
+ * is deterministic for a given seed.
+ */
+public class SyntheticProject {
+
+    public static final String BASE_PACKAGE = "com.example.synthetic";
+
+    private static final String[] WORDS = {
+        "server", "timeout", "value", "maximum", "number", "of", "connections", "the",
+        "client", "retries", "before", "giving", "up", "a", "pathname", "to", "cache",
+        "directory", "when", "enabled", "requests", "are", "logged", "in", "milliseconds",
+        "na\\u00efve", "caf\\u00e9", "size", "buffer", "queue", "is", "drained", "per", "second",
+    };
+
+    private static final String[] SPECIALS = {
+        "key=value", "host:port", "#hashtag", "!bang", "C:\\temp", "50% off", "tab\there",
+    };
+
+    private final int numClasses;
+    private final int settingsPerClass;
+    private final int sentencesPerComment;
+    private final long seed;
+
+    private SyntheticProject(Builder builder) {
+        numClasses = builder.numClasses;
+        settingsPerClass = builder.settingsPerClass;
+        sentencesPerComment = builder.sentencesPerComment;
+        seed = builder.seed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a project with a total number of settings, spread over classes of 25 settings each.
+     */
+    public static SyntheticProject withSettingCount(int numSettings) {
+        int perClass = Math.min(25, numSettings);
+        checkArgument(numSettings % perClass == 0, "setting count must be a multiple of %s: %s", perClass, numSettings);
+        return builder().numClasses(numSettings / perClass).settingsPerClass(perClass).build();
+    }
+
+    /**
+     * Gets the number of documented settings the project has.
+     */
+    public int getSettingCount() {
+        return numClasses * settingsPerClass;
+    }
+
+    /**
+     * Gets the keys of the settings, in the order they are generated.
+     */
+    public List<String> getKeys() {
+        List<String> keys = new ArrayList<>(getSettingCount());
+        for (int c = 0; c < numClasses; c++) {
+            for (int s = 0; s < settingsPerClass; s++) {
+                keys.add(key(c, s));
+            }
+        }
+        return Collections.unmodifiableList(keys);
+    }
+
+    private static String packageName(int classIndex) {
+        return BASE_PACKAGE + ".p" + (classIndex / 10);
+    }
+
+    private static String className(int classIndex) {
+        return "Settings" + classIndex;
+    }
+
+    private static String key(int classIndex, int settingIndex) {
+        return "synthetic.p" + (classIndex / 10) + ".settings" + classIndex + ".value" + settingIndex;
+    }
+
+    /**
+     * Writes the sources beneath a source root directory.
+     * @param sourceRoot the source root
+     * @return the source files written
+     * @throws IOException on I/O error
+     */
+    public List<Path> writeSources(Path sourceRoot) throws IOException {
+        Random random = new Random(seed);
+        List<Path> files = new ArrayList<>(numClasses);
+        for (int c = 0; c < numClasses; c++) {
+            String packageName = packageName(c);
+            Path file = sourceRoot.resolve(packageName.replace('.', '/')).resolve(className(c) + ".java");
+            Files.createDirectories(file.getParent());
+            Files.write(file, generateClass(c, random).getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        return files;
+    }
+
+    String generateClass(int classIndex, Random random) {
+        StringBuilder sb = new StringBuilder(settingsPerClass * sentencesPerComment * 96);
+        sb.append("package ").append(packageName(classIndex)).append(";\n\n");
+        sb.append("/**\n * Generated settings class ").append(classIndex).append(".\n */\n");
+        sb.append("public class ").append(className(classIndex)).append(" {\n\n");
+        for (int s = 0; s < settingsPerClass; s++) {
+            sb.append("    static final int LIMIT_").append(s).append(" = ").append(random.nextInt(1000)).append(";\n\n");
+            sb.append("    /**\n");
+            for (int i = 0; i < sentencesPerComment; i++) {
+                sb.append("     * ").append(sentence(random, s)).append('\n');
+            }
+            sb.append("     * @cfg.default {@link #LIMIT_").append(s).append("}\n");
+            sb.append("     * @cfg.example ").append(SPECIALS[random.nextInt(SPECIALS.length)]).append('\n');
+            sb.append("     */\n");
+            sb.append("    public static final String CFG_VALUE_").append(s).append(" = \"").append(key(classIndex, s)).append("\";\n\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String sentence(Random random, int settingIndex) {
+        int numWords = 6 + random.nextInt(10);
+        StringBuilder sb = new StringBuilder(numWords * 8);
+        for (int w = 0; w < numWords; w++) {
+            if (w > 0) {
+                sb.append(' ');
+            }
+            int kind = random.nextInt(20);
+            if (kind == 0) {
+                sb.append("{@code ").append(SPECIALS[random.nextInt(SPECIALS.length)].replace("\\", "\\\\")).append('}');
+            } else if (kind == 1) {
+                sb.append("{@link #LIMIT_").append(settingIndex).append('}');
+            } else {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                sb.append(w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+            }
+        }
+        return sb.append('.').toString();
+    }
+
+    public static final class Builder {
+
+        private int numClasses = 4;
+        private int settingsPerClass = 25;
+        private int sentencesPerComment = 3;
+        private long seed = 1L;
+
+        private Builder() {
+        }
+
+        public Builder numClasses(int val) {
+            checkArgument(val > 0, "number of classes must be positive");
+            numClasses = val;
+            return this;
+        }
+
+        public Builder settingsPerClass(int val) {
+            checkArgument(val > 0, "number of settings must be positive");
+            settingsPerClass = val;
+            return this;
+        }
+
+        /**
+         * Sets the number of sentences in each setting's comment, which determines how large comments are.
+         */
+        public Builder sentencesPerComment(int val) {
+            checkArgument(val > 0, "number of sentences must be positive");
+            sentencesPerComment = val;
+            return this;
+        }
+
+        public Builder seed(long val) {
+            seed = val;
+            return this;
+        }
+
+        public SyntheticProject build() {
+            return new SyntheticProject(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SyntheticProject{" +
+                "numClasses=" + numClasses +
+                ", settingsPerClass=" + settingsPerClass +
+                ", sentencesPerComment=" + sentencesPerComment +
+                ", seed=" + seed +
+                '}';
+    }
+}
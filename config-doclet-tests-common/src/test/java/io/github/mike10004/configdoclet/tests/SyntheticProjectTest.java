@@ -0,0 +1,43 @@
+package io.github.mike10004.configdoclet.tests;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SyntheticProjectTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void writeSources() throws Exception {
+        SyntheticProject project = SyntheticProject.builder().numClasses(12).settingsPerClass(5).build();
+        Path sourceRoot = temporaryFolder.newFolder().toPath();
+        List<Path> files = project.writeSources(sourceRoot);
+        assertEquals("num files", 12, files.size());
+        assertEquals("num settings", 60, project.getSettingCount());
+        assertEquals("num keys", 60, project.getKeys().size());
+        Path classesDir = temporaryFolder.newFolder().toPath();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        String[] args = Stream.concat(Stream.of("-d", classesDir.toString()), files.stream().map(Path::toString)).toArray(String[]::new);
+        assertEquals("compiler exit code", 0, compiler.run(null, null, null, args));
+    }
+
+    @Test
+    public void writeSources_deterministic() throws Exception {
+        SyntheticProject project = SyntheticProject.withSettingCount(50);
+        Path first = project.writeSources(temporaryFolder.newFolder().toPath()).get(1);
+        Path second = project.writeSources(temporaryFolder.newFolder().toPath()).get(1);
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+    }
+}
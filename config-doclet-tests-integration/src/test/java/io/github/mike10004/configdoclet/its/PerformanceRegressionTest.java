@@ -0,0 +1,239 @@
+package io.github.mike10004.configdoclet.its;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.mike10004.configdoclet.ConfigDocletLauncher;
+import io.github.mike10004.configdoclet.tests.SyntheticProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Test that runs the doclet over fixed synthetic projects several times and compares
+ * the median measurements with a committed baseline. The measurements are the wall time
+ * of the whole javadoc run, the time spent in the doclet's phases, and the peak heap
+ * usage, the latter two taken from the doclet's metrics file. A measurement fails the
+ * test if it exceeds its baseline value times the tolerance for its kind.
+ *
+ * <p>The baseline values are absolute and depend on the machine that recorded them, and
+ * the peak heap depends on the heap sizing of the test JVM, so the test is skipped unless
+ * system property {@code configdoclet.perf} is true, which the {@code perf} profile sets.
+ * Record a baseline on the machine that runs the test before relying on it.
+ *
+ * <p>System properties:
+ * <ul>
+ *     <li>{@code configdoclet.perf.runs}: number of measured runs per project (default 5)</li>
+ *     <li>{@code configdoclet.perf.tolerance.time}: maximum ratio of measured to baseline
+ *         time (default 3.0)</li>
+ *     <li>{@code configdoclet.perf.tolerance.heap}: maximum ratio of measured to baseline
+ *         peak heap (default 2.0)</li>
+ *     <li>{@code configdoclet.perf.baseline.write}: pathname of a file to which the
+ *         measurements are written in baseline format, for updating the baseline</li>
+ * </ul>
+ */
+public class PerformanceRegressionTest {
+
+    static final String BASELINE_RESOURCE = "/perf-baseline.properties";
+    static final String SYSPROP_PERF = "configdoclet.perf";
+    static final String SYSPROP_RUNS = "configdoclet.perf.runs";
+    static final String SYSPROP_TOLERANCE_TIME = "configdoclet.perf.tolerance.time";
+    static final String SYSPROP_TOLERANCE_HEAP = "configdoclet.perf.tolerance.heap";
+    static final String SYSPROP_BASELINE_WRITE = "configdoclet.perf.baseline.write";
+
+    private static final int DEFAULT_RUNS = 5;
+    private static final double DEFAULT_TOLERANCE_TIME = 3.0;
+    private static final double DEFAULT_TOLERANCE_HEAP = 2.0;
+
+    /**
+     * Fixed projects, by setting count. Changing these invalidates the baseline.
+     */
+    private static final List<Integer> PROJECT_SETTING_COUNTS = Arrays.asList(250, 1000);
+
+    enum Metric {
+        wallMillis(SYSPROP_TOLERANCE_TIME, DEFAULT_TOLERANCE_TIME),
+        docletMillis(SYSPROP_TOLERANCE_TIME, DEFAULT_TOLERANCE_TIME),
+        peakHeapMegabytes(SYSPROP_TOLERANCE_HEAP, DEFAULT_TOLERANCE_HEAP);
+
+        private final String toleranceProperty;
+        private final double defaultTolerance;
+
+        Metric(String toleranceProperty, double defaultTolerance) {
+            this.toleranceProperty = toleranceProperty;
+            this.defaultTolerance = defaultTolerance;
+        }
+
+        public double getTolerance() {
+            return Double.parseDouble(System.getProperty(toleranceProperty, String.valueOf(defaultTolerance)));
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void compareWithBaseline() throws Exception {
+        assumeTrue(SYSPROP_PERF + " is not true", Boolean.parseBoolean(System.getProperty(SYSPROP_PERF)));
+        Properties baseline = loadBaseline();
+        int runs = Integer.parseInt(System.getProperty(SYSPROP_RUNS, String.valueOf(DEFAULT_RUNS)));
+        Map<String, Double> measured = new LinkedHashMap<>();
+        for (int settingCount : PROJECT_SETTING_COUNTS) {
+            measured.putAll(measure(settingCount, runs));
+        }
+        String baselineOutput = System.getProperty(SYSPROP_BASELINE_WRITE);
+        if (baselineOutput != null) {
+            writeBaseline(measured, Paths.get(baselineOutput));
+        }
+        Report report = compare(baseline, measured);
+        System.out.println(report.text);
+        if (report.failures > 0) {
+            fail(String.format("%d measurement(s) exceeded tolerance%n%s", report.failures, report.text));
+        }
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream in = PerformanceRegressionTest.class.getResourceAsStream(BASELINE_RESOURCE)) {
+            assertNotNull("baseline resource " + BASELINE_RESOURCE, in);
+            baseline.load(in);
+        }
+        return baseline;
+    }
+
+    static String projectName(int settingCount) {
+        return "synthetic-" + settingCount;
+    }
+
+    /**
+     * Runs the doclet over a synthetic project once to warm up and then several times,
+     * and returns the median of each metric, keyed by project name and metric name.
+     */
+    private Map<String, Double> measure(int settingCount, int runs) throws IOException {
+        Path sourceRoot = temporaryFolder.newFolder().toPath();
+        SyntheticProject.withSettingCount(settingCount).writeSources(sourceRoot);
+        Map<Metric, List<Double>> samples = new LinkedHashMap<>();
+        for (Metric metric : Metric.values()) {
+            samples.put(metric, new ArrayList<>(runs));
+        }
+        for (int i = 0; i <= runs; i++) {
+            Map<Metric, Double> sample = runOnce(sourceRoot, settingCount);
+            if (i > 0) {
+                sample.forEach((metric, value) -> samples.get(metric).add(value));
+            }
+        }
+        Map<String, Double> medians = new LinkedHashMap<>();
+        samples.forEach((metric, values) -> medians.put(projectName(settingCount) + "." + metric, median(values)));
+        return medians;
+    }
+
+    private Map<Metric, Double> runOnce(Path sourceRoot, int settingCount) throws IOException {
+        Path outputDir = temporaryFolder.newFolder().toPath();
+        Path metricsFile = outputDir.resolve("metrics.json");
+        String[] args = {
+                "--source-root", sourceRoot.toString(),
+                "-d", outputDir.toString(),
+                "--output-format", "json",
+                "--output-filename", "settings.json",
+                "--metrics-file", metricsFile.toString(),
+        };
+        ByteArrayOutputStream output = new ByteArrayOutputStream(1024);
+        PrintStream outputStream = new PrintStream(output, true);
+        System.gc();
+        long start = System.nanoTime();
+        int exitCode = new ConfigDocletLauncher(outputStream, outputStream).run(args);
+        long wallNanos = System.nanoTime() - start;
+        if (exitCode != 0) {
+            System.out.write(output.toByteArray());
+        }
+        assertEquals("exit code", 0, exitCode);
+        JsonObject metrics = new JsonParser().parse(new String(Files.readAllBytes(metricsFile), UTF_8)).getAsJsonObject();
+        JsonObject totals = metrics.getAsJsonObject("totals");
+        int extracted = -1;
+        for (JsonElement phase : metrics.getAsJsonArray("phases")) {
+            if ("extraction".equals(phase.getAsJsonObject().get("phase").getAsString())) {
+                extracted = phase.getAsJsonObject().get("elementCount").getAsInt();
+            }
+        }
+        assertEquals("settings extracted", settingCount, extracted);
+        Map<Metric, Double> sample = new LinkedHashMap<>();
+        sample.put(Metric.wallMillis, wallNanos / 1e6);
+        sample.put(Metric.docletMillis, totals.get("wallNanos").getAsLong() / 1e6);
+        sample.put(Metric.peakHeapMegabytes, totals.get("peakHeapBytes").getAsLong() / (1024.0 * 1024.0));
+        return sample;
+    }
+
+    static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int n = sorted.size();
+        return n % 2 == 1 ? sorted.get(n / 2) : (sorted.get(n / 2 - 1) + sorted.get(n / 2)) / 2;
+    }
+
+    static final class Report {
+
+        public final String text;
+        public final int failures;
+
+        Report(String text, int failures) {
+            this.text = text;
+            this.failures = failures;
+        }
+    }
+
+    /**
+     * Compares measurements with baseline values. Measurements without a baseline value
+     * are reported but do not fail.
+     */
+    static Report compare(Properties baseline, Map<String, Double> measured) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-36s %12s %12s %8s %8s  %s%n", "measurement", "baseline", "measured", "ratio", "limit", "status"));
+        int failures = 0;
+        for (Map.Entry<String, Double> entry : measured.entrySet()) {
+            String name = entry.getKey();
+            double value = entry.getValue();
+            Metric metric = Metric.valueOf(name.substring(name.lastIndexOf('.') + 1));
+            double tolerance = metric.getTolerance();
+            String baselineToken = baseline.getProperty(name);
+            if (baselineToken == null) {
+                sb.append(String.format("%-36s %12s %12.1f %8s %8.2f  %s%n", name, "-", value, "-", tolerance, "NO BASELINE"));
+                continue;
+            }
+            double baselineValue = Double.parseDouble(baselineToken.trim());
+            double ratio = value / baselineValue;
+            boolean exceeded = ratio > tolerance;
+            if (exceeded) {
+                failures++;
+            }
+            sb.append(String.format("%-36s %12.1f %12.1f %8.2f %8.2f  %s%n", name, baselineValue, value, ratio, tolerance, exceeded ? "EXCEEDED" : "ok"));
+        }
+        return new Report(sb.toString(), failures);
+    }
+
+    private static void writeBaseline(Map<String, Double> measured, Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        measured.forEach((name, value) -> lines.add(String.format("%s = %.0f", name, Math.ceil(value))));
+        Files.write(file, lines, UTF_8);
+        System.out.format("wrote measurements to %s%n", file);
+    }
+}